@@ -0,0 +1,531 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashMap;
+import java.util.Vector;
+
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Compares a classifier set of two iterations. Classifiers are identified by
+ * their condition and action. The comparison determines the classifiers that
+ * were inserted, deleted, or changed between both iterations and calculates
+ * the difference of all numerical columns for changed classifiers.
+ * <p>
+ * The comparison is a hash join: the classifiers of the earlier iteration are
+ * stored in a hash table that is probed with the classifiers of the later
+ * iteration. Its runtime is therefore linear in the size of both classifier
+ * sets.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class ClassifierSetDiff {
+
+	/**
+	 * Status of a classifier that only exists in the later iteration
+	 */
+	public static final String INSERTED = "inserted";
+
+	/**
+	 * Status of a classifier that only exists in the earlier iteration
+	 */
+	public static final String DELETED = "deleted";
+
+	/**
+	 * Status of a classifier whose values changed between both iterations
+	 */
+	public static final String CHANGED = "changed";
+
+	/**
+	 * Name of the additional column containing the status of a classifier
+	 */
+	public static final String STATUS_COLUMN = "Status";
+
+	/**
+	 * Appended to the name of a column to name the column containing its
+	 * differences
+	 */
+	public static final String DELTA_SUFFIX = " delta";
+
+	/**
+	 * Number of significant digits of the differences shown in the table
+	 */
+	private static final int SIGNIFICANT_DIGITS = 6;
+
+	/**
+	 * The classifier set of the earlier iteration
+	 */
+	private DefaultTableModel fromTable;
+
+	/**
+	 * The classifier set of the later iteration
+	 */
+	private DefaultTableModel toTable;
+
+	/**
+	 * Iteration number of the earlier iteration
+	 */
+	private double fromIteration;
+
+	/**
+	 * Iteration number of the later iteration
+	 */
+	private double toIteration;
+
+	/**
+	 * Model indices of the columns identifying a classifier
+	 */
+	private int[] keyColumns;
+
+	/**
+	 * Rows of the later classifier set that are not contained in the earlier
+	 * set
+	 */
+	private int[] insertedRows;
+
+	/**
+	 * Rows of the earlier classifier set that are not contained in the later
+	 * set
+	 */
+	private int[] deletedRows;
+
+	/**
+	 * Rows of the earlier classifier set whose values changed
+	 */
+	private int[] changedFromRows;
+
+	/**
+	 * Rows of the later classifier set whose values changed (same order as
+	 * <code>changedFromRows</code>)
+	 */
+	private int[] changedToRows;
+
+	/**
+	 * Number of inserted, deleted, and changed classifiers
+	 */
+	private int numberOfInserted, numberOfDeleted, numberOfChanged;
+
+	/**
+	 * Compares the classifier set with the given identifier of two
+	 * <code>DataElement</code>s.
+	 *
+	 * @param _from
+	 *            the <code>DataElement</code> of the earlier iteration
+	 * @param _to
+	 *            the <code>DataElement</code> of the later iteration
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 */
+	public ClassifierSetDiff(DataElement _from, DataElement _to, int _tableId) {
+		this.fromTable = _from.getClassifierSet(_tableId);
+		this.toTable = _to.getClassifierSet(_tableId);
+		this.fromIteration = _from.getIteration();
+		this.toIteration = _to.getIteration();
+		this.keyColumns = determineKeyColumns(toTable);
+		compare();
+	}
+
+	/**
+	 * Determines the columns that identify a classifier. These are the columns
+	 * "Condition" and "Action". If neither of them is found, the first column
+	 * is used.
+	 *
+	 * @param _table
+	 *            a classifier set
+	 * @return the model indices of the identifying columns
+	 */
+	private static int[] determineKeyColumns(DefaultTableModel _table) {
+		int condition = _table.findColumn("Condition");
+		int action = _table.findColumn("Action");
+		if (condition != -1 && action != -1)
+			return new int[] { condition, action };
+		if (condition != -1)
+			return new int[] { condition };
+		if (action != -1)
+			return new int[] { action };
+		return new int[] { 0 };
+	}
+
+	/**
+	 * Performs the hash join of both classifier sets.
+	 */
+	private void compare() {
+		int fromRows = fromTable.getRowCount();
+		int toRows = toTable.getRowCount();
+
+		// Build phase: hash all classifiers of the earlier iteration. Rows
+		// with identical keys are chained in the order of their appearance...
+		HashMap<ClassifierKey, int[]> chains = new HashMap<ClassifierKey, int[]>(
+				Math.max(16, fromRows * 4 / 3 + 1));
+		int[] nextRow = new int[fromRows];
+		for (int row = fromRows - 1; row >= 0; row--) {
+			ClassifierKey key = new ClassifierKey(fromTable, row, keyColumns);
+			int[] head = chains.get(key);
+			if (head == null) {
+				nextRow[row] = -1;
+				chains.put(key, new int[] { row });
+			} else {
+				nextRow[row] = head[0];
+				head[0] = row;
+			}
+		}
+
+		// Probe phase: look up every classifier of the later iteration...
+		boolean[] matched = new boolean[fromRows];
+		insertedRows = new int[toRows];
+		changedFromRows = new int[Math.min(fromRows, toRows)];
+		changedToRows = new int[changedFromRows.length];
+		for (int row = 0; row < toRows; row++) {
+			int[] head = chains.get(new ClassifierKey(toTable, row, keyColumns));
+			if (head == null || head[0] == -1) {
+				insertedRows[numberOfInserted++] = row;
+			} else {
+				int fromRow = head[0];
+				head[0] = nextRow[fromRow];
+				matched[fromRow] = true;
+				if (!rowsEqual(fromRow, row)) {
+					changedFromRows[numberOfChanged] = fromRow;
+					changedToRows[numberOfChanged] = row;
+					numberOfChanged++;
+				}
+			}
+		}
+
+		// All unmatched classifiers of the earlier iteration were deleted...
+		deletedRows = new int[fromRows];
+		for (int row = 0; row < fromRows; row++) {
+			if (!matched[row])
+				deletedRows[numberOfDeleted++] = row;
+		}
+	}
+
+	/**
+	 * Tests if a classifier has the same values in both iterations.
+	 *
+	 * @param _fromRow
+	 *            row of the classifier in the earlier classifier set
+	 * @param _toRow
+	 *            row of the classifier in the later classifier set
+	 * @return <code>true</code> iff all values are equal
+	 */
+	private boolean rowsEqual(int _fromRow, int _toRow) {
+		int columns = Math.min(fromTable.getColumnCount(), toTable
+				.getColumnCount());
+		for (int column = 0; column < columns; column++) {
+			Object fromValue = fromTable.getValueAt(_fromRow, column);
+			Object toValue = toTable.getValueAt(_toRow, column);
+			if (fromValue == null ? toValue != null : !fromValue
+					.equals(toValue))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of inserted classifiers.
+	 *
+	 * @return the number of inserted classifiers
+	 */
+	public int getNumberOfInserted() {
+		return numberOfInserted;
+	}
+
+	/**
+	 * Returns the number of deleted classifiers.
+	 *
+	 * @return the number of deleted classifiers
+	 */
+	public int getNumberOfDeleted() {
+		return numberOfDeleted;
+	}
+
+	/**
+	 * Returns the number of changed classifiers.
+	 *
+	 * @return the number of changed classifiers
+	 */
+	public int getNumberOfChanged() {
+		return numberOfChanged;
+	}
+
+	/**
+	 * Returns the row of the i-th inserted classifier in the classifier set of
+	 * the later iteration.
+	 *
+	 * @param _i
+	 *            index of the inserted classifier
+	 * @return the row of the classifier in the later classifier set
+	 */
+	public int getInsertedRow(int _i) {
+		return insertedRows[_i];
+	}
+
+	/**
+	 * Returns the row of the i-th deleted classifier in the classifier set of
+	 * the earlier iteration.
+	 *
+	 * @param _i
+	 *            index of the deleted classifier
+	 * @return the row of the classifier in the earlier classifier set
+	 */
+	public int getDeletedRow(int _i) {
+		return deletedRows[_i];
+	}
+
+	/**
+	 * Returns the difference (later value minus earlier value) of a column of
+	 * the i-th changed classifier. If the column does not contain numbers,
+	 * <code>Double.NaN</code> is returned.
+	 *
+	 * @param _i
+	 *            index of the changed classifier
+	 * @param _column
+	 *            model index of the column
+	 * @return the difference of the column values
+	 */
+	public double getDelta(int _i, int _column) {
+		try {
+			double fromValue = Double.parseDouble((String) fromTable
+					.getValueAt(changedFromRows[_i], _column));
+			double toValue = Double.parseDouble((String) toTable.getValueAt(
+					changedToRows[_i], _column));
+			return toValue - fromValue;
+		} catch (Exception e) {
+			// Column contains no numbers...
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the iteration number of the earlier iteration.
+	 *
+	 * @return the iteration number of the earlier iteration
+	 */
+	public double getFromIteration() {
+		return fromIteration;
+	}
+
+	/**
+	 * Returns the iteration number of the later iteration.
+	 *
+	 * @return the iteration number of the later iteration
+	 */
+	public double getToIteration() {
+		return toIteration;
+	}
+
+	/**
+	 * Creates a table containing all inserted, deleted, and changed
+	 * classifiers. The first column contains the status of a classifier (see
+	 * <code>INSERTED</code>, <code>DELETED</code>, and <code>CHANGED</code>).
+	 * Inserted and changed classifiers are shown with the values of the later
+	 * iteration, deleted classifiers with the values of the earlier one.
+	 * Every column with changed numbers is followed by a column containing
+	 * the differences to the earlier values (named after the column plus
+	 * <code>DELTA_SUFFIX</code>), so the value columns only contain logged
+	 * values. Changed values that are no numbers are shown together with the
+	 * earlier value (e.g. <code>0#1 (was 011)</code>).
+	 *
+	 * @return a table containing all differences
+	 */
+	public DefaultTableModel createTableModel() {
+		int columns = toTable.getColumnCount();
+
+		// Compute the differences first; they determine the delta columns...
+		String[][] deltas = new String[numberOfChanged][columns];
+		boolean[] hasDelta = new boolean[columns];
+		for (int i = 0; i < numberOfChanged; i++) {
+			for (int column = 0; column < columns; column++) {
+				Object toValue = toTable.getValueAt(changedToRows[i], column);
+				if (toValue != null
+						&& !toValue.equals(fromTable.getValueAt(
+								changedFromRows[i], column))) {
+					double delta = getDelta(i, column);
+					if (!Double.isNaN(delta)) {
+						deltas[i][column] = formatDelta(delta);
+						hasDelta[column] = true;
+					}
+				}
+			}
+		}
+
+		// Position of every column in the difference table...
+		int[] positions = new int[columns];
+		Vector<String> columnNames = new Vector<String>();
+		columnNames.add(STATUS_COLUMN);
+		for (int column = 0; column < columns; column++) {
+			positions[column] = columnNames.size();
+			columnNames.add(toTable.getColumnName(column));
+			if (hasDelta[column])
+				columnNames.add(toTable.getColumnName(column) + DELTA_SUFFIX);
+		}
+
+		DefaultTableModel result = new DefaultTableModel(columnNames, 0);
+
+		for (int i = 0; i < numberOfInserted; i++)
+			result.addRow(createRow(INSERTED, toTable, insertedRows[i],
+					positions, columnNames.size()));
+
+		for (int i = 0; i < numberOfDeleted; i++)
+			result.addRow(createRow(DELETED, fromTable, deletedRows[i],
+					positions, columnNames.size()));
+
+		for (int i = 0; i < numberOfChanged; i++) {
+			Object[] row = createRow(CHANGED, toTable, changedToRows[i],
+					positions, columnNames.size());
+			for (int column = 0; column < columns; column++) {
+				Object fromValue = fromTable.getValueAt(changedFromRows[i],
+						column);
+				Object toValue = row[positions[column]];
+				if (deltas[i][column] != null)
+					row[positions[column] + 1] = deltas[i][column];
+				else if (toValue != null && !toValue.equals(fromValue))
+					row[positions[column]] = toValue + " (was " + fromValue
+							+ ")";
+			}
+			result.addRow(row);
+		}
+		return result;
+	}
+
+	/**
+	 * Formats the difference of a value with a sign and at most
+	 * <code>SIGNIFICANT_DIGITS</code> significant digits, so rounding errors
+	 * of the subtraction are not shown (e.g. <code>+0.3</code> instead of
+	 * <code>+0.30000000000000004</code>).
+	 *
+	 * @param _delta
+	 *            the difference
+	 * @return the formatted difference
+	 */
+	static String formatDelta(double _delta) {
+		if (Double.isInfinite(_delta))
+			return (_delta > 0 ? "+" : "") + _delta;
+		String digits = new BigDecimal(_delta).round(
+				new MathContext(SIGNIFICANT_DIGITS)).stripTrailingZeros()
+				.toPlainString();
+		return (_delta >= 0 ? "+" : "") + digits;
+	}
+
+	/**
+	 * Creates a row of the difference table. Delta columns are left empty.
+	 *
+	 * @param _status
+	 *            status of the classifier
+	 * @param _table
+	 *            classifier set containing the classifier
+	 * @param _row
+	 *            row of the classifier
+	 * @param _positions
+	 *            position of every column of the classifier set in the
+	 *            difference table
+	 * @param _length
+	 *            number of columns of the difference table
+	 * @return a row of the difference table
+	 */
+	private static Object[] createRow(String _status, DefaultTableModel _table,
+			int _row, int[] _positions, int _length) {
+		Object[] row = new Object[_length];
+		row[0] = _status;
+		int columns = Math.min(_table.getColumnCount(), _positions.length);
+		for (int column = 0; column < columns; column++)
+			row[_positions[column]] = _table.getValueAt(_row, column);
+		return row;
+	}
+
+	/**
+	 * Returns a string representation of this object.
+	 *
+	 * @return a string representation of this object
+	 */
+	@Override
+	public String toString() {
+		return "iteration " + fromIteration + " -> " + toIteration + ": "
+				+ numberOfInserted + " inserted, " + numberOfDeleted
+				+ " deleted, " + numberOfChanged + " changed";
+	}
+
+	/**
+	 * Identifies a classifier by the values of its key columns. The importer
+	 * interns conditions and actions, so comparing equal keys usually reduces
+	 * to reference comparisons.
+	 */
+	private static class ClassifierKey {
+
+		/**
+		 * Values of the key columns
+		 */
+		private final Object[] values;
+
+		/**
+		 * Precomputed hash code
+		 */
+		private final int hash;
+
+		/**
+		 * Creates the key of a classifier.
+		 *
+		 * @param _table
+		 *            classifier set containing the classifier
+		 * @param _row
+		 *            row of the classifier
+		 * @param _keyColumns
+		 *            model indices of the key columns
+		 */
+		ClassifierKey(DefaultTableModel _table, int _row, int[] _keyColumns) {
+			values = new Object[_keyColumns.length];
+			int h = 1;
+			for (int i = 0; i < _keyColumns.length; i++) {
+				values[i] = _table.getValueAt(_row, _keyColumns[i]);
+				h = 31 * h + (values[i] == null ? 0 : values[i].hashCode());
+			}
+			hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object _other) {
+			if (!(_other instanceof ClassifierKey))
+				return false;
+			ClassifierKey other = (ClassifierKey) _other;
+			if (other.hash != hash || other.values.length != values.length)
+				return false;
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != other.values[i]
+						&& (values[i] == null || !values[i]
+								.equals(other.values[i])))
+					return false;
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,286 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer;
+
+import java.util.Arrays;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * A read-only view of a classifier set in a <code>DefaultTableModel</code>.
+ * The view reads its cells from the rows of the <code>DefaultTableModel</code>
+ * and copies nothing when it is created, so a <code>JTable</code> only reads
+ * the cells of the visible rows. Numeric views of the columns, sort keys, and
+ * sort permutations are computed on first use and kept with the model. The
+ * classifier set must not be changed while the view is in use.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class ClassifierTableModel extends AbstractTableModel {
+
+	/**
+	 * Names of the columns
+	 */
+	private String[] columnNames;
+
+	/**
+	 * The rows of the classifier set; each row is a <code>Vector</code> of
+	 * cells
+	 */
+	private Vector<?> rows;
+
+	/**
+	 * Number of rows
+	 */
+	private int rowCount;
+
+	/**
+	 * Numeric values of the columns; created on demand
+	 */
+	private double[][] numericColumns;
+
+	/**
+	 * Sort keys of the columns; created on demand
+	 */
+	private double[][] sortKeys;
+
+	/**
+	 * <code>true</code> for columns whose sort keys are numbers
+	 */
+	private boolean[] numericSortKeys;
+
+	/**
+	 * Rows with the longest text of the columns; <code>-2</code> until
+	 * computed, <code>-1</code> for columns without cells
+	 */
+	private int[] longestRows;
+
+	/**
+	 * Positions of the rows in ascending order of the columns; created on
+	 * demand
+	 */
+	private AtomicReferenceArray<int[]> sortPermutations;
+
+	/**
+	 * Creates a view of the cells of a <code>DefaultTableModel</code>. Only
+	 * the column names are copied.
+	 * 
+	 * @param _table
+	 *            the classifier set
+	 */
+	public ClassifierTableModel(DefaultTableModel _table) {
+		int columnCount = _table.getColumnCount();
+		this.rows = _table.getDataVector();
+		this.rowCount = _table.getRowCount();
+		this.columnNames = new String[columnCount];
+		this.numericColumns = new double[columnCount][];
+		this.sortKeys = new double[columnCount][];
+		this.numericSortKeys = new boolean[columnCount];
+		this.longestRows = new int[columnCount];
+		Arrays.fill(longestRows, -2);
+		this.sortPermutations = new AtomicReferenceArray<int[]>(columnCount);
+		for (int column = 0; column < columnCount; column++)
+			columnNames[column] = _table.getColumnName(column);
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	@Override
+	public String getColumnName(int _column) {
+		return columnNames[_column];
+	}
+
+	public Object getValueAt(int _row, int _column) {
+		Vector<?> cells = (Vector<?>) rows.get(_row);
+		return _column < cells.size() ? cells.get(_column) : null;
+	}
+
+	/**
+	 * Returns the cells of a column. The cells are copied on every call.
+	 * 
+	 * @param _column
+	 *            the column
+	 * @return the cells of the column
+	 */
+	private Object[] getColumn(int _column) {
+		Object[] cells = new Object[rowCount];
+		for (int row = 0; row < rowCount; row++)
+			cells[row] = getValueAt(row, _column);
+		return cells;
+	}
+
+	/**
+	 * Returns the row of a column whose cell has the longest text. The row is
+	 * searched on first use and kept with the model.
+	 * 
+	 * @param _column
+	 *            the column
+	 * @return the row with the longest text, or <code>-1</code> if the
+	 *         column contains no cells
+	 */
+	public synchronized int getLongestRow(int _column) {
+		if (longestRows[_column] == -2) {
+			int longestRow = -1;
+			int longestLength = -1;
+			for (int row = 0; row < rowCount; row++) {
+				Object cell = getValueAt(row, _column);
+				if (cell != null && cell.toString().length() > longestLength) {
+					longestRow = row;
+					longestLength = cell.toString().length();
+				}
+			}
+			longestRows[_column] = longestRow;
+		}
+		return longestRows[_column];
+	}
+
+	/**
+	 * Returns the numeric values of a column. Cells that cannot be parsed as
+	 * <code>double</code> are <code>Double.NaN</code>. The values are parsed
+	 * on first use; the returned array must not be changed.
+	 * 
+	 * @param _column
+	 *            the column
+	 * @return the numeric values of the column
+	 */
+	public synchronized double[] getNumericColumn(int _column) {
+		if (numericColumns[_column] == null) {
+			double[] values = new double[rowCount];
+			for (int row = 0; row < rowCount; row++) {
+				Object cell = getValueAt(row, _column);
+				try {
+					values[row] = cell == null ? Double.NaN : Double
+							.parseDouble(cell.toString());
+				} catch (NumberFormatException e) {
+					values[row] = Double.NaN;
+				}
+			}
+			numericColumns[_column] = values;
+		}
+		return numericColumns[_column];
+	}
+
+	/**
+	 * Returns a primitive sort key for every cell of a column. If all cells of
+	 * the column are numbers, the keys are the numbers. Otherwise the keys
+	 * are the ranks of the cells' texts in lexicographic order. Empty cells
+	 * come first. The keys are computed on first use; the returned array
+	 * must not be changed.
+	 * 
+	 * @param _column
+	 *            the column
+	 * @return the sort keys of the column
+	 */
+	public synchronized double[] getSortKeys(int _column) {
+		if (sortKeys[_column] == null) {
+			Object[] cells = getColumn(_column);
+			double[] values = getNumericColumn(_column);
+			boolean numeric = true;
+			for (int row = 0; row < rowCount && numeric; row++) {
+				if (Double.isNaN(values[row]) && cells[row] != null
+						&& !cells[row].toString().trim().equals("NaN"))
+					numeric = false;
+			}
+
+			numericSortKeys[_column] = numeric;
+			if (numeric) {
+				sortKeys[_column] = values;
+			} else {
+				// Rank the texts...
+				String[] texts = new String[rowCount];
+				int count = 0;
+				for (int row = 0; row < rowCount; row++) {
+					if (cells[row] != null)
+						texts[count++] = cells[row].toString();
+				}
+				Arrays.sort(texts, 0, count);
+				double[] ranks = new double[rowCount];
+				for (int row = 0; row < rowCount; row++) {
+					ranks[row] = cells[row] == null ? -1 : Arrays
+							.binarySearch(texts, 0, count, cells[row]
+									.toString());
+				}
+				sortKeys[_column] = ranks;
+			}
+		}
+		return sortKeys[_column];
+	}
+
+	/**
+	 * Returns <code>true</code> if all cells of a column are numbers, i.e.
+	 * if the sort keys of the column are the numbers.
+	 * 
+	 * @param _column
+	 *            the column
+	 * @return <code>true</code> if all cells of the column are numbers
+	 */
+	public synchronized boolean isNumericColumn(int _column) {
+		getSortKeys(_column);
+		return numericSortKeys[_column];
+	}
+
+	/**
+	 * Returns the positions of the rows in ascending order of a column. Rows
+	 * with equal cells keep their order. The permutation is computed on first
+	 * use, in parallel for large models (see
+	 * <code>IndexSort.parallelSort()</code>); the returned array must not be
+	 * changed. Must not be called by a thread of the worker pool.
+	 * 
+	 * @param _column
+	 *            the column
+	 * @return the positions of the rows in ascending order of the column
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting for a
+	 *             parallel sort
+	 */
+	public int[] getSortPermutation(int _column) throws InterruptedException {
+		// Sort without holding the lock of the model, so other threads can
+		// check for the permutation while it is computed...
+		if (sortPermutations.get(_column) == null)
+			sortPermutations.compareAndSet(_column, null, IndexSort
+					.parallelSort(getSortKeys(_column)));
+		return sortPermutations.get(_column);
+	}
+
+	/**
+	 * Returns <code>true</code> if the sort permutation of a column has
+	 * already been computed.
+	 * 
+	 * @param _column
+	 *            the column
+	 * @return <code>true</code> if the sort permutation is available
+	 */
+	public boolean hasSortPermutation(int _column) {
+		return sortPermutations.get(_column) != null;
+	}
+}
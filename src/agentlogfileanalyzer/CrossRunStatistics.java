@@ -0,0 +1,189 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer;
+
+import java.util.Vector;
+
+/**
+ * Contains the mean and the 95% confidence interval of a metric across
+ * several runs of an experiment. The runs are aligned by their iteration
+ * numbers.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class CrossRunStatistics {
+
+	/**
+	 * Quantile of the standard normal distribution used for the 95%
+	 * confidence interval
+	 */
+	private static final double Z_95 = 1.96;
+
+	/**
+	 * First iteration of every bucket
+	 */
+	private double[] iterations;
+
+	/**
+	 * Mean across runs for every bucket
+	 */
+	private double[] means;
+
+	/**
+	 * Half width of the confidence interval for every bucket
+	 */
+	private double[] confidence;
+
+	/**
+	 * Number of runs contributing to every bucket
+	 */
+	private int[] numberOfRuns;
+
+	/**
+	 * Computes the statistics of a metric across the given runs.
+	 *
+	 * @param _runs
+	 *            the summaries of all runs
+	 * @param _metric
+	 *            index of the metric (see
+	 *            <code>RunSummary.getMetricNames()</code>)
+	 */
+	public CrossRunStatistics(Vector<RunSummary> _runs, int _metric) {
+		// Use the coarsest bucket width of all runs...
+		long bucketWidth = 1;
+		long first = Long.MAX_VALUE;
+		long end = Long.MIN_VALUE;
+		for (int i = 0; i < _runs.size(); i++) {
+			RunSummary run = _runs.get(i);
+			if (run.getNumberOfIterations() == 0)
+				continue;
+			bucketWidth = Math.max(bucketWidth, run.getBucketWidth());
+			first = Math.min(first, run.getFirstIteration());
+			end = Math.max(end, run.getEndIteration());
+		}
+		if (first > end) {
+			first = 0;
+			end = 0;
+		}
+		first = (long) Math.floor((double) first / bucketWidth) * bucketWidth;
+
+		int numberOfBuckets = (int) ((end - first + bucketWidth - 1) / bucketWidth);
+		iterations = new double[numberOfBuckets];
+		means = new double[numberOfBuckets];
+		confidence = new double[numberOfBuckets];
+		numberOfRuns = new int[numberOfBuckets];
+
+		for (int bucket = 0; bucket < numberOfBuckets; bucket++) {
+			long bucketStart = first + bucket * bucketWidth;
+			double sum = 0;
+			double sumOfSquares = 0;
+			int n = 0;
+			for (int i = 0; i < _runs.size(); i++) {
+				double value = _runs.get(i).getMean(_metric, bucketStart,
+						bucketWidth);
+				if (!Double.isNaN(value)) {
+					sum += value;
+					sumOfSquares += value * value;
+					n++;
+				}
+			}
+			iterations[bucket] = bucketStart;
+			numberOfRuns[bucket] = n;
+			if (n == 0) {
+				means[bucket] = Double.NaN;
+				confidence[bucket] = Double.NaN;
+			} else {
+				means[bucket] = sum / n;
+				double variance = n > 1 ? Math.max(0, (sumOfSquares - sum
+						* sum / n)
+						/ (n - 1)) : 0;
+				confidence[bucket] = Z_95 * Math.sqrt(variance / n);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of buckets.
+	 *
+	 * @return the number of buckets
+	 */
+	public int size() {
+		return iterations.length;
+	}
+
+	/**
+	 * Returns the first iteration of a bucket.
+	 *
+	 * @param _bucket
+	 *            index of the bucket
+	 * @return the first iteration of the bucket
+	 */
+	public double getIteration(int _bucket) {
+		return iterations[_bucket];
+	}
+
+	/**
+	 * Returns the mean across runs of a bucket. Returns
+	 * <code>Double.NaN</code> if no run contains the bucket.
+	 *
+	 * @param _bucket
+	 *            index of the bucket
+	 * @return the mean across runs
+	 */
+	public double getMean(int _bucket) {
+		return means[_bucket];
+	}
+
+	/**
+	 * Returns the lower bound of the 95% confidence interval of a bucket.
+	 *
+	 * @param _bucket
+	 *            index of the bucket
+	 * @return the lower bound of the confidence interval
+	 */
+	public double getLowerBound(int _bucket) {
+		return means[_bucket] - confidence[_bucket];
+	}
+
+	/**
+	 * Returns the upper bound of the 95% confidence interval of a bucket.
+	 *
+	 * @param _bucket
+	 *            index of the bucket
+	 * @return the upper bound of the confidence interval
+	 */
+	public double getUpperBound(int _bucket) {
+		return means[_bucket] + confidence[_bucket];
+	}
+
+	/**
+	 * Returns the number of runs contributing to a bucket.
+	 *
+	 * @param _bucket
+	 *            index of the bucket
+	 * @return the number of runs contributing to the bucket
+	 */
+	public int getNumberOfRuns(int _bucket) {
+		return numberOfRuns[_bucket];
+	}
+}
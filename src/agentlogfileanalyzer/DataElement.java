@@ -22,8 +22,12 @@
 
 package agentlogfileanalyzer;
 
+import java.lang.ref.SoftReference;
+
 import javax.swing.table.DefaultTableModel;
 
+import agentlogfileanalyzer.matching.ConditionIndex;
+
 /**
  * A <code>DataElement</code> stores all classifiers sets (i. e. population,
  * match set, and action set) of one iteration. Each classifier set is stored in
@@ -35,6 +39,21 @@ import javax.swing.table.DefaultTableModel;
  */
 public class DataElement {
 
+	/**
+	 * Identifier of the population
+	 */
+	public static final int POPULATION = 0;
+
+	/**
+	 * Identifier of the match set
+	 */
+	public static final int MATCH_SET = 1;
+
+	/**
+	 * Identifier of the action set
+	 */
+	public static final int ACTION_SET = 2;
+
 	/**
 	 * The iteration number
 	 */
@@ -60,6 +79,31 @@ public class DataElement {
 	 */
 	private DefaultTableModel actionSet;
 
+	/**
+	 * Estimated number of distinct conditions in the population
+	 */
+	private double distinctConditions;
+
+	/**
+	 * Estimated Jaccard similarity of the population's conditions to the
+	 * conditions of the previous iteration
+	 */
+	private double conditionSimilarity;
+
+	/**
+	 * Cached condition indexes of the classifier sets. They are created on
+	 * demand and may be discarded by the garbage collector.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private SoftReference<ConditionIndex>[] conditionIndexes = new SoftReference[3];
+
+	/**
+	 * Cached read-only table models of the classifier sets. They are created
+	 * on demand and may be discarded by the garbage collector.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private SoftReference<ClassifierTableModel>[] tableModels = new SoftReference[3];
+
 	/**
 	 * Reference to the <code>DataElement</code> of the next iteration
 	 */
@@ -76,6 +120,8 @@ public class DataElement {
 	public DataElement() {
 		iteration = -1;
 		input = "";
+		distinctConditions = Double.NaN;
+		conditionSimilarity = Double.NaN;
 
 		String[] columnNames = LogFileAnalyzer.getInstance().getColumnNames();
 		int numberOfColumns = columnNames.length;
@@ -128,6 +174,83 @@ public class DataElement {
 		return actionSet;
 	}
 
+	/**
+	 * Returns the <code>DefaultTableModel</code> containing the classifier set
+	 * with the given identifier.
+	 * 
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @return the <code>DefaultTableModel</code> containing the classifier
+	 *         set
+	 */
+	public DefaultTableModel getClassifierSet(int _tableId) {
+		if (_tableId == MATCH_SET)
+			return matchSet;
+		if (_tableId == ACTION_SET)
+			return actionSet;
+		return population;
+	}
+
+	/**
+	 * Returns an index over the conditions of the classifier set with the
+	 * given identifier. The index is created on first use and cached.
+	 * 
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @return an index over the conditions of the classifier set
+	 */
+	public synchronized ConditionIndex getConditionIndex(int _tableId) {
+		SoftReference<ConditionIndex> reference = conditionIndexes[_tableId];
+		ConditionIndex index = reference == null ? null : reference.get();
+		if (index == null) {
+			index = new ConditionIndex(getClassifierSet(_tableId));
+			conditionIndexes[_tableId] = new SoftReference<ConditionIndex>(
+					index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index over the conditions of the classifier set with the
+	 * given identifier if it has already been created. No index is created.
+	 * 
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @return the cached index, or <code>null</code> if there is none
+	 */
+	public synchronized ConditionIndex getCachedConditionIndex(int _tableId) {
+		SoftReference<ConditionIndex> reference = conditionIndexes[_tableId];
+		return reference == null ? null : reference.get();
+	}
+
+	/**
+	 * Returns a read-only table model of the classifier set with the given
+	 * identifier. The model is created on first use and cached.
+	 * 
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @return a read-only table model of the classifier set
+	 */
+	public synchronized ClassifierTableModel getTableModel(int _tableId) {
+		SoftReference<ClassifierTableModel> reference = tableModels[_tableId];
+		ClassifierTableModel model = reference == null ? null : reference
+				.get();
+		if (model == null) {
+			model = new ClassifierTableModel(getClassifierSet(_tableId));
+			tableModels[_tableId] = new SoftReference<ClassifierTableModel>(
+					model);
+		}
+		return model;
+	}
+
 	/**
 	 * Returns a reference to the <code>DataElement</code> containing the
 	 * classifier sets for the next iteration. If there is no next element, the
@@ -196,6 +319,8 @@ public class DataElement {
 	 */
 	public void setPopulation(DefaultTableModel _population) {
 		this.population = _population;
+		this.conditionIndexes[POPULATION] = null;
+		this.tableModels[POPULATION] = null;
 	}
 
 	/**
@@ -206,6 +331,8 @@ public class DataElement {
 	 */
 	public void setMatchSet(DefaultTableModel _matchSet) {
 		this.matchSet = _matchSet;
+		this.conditionIndexes[MATCH_SET] = null;
+		this.tableModels[MATCH_SET] = null;
 	}
 
 	/**
@@ -216,6 +343,8 @@ public class DataElement {
 	 */
 	public void setActionSet(DefaultTableModel _actionSet) {
 		this.actionSet = _actionSet;
+		this.conditionIndexes[ACTION_SET] = null;
+		this.tableModels[ACTION_SET] = null;
 	}
 
 	/**
@@ -236,4 +365,46 @@ public class DataElement {
 	public void setInput(String input) {
 		this.input = input;
 	}
-}
+
+	/**
+	 * Returns the estimated number of distinct conditions in the population.
+	 * Returns <code>Double.NaN</code> if it was not calculated.
+	 * 
+	 * @return the estimated number of distinct conditions
+	 */
+	public double getDistinctConditions() {
+		return distinctConditions;
+	}
+
+	/**
+	 * Sets the estimated number of distinct conditions in the population.
+	 * 
+	 * @param _distinctConditions
+	 *            the estimated number of distinct conditions
+	 */
+	public void setDistinctConditions(double _distinctConditions) {
+		this.distinctConditions = _distinctConditions;
+	}
+
+	/**
+	 * Returns the estimated Jaccard similarity of the population's conditions
+	 * to the conditions of the previous iteration. Returns
+	 * <code>Double.NaN</code> if it was not calculated.
+	 * 
+	 * @return the estimated Jaccard similarity to the previous iteration
+	 */
+	public double getConditionSimilarity() {
+		return conditionSimilarity;
+	}
+
+	/**
+	 * Sets the estimated Jaccard similarity of the population's conditions to
+	 * the conditions of the previous iteration.
+	 * 
+	 * @param _conditionSimilarity
+	 *            the estimated Jaccard similarity to the previous iteration
+	 */
+	public void setConditionSimilarity(double _conditionSimilarity) {
+		this.conditionSimilarity = _conditionSimilarity;
+	}
+}
\ No newline at end of file
@@ -24,6 +24,9 @@ package agentlogfileanalyzer;
 
 import java.io.*;
 import java.util.Vector;
+import java.util.concurrent.*;
+
+import agentlogfileanalyzer.sketch.ConvergenceSketcher;
 
 /**
  * The <code>DataMemory</code> stores the <code>DataElement</code>s of all
@@ -76,9 +79,13 @@ public class DataMemory {
 		DataImporterInterface dataImporter = LogFileAnalyzer.getInstance()
 				.getDataImporter();
 
+		// Calculates convergence metrics while reading.
+		ConvergenceSketcher sketcher = new ConvergenceSketcher();
+
 		// Read data for next iteration.
 		DataElement currentElement = dataImporter.getNextDataElement(bR);
 		while (currentElement != null) {
+			sketcher.process(currentElement);
 			saveElement(currentElement);
 			currentElement = dataImporter.getNextDataElement(bR);
 		}
@@ -130,6 +137,110 @@ public class DataMemory {
 		return data.firstElement();
 	}
 
+	/**
+	 * Returns the number of <code>DataElement</code>s stored in this memory.
+	 * 
+	 * @return the number of stored <code>DataElement</code>s
+	 */
+	public int size() {
+		return data.size();
+	}
+
+	/**
+	 * Returns the <code>DataElement</code> at the given position. Elements are
+	 * stored in the order of their iterations.
+	 * 
+	 * @param _index
+	 *            position of the element (<code>0</code> to
+	 *            <code>size() - 1</code>)
+	 * @return the <code>DataElement</code> at the given position
+	 */
+	public DataElement getElement(int _index) {
+		return data.get(_index);
+	}
+
+	/**
+	 * Returns the position of a <code>DataElement</code> in this memory.
+	 * 
+	 * @param _element
+	 *            a <code>DataElement</code> of this memory
+	 * @return the position of the element, or <code>-1</code> if the element
+	 *         is not stored in this memory
+	 */
+	public int indexOf(DataElement _element) {
+		// Elements are sorted by iteration, so search binary first...
+		int low = 0;
+		int high = data.size() - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			double iteration = data.get(middle).getIteration();
+			if (iteration < _element.getIteration())
+				low = middle + 1;
+			else if (iteration > _element.getIteration())
+				high = middle - 1;
+			else if (data.get(middle) == _element)
+				return middle;
+			else
+				break;
+		}
+		return data.indexOf(_element);
+	}
+
+	/**
+	 * Processes the <code>DataElement</code>s at the positions
+	 * <code>_fromIndex</code> (inclusive) to <code>_toIndex</code> (exclusive)
+	 * in parallel. The range is split into smaller ranges that are processed
+	 * by the worker pool of the <code>LogFileAnalyzer</code>. The method
+	 * returns when all ranges have been processed. Must not be called by a
+	 * thread of the worker pool.
+	 * 
+	 * @param _fromIndex
+	 *            position of the first processed element (inclusive)
+	 * @param _toIndex
+	 *            position of the last processed element (exclusive)
+	 * @param _processor
+	 *            processes the ranges
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting; all
+	 *             ranges that have not been processed yet are cancelled
+	 */
+	public void processInParallel(int _fromIndex, int _toIndex,
+			final IterationRangeProcessor _processor)
+			throws InterruptedException {
+		int length = _toIndex - _fromIndex;
+		if (length <= 0)
+			return;
+
+		// Use several ranges per thread to balance the load...
+		int threads = Runtime.getRuntime().availableProcessors();
+		int rangeLength = Math.max(1, (length + 4 * threads - 1)
+				/ (4 * threads));
+
+		ExecutorService workerPool = LogFileAnalyzer.getInstance()
+				.getWorkerPool();
+		Vector<Future<?>> futures = new Vector<Future<?>>();
+		try {
+			for (int from = _fromIndex; from < _toIndex; from += rangeLength) {
+				final int rangeFrom = from;
+				final int rangeTo = Math.min(_toIndex, from + rangeLength);
+				futures.add(workerPool.submit(new Runnable() {
+					public void run() {
+						_processor.process(rangeFrom, rangeTo);
+					}
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++)
+				futures.get(i).get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		} finally {
+			for (int i = 0; i < futures.size(); i++)
+				futures.get(i).cancel(true);
+		}
+	}
+
 	/**
 	 * Searches for a <code>DataElement</code> by its iteration number. If the
 	 * iteration number is not present in this memory, the method returns the
@@ -187,4 +298,28 @@ public class DataMemory {
 
 		return result;
 	}
+
+	/**
+	 * Compares a classifier set of two iterations. The iterations are searched
+	 * using <code>searchElement()</code>. Returns <code>null</code> if no
+	 * elements are stored in this memory.
+	 * 
+	 * @param _fromIteration
+	 *            the earlier iteration number
+	 * @param _toIteration
+	 *            the later iteration number
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @return the inserted, deleted, and changed classifiers
+	 */
+	public ClassifierSetDiff diff(double _fromIteration, double _toIteration,
+			int _tableId) {
+		DataElement from = searchElement(_fromIteration);
+		DataElement to = searchElement(_toIteration);
+		if (from == null || to == null)
+			return null;
+		return new ClassifierSetDiff(from, to, _tableId);
+	}
 }
\ No newline at end of file
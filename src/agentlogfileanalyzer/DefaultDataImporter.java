@@ -164,8 +164,10 @@ class DefaultDataImporter implements DataImporterInterface {
 		String[] values1 = _classifier.split(" ");
 		String[] values2 = values1[0].split("-");
 
+		// Conditions and actions are interned: classifiers appear in several
+		// sets and iterations and can then be compared by reference...
 		for (int i = 0; i < values2.length; i++)
-			values[i] = values2[i];
+			values[i] = values2[i].intern();
 		for (int i = 2; i < values.length; i++)
 			values[i] = values1[i - 1];
 
@@ -0,0 +1,185 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer;
+
+import java.io.File;
+import java.util.Vector;
+import java.util.concurrent.*;
+
+/**
+ * An <code>ExperimentSession</code> contains several runs of one experiment
+ * configuration (e.g. the same configuration started with different seeds).
+ * The log-files of all runs are read concurrently and summarized by
+ * <code>RunSummary</code>-objects, so the session's memory consumption does
+ * not depend on the length of the runs.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class ExperimentSession {
+
+	/**
+	 * Default number of buckets kept per run
+	 */
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	/**
+	 * Name of the experiment
+	 */
+	private String name;
+
+	/**
+	 * Log-files of all runs
+	 */
+	private File[] logFiles;
+
+	/**
+	 * Summaries of all successfully read runs
+	 */
+	private Vector<RunSummary> runs;
+
+	/**
+	 * Creates a new session for the given log-files.
+	 *
+	 * @param _name
+	 *            name of the experiment
+	 * @param _logFiles
+	 *            log-files of all runs
+	 */
+	public ExperimentSession(String _name, File[] _logFiles) {
+		this.name = _name;
+		this.logFiles = _logFiles;
+		this.runs = new Vector<RunSummary>();
+	}
+
+	/**
+	 * Reads all log-files concurrently. At most <code>_threads</code>
+	 * log-files are read at the same time. Log-files that cannot be read are
+	 * skipped.
+	 *
+	 * @param _threads
+	 *            maximum number of log-files read at the same time
+	 * @param _capacity
+	 *            maximum number of buckets kept per run
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public void readData(int _threads, final int _capacity)
+			throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1,
+				Math.min(_threads, logFiles.length)));
+		Vector<Future<RunSummary>> futures = new Vector<Future<RunSummary>>();
+		try {
+			for (int i = 0; i < logFiles.length; i++) {
+				final File logFile = logFiles[i];
+				futures.add(executor.submit(new Callable<RunSummary>() {
+					public RunSummary call() throws Exception {
+						RunSummary run = new RunSummary(logFile, _capacity);
+						DataImporterInterface dataImporter = LogFileAnalyzer
+								.getInstance().createDataImporter();
+						if (dataImporter == LogFileAnalyzer.getInstance()
+								.getDataImporter()) {
+							// The importer cannot be duplicated and must not
+							// be used concurrently...
+							synchronized (dataImporter) {
+								run.readData(dataImporter);
+							}
+						} else {
+							run.readData(dataImporter);
+						}
+						return run;
+					}
+				}));
+			}
+
+			runs.clear();
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					runs.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					System.err.println("Could not read log-file: "
+							+ logFiles[i].getAbsolutePath() + " ("
+							+ e.getCause() + ")");
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes the statistics of a metric across all runs of this session.
+	 *
+	 * @param _metric
+	 *            index of the metric (see
+	 *            <code>RunSummary.getMetricNames()</code>)
+	 * @return the statistics of the metric across all runs
+	 */
+	public CrossRunStatistics getStatistics(int _metric) {
+		return new CrossRunStatistics(runs, _metric);
+	}
+
+	/**
+	 * Returns <code>true</code> if a metric was recorded for all runs of this
+	 * session (see <code>RunSummary.hasMetric()</code>).
+	 *
+	 * @param _metric
+	 *            index of the metric (see
+	 *            <code>RunSummary.getMetricNames()</code>)
+	 * @return <code>true</code> if the metric was recorded for all runs
+	 */
+	public boolean hasMetric(int _metric) {
+		for (int i = 0; i < runs.size(); i++) {
+			if (!runs.get(i).hasMetric(_metric))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the summaries of all successfully read runs.
+	 *
+	 * @return the summaries of all successfully read runs
+	 */
+	public Vector<RunSummary> getRuns() {
+		return runs;
+	}
+
+	/**
+	 * Returns the name of the experiment.
+	 *
+	 * @return the name of the experiment
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the name of the experiment.
+	 *
+	 * @return the name of the experiment
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+}
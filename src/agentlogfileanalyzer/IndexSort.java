@@ -0,0 +1,251 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.*;
+
+/**
+ * Sorts the positions of an array of primitive keys without boxing. The
+ * result is a permutation: the position of the smallest key first. The sort
+ * is stable, so equal keys keep their original order. Large arrays can be
+ * sorted in parallel by the worker pool of the <code>LogFileAnalyzer</code>.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class IndexSort {
+
+	/**
+	 * Length of the runs sorted by insertion sort before merging
+	 */
+	private static final int RUN_LENGTH = 32;
+
+	/**
+	 * Minimum number of keys that are sorted in parallel
+	 */
+	public static final int PARALLEL_THRESHOLD = 65536;
+
+	/**
+	 * Returns the positions of the keys in ascending order of the keys. Keys
+	 * are compared by <code>Double.compare()</code>, so <code>NaN</code>s
+	 * come last.
+	 * 
+	 * @param _keys
+	 *            the keys
+	 * @return the positions of the keys in ascending order
+	 */
+	public static int[] sort(double[] _keys) {
+		int[] positions = createPositions(_keys.length);
+		sortRange(_keys, positions, new int[_keys.length], 0, _keys.length);
+		return positions;
+	}
+
+	/**
+	 * Returns the positions of the keys in ascending order of the keys like
+	 * <code>sort()</code>. If there are at least
+	 * <code>PARALLEL_THRESHOLD</code> keys, ranges of the keys are sorted and
+	 * merged in parallel by the worker pool. Must not be called by a thread of
+	 * the worker pool.
+	 * 
+	 * @param _keys
+	 *            the keys
+	 * @return the positions of the keys in ascending order
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public static int[] parallelSort(final double[] _keys)
+			throws InterruptedException {
+		final int length = _keys.length;
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (length < PARALLEL_THRESHOLD || threads < 2)
+			return sort(_keys);
+
+		int[] positions = createPositions(length);
+		int[] buffer = new int[length];
+
+		// Sort one range per thread...
+		int rangeLength = (length + threads - 1) / threads;
+		Vector<Callable<Object>> tasks = new Vector<Callable<Object>>();
+		for (int from = 0; from < length; from += rangeLength) {
+			final int rangeFrom = from;
+			final int rangeTo = Math.min(length, from + rangeLength);
+			final int[] source = positions;
+			final int[] target = buffer;
+			tasks.add(new Callable<Object>() {
+				public Object call() {
+					sortRange(_keys, source, target, rangeFrom, rangeTo);
+					return null;
+				}
+			});
+		}
+		invokeAll(tasks);
+
+		// ... and merge neighboring ranges in parallel.
+		int[] source = positions;
+		int[] target = buffer;
+		for (int width = rangeLength; width < length; width *= 2) {
+			tasks.clear();
+			for (int from = 0; from < length; from += 2 * width) {
+				final int mergeFrom = from;
+				final int mergeMiddle = Math.min(length, from + width);
+				final int mergeTo = Math.min(length, from + 2 * width);
+				final int[] mergeSource = source;
+				final int[] mergeTarget = target;
+				tasks.add(new Callable<Object>() {
+					public Object call() {
+						merge(_keys, mergeSource, mergeTarget, mergeFrom,
+								mergeMiddle, mergeTo);
+						return null;
+					}
+				});
+			}
+			invokeAll(tasks);
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		return source;
+	}
+
+	/**
+	 * Runs tasks in the worker pool and waits until all of them are done.
+	 * 
+	 * @param _tasks
+	 *            the tasks
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	private static void invokeAll(Vector<Callable<Object>> _tasks)
+			throws InterruptedException {
+		List<Future<Object>> futures = LogFileAnalyzer.getInstance()
+				.getWorkerPool().invokeAll(_tasks);
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				futures.get(i).get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Returns the positions <code>0</code> to <code>_length - 1</code> in
+	 * ascending order.
+	 * 
+	 * @param _length
+	 *            the number of positions
+	 * @return the positions
+	 */
+	private static int[] createPositions(int _length) {
+		int[] positions = new int[_length];
+		for (int i = 0; i < _length; i++)
+			positions[i] = i;
+		return positions;
+	}
+
+	/**
+	 * Sorts a range of positions by their keys. The sorted range is stored in
+	 * <code>_positions</code>.
+	 * 
+	 * @param _keys
+	 *            the keys
+	 * @param _positions
+	 *            the sorted positions
+	 * @param _buffer
+	 *            used for merging; must have the same length as
+	 *            <code>_positions</code>
+	 * @param _from
+	 *            start of the range (inclusive)
+	 * @param _to
+	 *            end of the range (exclusive)
+	 */
+	static void sortRange(double[] _keys, int[] _positions, int[] _buffer,
+			int _from, int _to) {
+		// Sort short runs by insertion sort...
+		for (int from = _from; from < _to; from += RUN_LENGTH) {
+			int to = Math.min(_to, from + RUN_LENGTH);
+			for (int i = from + 1; i < to; i++) {
+				int position = _positions[i];
+				double key = _keys[position];
+				int j = i - 1;
+				while (j >= from && Double.compare(_keys[_positions[j]], key) > 0) {
+					_positions[j + 1] = _positions[j];
+					j--;
+				}
+				_positions[j + 1] = position;
+			}
+		}
+
+		// ... and merge them.
+		int[] source = _positions;
+		int[] target = _buffer;
+		for (int width = RUN_LENGTH; width < _to - _from; width *= 2) {
+			for (int from = _from; from < _to; from += 2 * width) {
+				int middle = Math.min(_to, from + width);
+				int to = Math.min(_to, from + 2 * width);
+				merge(_keys, source, target, from, middle, to);
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != _positions)
+			System.arraycopy(source, _from, _positions, _from, _to - _from);
+	}
+
+	/**
+	 * Merges two sorted ranges of positions.
+	 * 
+	 * @param _keys
+	 *            the keys
+	 * @param _source
+	 *            contains the sorted ranges <code>_from</code> to
+	 *            <code>_middle</code> and <code>_middle</code> to
+	 *            <code>_to</code>
+	 * @param _target
+	 *            receives the merged range <code>_from</code> to
+	 *            <code>_to</code>
+	 * @param _from
+	 *            start of the first range (inclusive)
+	 * @param _middle
+	 *            end of the first range and start of the second range
+	 * @param _to
+	 *            end of the second range (exclusive)
+	 */
+	static void merge(double[] _keys, int[] _source, int[] _target,
+			int _from, int _middle, int _to) {
+		int i = _from;
+		int j = _middle;
+		for (int k = _from; k < _to; k++) {
+			if (j >= _to
+					|| (i < _middle && Double.compare(_keys[_source[i]],
+							_keys[_source[j]]) <= 0))
+				_target[k] = _source[i++];
+			else
+				_target[k] = _source[j++];
+		}
+	}
+}
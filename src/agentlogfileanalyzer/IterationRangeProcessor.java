@@ -0,0 +1,49 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer;
+
+/**
+ * Classes that process the iterations of a <code>DataMemory</code> in
+ * parallel need to implement this interface. The
+ * <code>DataMemory</code> splits its iterations into ranges and calls
+ * <code>process()</code> for every range; ranges are processed concurrently by
+ * different threads.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public interface IterationRangeProcessor {
+
+	/**
+	 * Processes a range of iterations. Implementations must be thread-safe
+	 * with respect to other ranges, e.g. by writing only to array positions
+	 * belonging to the given range.
+	 *
+	 * @param _fromIndex
+	 *            position of the first <code>DataElement</code> of the range
+	 *            (inclusive)
+	 * @param _toIndex
+	 *            position of the last <code>DataElement</code> of the range
+	 *            (exclusive)
+	 */
+	public abstract void process(int _fromIndex, int _toIndex);
+}
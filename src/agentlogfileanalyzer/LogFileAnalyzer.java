@@ -23,6 +23,8 @@
 package agentlogfileanalyzer;
 
 import java.util.*;
+import java.util.concurrent.*;
+
 import agentlogfileanalyzer.gui.*;
 import agentlogfileanalyzer.histogram.*;
 
@@ -46,6 +48,12 @@ public class LogFileAnalyzer {
 	 */
 	private static LogFileAnalyzer lfa;
 
+	/**
+	 * Determines if the default configuration was applied to the singleton
+	 * instance (see <code>getConfiguredInstance()</code>)
+	 */
+	private static boolean configured = false;
+
 	/**
 	 * Version number
 	 */
@@ -84,6 +92,40 @@ public class LogFileAnalyzer {
 	 */
 	private boolean autoResize;
 
+	/**
+	 * Maximum number of log-files that are read at the same time when several
+	 * runs of an experiment are opened.
+	 */
+	private int importThreads;
+
+	/**
+	 * Determines if the match sets of a log-file are validated after the
+	 * log-file was opened.
+	 */
+	private boolean validateMatchSets;
+
+	/**
+	 * Threads used for calculations that process all iterations of a
+	 * log-file in parallel
+	 */
+	private ExecutorService workerPool;
+
+	/**
+	 * Maximum estimated memory of the histogram cache (in bytes)
+	 */
+	private long histogramCacheSize;
+
+	/**
+	 * Cache for histograms shared by all charts
+	 */
+	private HistogramCache histogramCache;
+
+	/**
+	 * Minimum time between two refreshes of the tables and charts while the
+	 * user navigates through the iterations (in milliseconds)
+	 */
+	private int navigationFrameBudget;
+
 	/**
 	 * Constructor. Sets all class attributes to defaults. Their values can be
 	 * changed by using the respective <code>set()</code>-methods.
@@ -94,6 +136,10 @@ public class LogFileAnalyzer {
 		this.fileOpenFilters = new Vector<ChoosableFileFilter>();
 		this.autoChart = true;
 		this.autoResize = true;
+		this.importThreads = Runtime.getRuntime().availableProcessors();
+		this.validateMatchSets = true;
+		this.histogramCacheSize = 8 * 1024 * 1024;
+		this.navigationFrameBudget = 50;
 	}
 
 	/**
@@ -137,6 +183,147 @@ public class LogFileAnalyzer {
 		return this.dataImporter;
 	}
 
+	/**
+	 * Returns a new importer of the same class as the <code>dataImporter</code>
+	 * used for reading log-files. Separate importers are required to read
+	 * several log-files concurrently. If the importer's class cannot be
+	 * instantiated (e.g. because it has no public constructor without
+	 * parameters), the <code>dataImporter</code> itself is returned.
+	 * 
+	 * @return a new importer or the <code>dataImporter</code> if no new
+	 *         importer can be created
+	 */
+	public DataImporterInterface createDataImporter() {
+		try {
+			return this.dataImporter.getClass().getDeclaredConstructor()
+					.newInstance();
+		} catch (Exception e) {
+			return this.dataImporter;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of log-files that are read at the same time when
+	 * several runs of an experiment are opened.
+	 * 
+	 * @param _importThreads
+	 *            the maximum number of log-files read at the same time
+	 */
+	public void setImportThreads(int _importThreads) {
+		this.importThreads = _importThreads;
+	}
+
+	/**
+	 * Returns the maximum number of log-files that are read at the same time
+	 * when several runs of an experiment are opened.
+	 * 
+	 * @return the maximum number of log-files read at the same time
+	 */
+	public int getImportThreads() {
+		return this.importThreads;
+	}
+
+	/**
+	 * Determines if the match sets of a log-file are validated after the
+	 * log-file was opened. Validation recomputes every match set from the
+	 * population and the LCS input and reports differences to the logged match
+	 * set.
+	 * 
+	 * @param _validateMatchSets
+	 *            <code>true</code> to validate the match sets of every opened
+	 *            log-file
+	 */
+	public void setValidateMatchSets(boolean _validateMatchSets) {
+		this.validateMatchSets = _validateMatchSets;
+	}
+
+	/**
+	 * Returns <code>true</code> if the match sets of a log-file are validated
+	 * after the log-file was opened.
+	 * 
+	 * @return <code>true</code> if the match sets of every opened log-file
+	 *         are validated
+	 */
+	public boolean getValidateMatchSets() {
+		return this.validateMatchSets;
+	}
+
+	/**
+	 * Returns the threads used for calculations that process all iterations
+	 * of a log-file in parallel. The pool contains one daemon thread per
+	 * processor. Tasks submitted to the pool must not wait for other tasks of
+	 * the pool.
+	 * 
+	 * @return the threads used for parallel calculations
+	 */
+	public synchronized ExecutorService getWorkerPool() {
+		if (workerPool == null) {
+			workerPool = Executors.newFixedThreadPool(Runtime.getRuntime()
+					.availableProcessors(), new ThreadFactory() {
+				public Thread newThread(Runnable _runnable) {
+					Thread thread = new Thread(_runnable, "LogFileAnalyzer worker");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return workerPool;
+	}
+
+	/**
+	 * Sets the maximum estimated memory of the histogram cache. Must be called
+	 * before the first chart is opened.
+	 * 
+	 * @param _histogramCacheSize
+	 *            maximum estimated memory of the histogram cache (in bytes)
+	 */
+	public void setHistogramCacheSize(long _histogramCacheSize) {
+		this.histogramCacheSize = _histogramCacheSize;
+	}
+
+	/**
+	 * Returns the maximum estimated memory of the histogram cache.
+	 * 
+	 * @return maximum estimated memory of the histogram cache (in bytes)
+	 */
+	public long getHistogramCacheSize() {
+		return this.histogramCacheSize;
+	}
+
+	/**
+	 * Returns the cache for histograms that is shared by all charts.
+	 * 
+	 * @return the cache for histograms
+	 */
+	public synchronized HistogramCache getHistogramCache() {
+		if (histogramCache == null)
+			histogramCache = new HistogramCache(histogramCacheSize);
+		return histogramCache;
+	}
+
+	/**
+	 * Sets the minimum time between two refreshes of the tables and charts
+	 * while the user navigates through the iterations. Navigation events that
+	 * arrive in the meantime are coalesced, so only the most recent iteration
+	 * is displayed.
+	 * 
+	 * @param _navigationFrameBudget
+	 *            minimum time between two refreshes (in milliseconds)
+	 */
+	public void setNavigationFrameBudget(int _navigationFrameBudget) {
+		this.navigationFrameBudget = _navigationFrameBudget;
+	}
+
+	/**
+	 * Returns the minimum time between two refreshes of the tables and charts
+	 * while the user navigates through the iterations.
+	 * 
+	 * @return minimum time between two refreshes (in milliseconds)
+	 */
+	public int getNavigationFrameBudget() {
+		return this.navigationFrameBudget;
+	}
+
 	/**
 	 * Sets the histograms that will be available for visualization.
 	 * 
@@ -269,13 +456,20 @@ public class LogFileAnalyzer {
 	}
 
 	/**
-	 * Starts the program.
+	 * Returns the singleton instance of the <code>LogFileAnalyzer</code>
+	 * configured with the default histograms, file filters, column names,
+	 * etc. The configuration is shared by the graphical user interface and
+	 * the command line tools (e.g. the <code>BatchRenderer</code>), so both
+	 * offer the same histograms.
 	 * 
-	 * @param args
-	 *            command line arguments are currently not supported
+	 * @return the configured singleton instance of the
+	 *         <code>LogFileAnalyzer</code>
 	 */
-	public static void main(String[] args) {
+	public static synchronized LogFileAnalyzer getConfiguredInstance() {
 		LogFileAnalyzer lfa = LogFileAnalyzer.getInstance();
+		if (configured)
+			return lfa;
+		configured = true;
 
 		// Here you can define own histograms, fileOpenFilters, columnNames,
 		// etc. using the set...-methods...
@@ -285,6 +479,17 @@ public class LogFileAnalyzer {
 		SpecificityHistogram sp = new SpecificityHistogram();
 		lfa.addHistogram(sp);
 
+		return lfa;
+	}
+
+	/**
+	 * Starts the program.
+	 * 
+	 * @param args
+	 *            command line arguments are currently not supported
+	 */
+	public static void main(String[] args) {
+		LogFileAnalyzer lfa = LogFileAnalyzer.getConfiguredInstance();
 		lfa.startLogFileAnalyzer();
 	}
 }
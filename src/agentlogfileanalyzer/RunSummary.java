@@ -0,0 +1,408 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Vector;
+
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * A <code>RunSummary</code> stores per-iteration statistics of one
+ * experiment run (e.g. the population size or the mean fitness of the
+ * population) at a reduced resolution. The log-file is read element by
+ * element and every <code>DataElement</code> is discarded after its
+ * statistics were added, so a run never needs to be kept in memory
+ * completely.
+ * <p>
+ * Iterations are grouped into buckets of a fixed width. The width starts at
+ * one iteration and is doubled whenever the number of buckets exceeds the
+ * given capacity. Since bucket boundaries only depend on the iteration
+ * numbers, the buckets of different runs can be aligned directly.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class RunSummary {
+
+	/**
+	 * Number of metrics that do not depend on table columns (population
+	 * size, match set size, action set size)
+	 */
+	private static final int NUMBER_OF_SIZE_METRICS = 3;
+
+	/**
+	 * The log-file summarized by this object
+	 */
+	private File logFile;
+
+	/**
+	 * Maximum number of buckets
+	 */
+	private int capacity;
+
+	/**
+	 * Width of a bucket (in iterations)
+	 */
+	private long bucketWidth;
+
+	/**
+	 * Index of the first bucket
+	 */
+	private long firstBucket;
+
+	/**
+	 * Number of buckets in use
+	 */
+	private int numberOfBuckets;
+
+	/**
+	 * Sum of the values of each metric in each bucket
+	 * (<code>[metric][bucket]</code>)
+	 */
+	private double[][] sums;
+
+	/**
+	 * Number of values of each metric in each bucket
+	 * (<code>[metric][bucket]</code>)
+	 */
+	private int[][] counts;
+
+	/**
+	 * <code>true</code> for columns whose cells were numbers in all
+	 * iterations read so far
+	 */
+	private boolean[] numericColumns;
+
+	/**
+	 * Number of iterations read
+	 */
+	private int numberOfIterations;
+
+	/**
+	 * Creates a new, empty <code>RunSummary</code> for the given log-file.
+	 *
+	 * @param _logFile
+	 *            the log-file that will be summarized
+	 * @param _capacity
+	 *            maximum number of buckets kept in memory
+	 */
+	public RunSummary(File _logFile, int _capacity) {
+		this.logFile = _logFile;
+		this.capacity = Math.max(2, _capacity);
+		this.bucketWidth = 1;
+		this.numberOfBuckets = 0;
+		int numberOfMetrics = getMetricNames().length;
+		this.sums = new double[numberOfMetrics][capacity];
+		this.counts = new int[numberOfMetrics][capacity];
+		this.numericColumns = new boolean[numberOfMetrics
+				- NUMBER_OF_SIZE_METRICS];
+		Arrays.fill(numericColumns, true);
+	}
+
+	/**
+	 * Returns the names of all metrics a <code>RunSummary</code> can record.
+	 * The position of a name is the index of its metric. The names depend on
+	 * the column names defined in the <code>LogFileAnalyzer</code>; a mean is
+	 * only recorded for columns containing numbers (see
+	 * <code>getColumnMean()</code>).
+	 *
+	 * @return the names of all metrics
+	 */
+	public static String[] getMetricNames() {
+		String[] columnNames = LogFileAnalyzer.getInstance().getColumnNames();
+		String[] metricNames = new String[NUMBER_OF_SIZE_METRICS
+				+ columnNames.length];
+		metricNames[0] = "Population size";
+		metricNames[1] = "Match set size";
+		metricNames[2] = "Action set size";
+		for (int i = 0; i < columnNames.length; i++)
+			metricNames[NUMBER_OF_SIZE_METRICS + i] = "Mean " + columnNames[i];
+		return metricNames;
+	}
+
+	/**
+	 * Returns the names of the metrics that are numeric in a population: the
+	 * sizes of the classifier sets and the means of the columns containing
+	 * numbers only. Columns like the condition are left out, even if some of
+	 * their cells can be read as numbers.
+	 *
+	 * @param _population
+	 *            a population of the run
+	 * @return the names of the numeric metrics
+	 */
+	public static String[] getMetricNames(DefaultTableModel _population) {
+		String[] metricNames = getMetricNames();
+		Vector<String> numeric = new Vector<String>();
+		for (int metric = 0; metric < metricNames.length; metric++) {
+			if (metric < NUMBER_OF_SIZE_METRICS
+					|| !Double.isNaN(getColumnMean(_population, metric
+							- NUMBER_OF_SIZE_METRICS)))
+				numeric.add(metricNames[metric]);
+		}
+		return numeric.toArray(new String[numeric.size()]);
+	}
+
+	/**
+	 * Returns the index of the metric with the given name.
+	 *
+	 * @param _name
+	 *            name of the metric
+	 * @return index of the metric (see <code>getMetricNames()</code>), or
+	 *         <code>-1</code> if there is no such metric
+	 */
+	public static int getMetricIndex(String _name) {
+		return Arrays.asList(getMetricNames()).indexOf(_name);
+	}
+
+	/**
+	 * Returns the mean of a column of a classifier set. Cells reading
+	 * <code>NaN</code> are left out. Returns <code>Double.NaN</code> if the
+	 * column contains no values or a cell that is no number, so a column like the condition has no mean even if some
+	 * of its cells (e.g. <code>0110</code>) can be read as numbers.
+	 *
+	 * @param _table
+	 *            the classifier set
+	 * @param _column
+	 *            the column
+	 * @return the mean of the column, or <code>Double.NaN</code>
+	 */
+	public static double getColumnMean(DefaultTableModel _table, int _column) {
+		if (_column >= _table.getColumnCount())
+			return Double.NaN;
+		double sum = 0;
+		int count = 0;
+		for (int row = 0; row < _table.getRowCount(); row++) {
+			Object cell = _table.getValueAt(row, _column);
+			if (cell == null)
+				continue;
+			try {
+				double value = Double.parseDouble(cell.toString());
+				if (!Double.isNaN(value)) {
+					sum += value;
+					count++;
+				}
+			} catch (NumberFormatException e) {
+				// Column does not contain numbers...
+				return Double.NaN;
+			}
+		}
+		return count > 0 ? sum / count : Double.NaN;
+	}
+
+	/**
+	 * Reads the complete log-file and adds the statistics of every iteration
+	 * to this summary.
+	 *
+	 * @param _dataImporter
+	 *            the importer used to read the log-file; it must not be used
+	 *            concurrently by other threads
+	 * @throws IOException
+	 *             if the log-file cannot be read
+	 */
+	public void readData(DataImporterInterface _dataImporter)
+			throws IOException {
+		BufferedReader bR = new BufferedReader(new FileReader(logFile));
+		try {
+			DataElement currentElement = _dataImporter.getNextDataElement(bR);
+			while (currentElement != null) {
+				addElement(currentElement);
+				currentElement = _dataImporter.getNextDataElement(bR);
+			}
+		} finally {
+			bR.close();
+		}
+	}
+
+	/**
+	 * Adds the statistics of one iteration to this summary.
+	 *
+	 * @param _element
+	 *            the <code>DataElement</code> of the iteration
+	 */
+	public void addElement(DataElement _element) {
+		long bucket = (long) Math.floor(_element.getIteration());
+		if (numberOfBuckets == 0)
+			firstBucket = bucket;
+
+		// Coarsen the buckets until the iteration fits...
+		while (Math.floor((double) bucket / bucketWidth)
+				- Math.floor((double) firstBucket / bucketWidth) >= capacity)
+			mergeBuckets();
+
+		int index = (int) (Math.floor((double) bucket / bucketWidth) - Math
+				.floor((double) firstBucket / bucketWidth));
+		if (index < 0) // Iterations are expected in ascending order...
+			return;
+		numberOfBuckets = Math.max(numberOfBuckets, index + 1);
+		numberOfIterations++;
+
+		DefaultTableModel population = _element.getPopulation();
+		add(0, index, population.getRowCount());
+		add(1, index, _element.getMatchSet().getRowCount());
+		add(2, index, _element.getActionSet().getRowCount());
+
+		// A column that is no number in any iteration has no mean at all...
+		for (int column = 0; column < numericColumns.length; column++) {
+			if (!numericColumns[column] || population.getRowCount() == 0)
+				continue;
+			double mean = getColumnMean(population, column);
+			int metric = NUMBER_OF_SIZE_METRICS + column;
+			if (Double.isNaN(mean)) {
+				numericColumns[column] = false;
+				Arrays.fill(sums[metric], 0);
+				Arrays.fill(counts[metric], 0);
+			} else {
+				add(metric, index, mean);
+			}
+		}
+	}
+
+	/**
+	 * Adds a value to a bucket.
+	 *
+	 * @param _metric
+	 *            the metric
+	 * @param _index
+	 *            index of the bucket
+	 * @param _value
+	 *            the value
+	 */
+	private void add(int _metric, int _index, double _value) {
+		sums[_metric][_index] += _value;
+		counts[_metric][_index]++;
+	}
+
+	/**
+	 * Doubles the bucket width and merges the existing buckets accordingly.
+	 */
+	private void mergeBuckets() {
+		long oldOffset = (long) Math.floor((double) firstBucket / bucketWidth);
+		bucketWidth *= 2;
+		long newOffset = (long) Math.floor((double) firstBucket / bucketWidth);
+		int newNumberOfBuckets = 0;
+		for (int metric = 0; metric < sums.length; metric++) {
+			double[] newSums = new double[capacity];
+			int[] newCounts = new int[capacity];
+			for (int i = 0; i < numberOfBuckets; i++) {
+				int newIndex = (int) (Math
+						.floor((double) (oldOffset + i) / 2) - newOffset);
+				newSums[newIndex] += sums[metric][i];
+				newCounts[newIndex] += counts[metric][i];
+				newNumberOfBuckets = Math.max(newNumberOfBuckets,
+						newIndex + 1);
+			}
+			sums[metric] = newSums;
+			counts[metric] = newCounts;
+		}
+		numberOfBuckets = newNumberOfBuckets;
+	}
+
+	/**
+	 * Returns <code>true</code> if a metric was recorded for this run. The
+	 * mean of a column is only recorded if the column contained numbers in
+	 * every iteration.
+	 *
+	 * @param _metric
+	 *            index of the metric (see <code>getMetricNames()</code>)
+	 * @return <code>true</code> if the metric was recorded
+	 */
+	public boolean hasMetric(int _metric) {
+		return _metric < NUMBER_OF_SIZE_METRICS
+				|| numericColumns[_metric - NUMBER_OF_SIZE_METRICS];
+	}
+
+	/**
+	 * Returns the log-file summarized by this object.
+	 *
+	 * @return the log-file summarized by this object
+	 */
+	public File getLogFile() {
+		return logFile;
+	}
+
+	/**
+	 * Returns the number of iterations read.
+	 *
+	 * @return the number of iterations read
+	 */
+	public int getNumberOfIterations() {
+		return numberOfIterations;
+	}
+
+	/**
+	 * Returns the width of a bucket (in iterations).
+	 *
+	 * @return the width of a bucket
+	 */
+	public long getBucketWidth() {
+		return bucketWidth;
+	}
+
+	/**
+	 * Returns the mean value of a metric in the bucket starting at the given
+	 * iteration. The width of the requested bucket may be any multiple of this
+	 * summary's bucket width. Returns <code>Double.NaN</code> if no values are
+	 * available.
+	 *
+	 * @param _metric
+	 *            index of the metric (see <code>getMetricNames()</code>)
+	 * @param _bucketStart
+	 *            first iteration of the bucket
+	 * @param _bucketWidth
+	 *            width of the bucket
+	 * @return the mean value of the metric in the bucket
+	 */
+	public double getMean(int _metric, long _bucketStart, long _bucketWidth) {
+		long offset = (long) Math.floor((double) firstBucket / bucketWidth);
+		long from = Math.max(0, _bucketStart / bucketWidth - offset);
+		long to = Math.min(numberOfBuckets, (_bucketStart + _bucketWidth)
+				/ bucketWidth - offset);
+		double sum = 0;
+		int count = 0;
+		for (long i = from; i < to; i++) {
+			sum += sums[_metric][(int) i];
+			count += counts[_metric][(int) i];
+		}
+		return count > 0 ? sum / count : Double.NaN;
+	}
+
+	/**
+	 * Returns the first iteration covered by this summary.
+	 *
+	 * @return the first iteration covered by this summary
+	 */
+	public long getFirstIteration() {
+		return (long) Math.floor((double) firstBucket / bucketWidth)
+				* bucketWidth;
+	}
+
+	/**
+	 * Returns the iteration following the last bucket of this summary.
+	 *
+	 * @return the iteration following the last bucket of this summary
+	 */
+	public long getEndIteration() {
+		return getFirstIteration() + numberOfBuckets * bucketWidth;
+	}
+}
@@ -0,0 +1,508 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.export;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.io.*;
+import java.util.Arrays;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.table.DefaultTableModel;
+
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.*;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.histogram.*;
+
+/**
+ * Renders histograms of many iterations of a log-file to image files without
+ * a GUI. For every selected iteration and classifier set, the histograms are
+ * binned in a single pass over the classifier set (see
+ * <code>HistogramScan</code>) and written as PNG, SVG, or PDF. The iterations
+ * are rendered in parallel by the worker pool of the
+ * <code>LogFileAnalyzer</code>.
+ * <p>
+ * The renderer can be started from the command line:
+ * 
+ * <pre>
+ * java -cp ... agentlogfileanalyzer.export.BatchRenderer &lt;log-file&gt; &lt;output directory&gt;
+ *     [-format png|svg|pdf] [-stride n | -iterations i1,i2,...]
+ *     [-sets population,matchset,actionset] [-histograms h1,h2,...]
+ *     [-size width x height]
+ * </pre>
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class BatchRenderer {
+
+	/**
+	 * Identifier of the PNG format
+	 */
+	public static final int PNG = 0;
+
+	/**
+	 * Identifier of the SVG format
+	 */
+	public static final int SVG = 1;
+
+	/**
+	 * Identifier of the PDF format
+	 */
+	public static final int PDF = 2;
+
+	/**
+	 * File extensions of the formats
+	 */
+	private static final String[] FORMAT_NAMES = { "png", "svg", "pdf" };
+
+	/**
+	 * Names of the classifier sets used in file names
+	 */
+	private static final String[] TABLE_NAMES = { "population", "matchset",
+			"actionset" };
+
+	/**
+	 * Contains all iterations
+	 */
+	private DataMemory dataMemory;
+
+	/**
+	 * Directory the files are written to
+	 */
+	private File outputDirectory;
+
+	/**
+	 * The rendered histograms
+	 */
+	private AbstractHistogram[] histograms;
+
+	/**
+	 * Identifiers of the rendered classifier sets
+	 */
+	private int[] tableIds;
+
+	/**
+	 * Bins all histograms
+	 */
+	private Binning binning;
+
+	/**
+	 * Format of the written files
+	 */
+	private int format;
+
+	/**
+	 * Width of a chart
+	 */
+	private int width;
+
+	/**
+	 * Height of a chart
+	 */
+	private int height;
+
+	/**
+	 * Creates a renderer writing PNG files of 640x400 pixels. By default, all
+	 * histograms are rendered for the population.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations
+	 * @param _histograms
+	 *            the rendered histograms
+	 * @param _outputDirectory
+	 *            directory the files are written to
+	 */
+	public BatchRenderer(DataMemory _dataMemory,
+			Vector<AbstractHistogram> _histograms, File _outputDirectory) {
+		this.dataMemory = _dataMemory;
+		this.histograms = _histograms
+				.toArray(new AbstractHistogram[_histograms.size()]);
+		this.outputDirectory = _outputDirectory;
+		this.tableIds = new int[] { DataElement.POPULATION };
+		this.binning = Binning.DEFAULT;
+		this.format = PNG;
+		this.width = 640;
+		this.height = 400;
+	}
+
+	/**
+	 * Sets the rendered classifier sets.
+	 * 
+	 * @param _tableIds
+	 *            identifiers of the classifier sets (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 */
+	public void setTableIds(int[] _tableIds) {
+		this.tableIds = _tableIds.clone();
+	}
+
+	/**
+	 * Sets the binning of all histograms.
+	 * 
+	 * @param _binning
+	 *            the binning
+	 */
+	public void setBinning(Binning _binning) {
+		this.binning = _binning;
+	}
+
+	/**
+	 * Sets the format of the written files.
+	 * 
+	 * @param _format
+	 *            <code>PNG</code>, <code>SVG</code>, or <code>PDF</code>
+	 */
+	public void setFormat(int _format) {
+		if (_format < PNG || _format > PDF)
+			throw new IllegalArgumentException("Unknown format: " + _format);
+		this.format = _format;
+	}
+
+	/**
+	 * Sets the size of a chart (in pixels for PNG and SVG, in points for
+	 * PDF).
+	 * 
+	 * @param _width
+	 *            width of a chart
+	 * @param _height
+	 *            height of a chart
+	 */
+	public void setSize(int _width, int _height) {
+		this.width = _width;
+		this.height = _height;
+	}
+
+	/**
+	 * Renders every <code>_stride</code>-th iteration, starting with the first
+	 * one.
+	 * 
+	 * @param _stride
+	 *            distance of the rendered iterations (in positions of the
+	 *            <code>DataMemory</code>)
+	 * @return the number of written files
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public int render(int _stride) throws InterruptedException {
+		boolean[] selected = new boolean[dataMemory.size()];
+		for (int i = 0; i < selected.length; i += Math.max(1, _stride))
+			selected[i] = true;
+		return render(selected);
+	}
+
+	/**
+	 * Renders the given iterations. Iterations that are not present in the
+	 * log-file are replaced by the closest iteration.
+	 * 
+	 * @param _iterations
+	 *            the iteration numbers
+	 * @return the number of written files
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public int render(double[] _iterations) throws InterruptedException {
+		boolean[] selected = new boolean[dataMemory.size()];
+		for (int i = 0; i < _iterations.length; i++) {
+			DataElement element = dataMemory.searchElement(_iterations[i]);
+			if (element != null)
+				selected[dataMemory.indexOf(element)] = true;
+		}
+		return render(selected);
+	}
+
+	/**
+	 * Renders the selected iterations in parallel. Files that cannot be
+	 * written are reported and skipped.
+	 * 
+	 * @param _selected
+	 *            <code>true</code> for every position of the
+	 *            <code>DataMemory</code> that is rendered
+	 * @return the number of written files
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	private int render(final boolean[] _selected) throws InterruptedException {
+		final AtomicInteger written = new AtomicInteger();
+		dataMemory.processInParallel(0, _selected.length,
+				new IterationRangeProcessor() {
+					public void process(int _fromIndex, int _toIndex) {
+						for (int i = _fromIndex; i < _toIndex; i++) {
+							if (_selected[i])
+								written.addAndGet(renderElement(dataMemory
+										.getElement(i)));
+						}
+					}
+				});
+		return written.get();
+	}
+
+	/**
+	 * Renders all histograms of all selected classifier sets of one
+	 * iteration. Histograms that do not support the data or contain no values
+	 * are skipped.
+	 * 
+	 * @param _element
+	 *            the iteration
+	 * @return the number of written files
+	 */
+	private int renderElement(DataElement _element) {
+		int written = 0;
+		for (int t = 0; t < tableIds.length; t++) {
+			DefaultTableModel table = _element.getClassifierSet(tableIds[t]);
+			HistogramBins[] bins = HistogramScan.calculateBins(table,
+					histograms, binning);
+			for (int h = 0; h < histograms.length; h++) {
+				if (bins[h] == null || bins[h].getNumberOfValues() == 0)
+					continue;
+				File file = new File(outputDirectory, getFileName(_element,
+						tableIds[t], histograms[h]));
+				try {
+					writeChart(histograms[h].createChart(bins[h]), file);
+					written++;
+				} catch (Exception e) {
+					System.err.println("Could not write chart: "
+							+ file.getAbsolutePath() + " (" + e + ")");
+				}
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Returns the name of the file containing a histogram of a classifier
+	 * set.
+	 * 
+	 * @param _element
+	 *            the iteration
+	 * @param _tableId
+	 *            identifier of the classifier set
+	 * @param _histogram
+	 *            the histogram
+	 * @return the file name
+	 */
+	private String getFileName(DataElement _element, int _tableId,
+			AbstractHistogram _histogram) {
+		double iteration = _element.getIteration();
+		String iterationName = iteration == Math.rint(iteration) ? Long
+				.toString((long) iteration) : Double.toString(iteration);
+		return TABLE_NAMES[_tableId] + "-" + iterationName + "-"
+				+ _histogram.toString().replaceAll("[^A-Za-z0-9._-]", "_")
+				+ "." + FORMAT_NAMES[format];
+	}
+
+	/**
+	 * Writes a chart to a file in the selected format.
+	 * 
+	 * @param _chart
+	 *            the chart
+	 * @param _file
+	 *            the file
+	 * @throws Exception
+	 *             if the file cannot be written
+	 */
+	private void writeChart(JFreeChart _chart, File _file) throws Exception {
+		switch (format) {
+		case PNG:
+			ChartUtilities.saveChartAsPNG(_file, _chart, width, height);
+			break;
+		case SVG:
+			SVGGraphics2D svg = new SVGGraphics2D(width, height);
+			_chart.draw(svg, new Rectangle2D.Double(0, 0, width, height));
+			svg.writeSVGDocument(_file);
+			break;
+		case PDF:
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(
+					_file));
+			try {
+				Document document = new Document(new Rectangle(width, height));
+				PdfWriter writer = PdfWriter.getInstance(document, out);
+				document.open();
+				PdfContentByte content = writer.getDirectContent();
+				PdfTemplate template = content.createTemplate(width, height);
+				Graphics2D g2 = template.createGraphicsShapes(width, height);
+				_chart.draw(g2, new Rectangle2D.Double(0, 0, width, height));
+				g2.dispose();
+				content.addTemplate(template, 0, 0);
+				document.close();
+			} finally {
+				out.close();
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Splits a comma separated command line argument.
+	 * 
+	 * @param _argument
+	 *            the argument
+	 * @return the parts of the argument
+	 */
+	private static String[] split(String _argument) {
+		return _argument.trim().split("\\s*,\\s*");
+	}
+
+	/**
+	 * Prints the command line syntax and exits.
+	 */
+	private static void printUsage() {
+		System.err
+				.println("Usage: BatchRenderer <log-file> <output directory>"
+						+ " [-format png|svg|pdf] [-stride n | -iterations i1,i2,...]"
+						+ " [-sets population,matchset,actionset]"
+						+ " [-histograms h1,h2,...] [-size <width>x<height>]");
+		System.exit(1);
+	}
+
+	/**
+	 * Renders the histograms of a log-file from the command line. Renders one
+	 * histogram per column and all histograms registered by
+	 * <code>LogFileAnalyzer.getConfiguredInstance()</code>, unless other
+	 * histograms are selected.
+	 * 
+	 * @param args
+	 *            the command line arguments (see class description)
+	 */
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		if (args.length < 2)
+			printUsage();
+
+		File logFile = new File(args[0]);
+		File outputDirectory = new File(args[1]);
+		String format = "png";
+		int stride = 1;
+		double[] iterations = null;
+		int[] tableIds = { DataElement.POPULATION };
+		String[] histogramNames = null;
+		int width = 640;
+		int height = 400;
+		try {
+			for (int i = 2; i < args.length; i += 2) {
+				if (i + 1 >= args.length)
+					printUsage();
+				String value = args[i + 1];
+				if (args[i].equals("-format")) {
+					format = value.toLowerCase();
+				} else if (args[i].equals("-stride")) {
+					stride = Integer.parseInt(value);
+				} else if (args[i].equals("-iterations")) {
+					String[] parts = split(value);
+					iterations = new double[parts.length];
+					for (int j = 0; j < parts.length; j++)
+						iterations[j] = Double.parseDouble(parts[j]);
+				} else if (args[i].equals("-sets")) {
+					String[] parts = split(value);
+					tableIds = new int[parts.length];
+					for (int j = 0; j < parts.length; j++) {
+						tableIds[j] = Arrays.asList(TABLE_NAMES)
+								.indexOf(parts[j].toLowerCase());
+						if (tableIds[j] < 0)
+							printUsage();
+					}
+				} else if (args[i].equals("-histograms")) {
+					histogramNames = split(value);
+				} else if (args[i].equals("-size")) {
+					String[] parts = value.toLowerCase().split("x");
+					width = Integer.parseInt(parts[0].trim());
+					height = Integer.parseInt(parts[1].trim());
+				} else {
+					printUsage();
+				}
+			}
+		} catch (RuntimeException e) {
+			printUsage();
+		}
+		int formatId = Arrays.asList(FORMAT_NAMES).indexOf(format);
+		if (formatId < 0)
+			printUsage();
+
+		// One UniversalHistogram per column followed by the registered
+		// histograms, restricted to the selected ones...
+		LogFileAnalyzer lfa = LogFileAnalyzer.getConfiguredInstance();
+		Vector<AbstractHistogram> available = new Vector<AbstractHistogram>();
+		String[] columnNames = lfa.getColumnNames();
+		for (int i = 0; i < columnNames.length; i++)
+			available.add(new UniversalHistogram(columnNames[i]));
+		for (int i = 0; i < lfa.getHistograms().size(); i++) {
+			if (!available.contains(lfa.getHistograms().get(i)))
+				available.add(lfa.getHistograms().get(i));
+		}
+		Vector<AbstractHistogram> histograms = new Vector<AbstractHistogram>();
+		for (int i = 0; i < available.size(); i++) {
+			if (histogramNames == null
+					|| Arrays.asList(histogramNames).contains(
+							available.get(i).toString()))
+				histograms.add(available.get(i));
+		}
+		// Selected names that match no histogram are most likely typos...
+		boolean unknown = false;
+		for (int i = 0; histogramNames != null && i < histogramNames.length; i++) {
+			boolean known = false;
+			for (int j = 0; j < available.size() && !known; j++)
+				known = available.get(j).toString().equals(histogramNames[i]);
+			if (!known) {
+				System.err.println("Unknown histogram: " + histogramNames[i]);
+				unknown = true;
+			}
+		}
+		if (unknown || histograms.isEmpty())
+			printUsage();
+
+		if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+			System.err.println("Could not create output directory: "
+					+ outputDirectory.getAbsolutePath());
+			System.exit(1);
+		}
+
+		long start = System.currentTimeMillis();
+		DataMemory dataMemory = new DataMemory(logFile);
+		dataMemory.readData();
+		System.out.println(dataMemory.size() + " iterations read in "
+				+ (System.currentTimeMillis() - start) + " ms");
+
+		BatchRenderer renderer = new BatchRenderer(dataMemory, histograms,
+				outputDirectory);
+		renderer.setFormat(formatId);
+		renderer.setTableIds(tableIds);
+		renderer.setSize(width, height);
+		start = System.currentTimeMillis();
+		try {
+			int written = iterations != null ? renderer.render(iterations)
+					: renderer.render(stride);
+			System.out.println(written + " charts written in "
+					+ (System.currentTimeMillis() - start) + " ms");
+		} catch (InterruptedException e) {
+			System.err.println("Rendering interrupted.");
+			System.exit(1);
+		}
+	}
+}
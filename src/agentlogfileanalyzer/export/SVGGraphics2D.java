@@ -0,0 +1,797 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.export;
+
+import java.awt.*;
+import java.awt.font.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+import java.awt.image.renderable.RenderableImage;
+import java.io.*;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * A minimal <code>Graphics2D</code> that writes everything drawn on it as
+ * SVG. Shapes are written as paths, text as text elements. Paints other than
+ * colors are approximated by a color, images and clipping are not supported.
+ * This is sufficient for the charts created by JFreeChart.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class SVGGraphics2D extends Graphics2D {
+
+	/**
+	 * Used to measure text
+	 */
+	private static final Graphics2D MEASURE = new BufferedImage(1, 1,
+			BufferedImage.TYPE_INT_RGB).createGraphics();
+
+	/**
+	 * The SVG elements drawn so far; shared with all graphics created from
+	 * this graphics
+	 */
+	private StringBuilder elements;
+
+	/**
+	 * Width of the drawing area
+	 */
+	private int width;
+
+	/**
+	 * Height of the drawing area
+	 */
+	private int height;
+
+	/**
+	 * Current transform
+	 */
+	private AffineTransform transform;
+
+	/**
+	 * Current paint
+	 */
+	private Paint paint;
+
+	/**
+	 * Current background color
+	 */
+	private Color background;
+
+	/**
+	 * Current stroke
+	 */
+	private Stroke stroke;
+
+	/**
+	 * Current font
+	 */
+	private Font font;
+
+	/**
+	 * Current composite
+	 */
+	private Composite composite;
+
+	/**
+	 * Current clip in user space; <code>null</code> if no clip is set
+	 */
+	private Shape clip;
+
+	/**
+	 * Current rendering hints
+	 */
+	private RenderingHints hints;
+
+	/**
+	 * Creates a graphics for a drawing area of the given size.
+	 * 
+	 * @param _width
+	 *            width of the drawing area
+	 * @param _height
+	 *            height of the drawing area
+	 */
+	public SVGGraphics2D(int _width, int _height) {
+		this.elements = new StringBuilder();
+		this.width = _width;
+		this.height = _height;
+		this.transform = new AffineTransform();
+		this.paint = Color.black;
+		this.background = Color.white;
+		this.stroke = new BasicStroke();
+		this.font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+		this.composite = AlphaComposite.SrcOver;
+		this.clip = null;
+		this.hints = new RenderingHints(null);
+	}
+
+	/**
+	 * Creates a copy of a graphics that draws on the same document.
+	 * 
+	 * @param _parent
+	 *            the copied graphics
+	 */
+	private SVGGraphics2D(SVGGraphics2D _parent) {
+		this.elements = _parent.elements;
+		this.width = _parent.width;
+		this.height = _parent.height;
+		this.transform = new AffineTransform(_parent.transform);
+		this.paint = _parent.paint;
+		this.background = _parent.background;
+		this.stroke = _parent.stroke;
+		this.font = _parent.font;
+		this.composite = _parent.composite;
+		this.clip = _parent.clip;
+		this.hints = (RenderingHints) _parent.hints.clone();
+	}
+
+	/**
+	 * Returns the complete SVG document containing everything drawn so far.
+	 * 
+	 * @return the SVG document
+	 */
+	public String getSVGDocument() {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width
+				+ "\" height=\"" + height + "\" viewBox=\"0 0 " + width + " "
+				+ height + "\">\n" + elements + "</svg>\n";
+	}
+
+	/**
+	 * Writes the SVG document to a file.
+	 * 
+	 * @param _file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void writeSVGDocument(File _file) throws IOException {
+		Writer writer = new OutputStreamWriter(new FileOutputStream(_file),
+				"UTF-8");
+		try {
+			writer.write(getSVGDocument());
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Formats a coordinate.
+	 * 
+	 * @param _value
+	 *            the coordinate
+	 * @return the coordinate with at most two decimal places
+	 */
+	private static String format(double _value) {
+		long rounded = Math.round(_value * 100);
+		if (rounded % 100 == 0)
+			return Long.toString(rounded / 100);
+		return Double.toString(rounded / 100.0);
+	}
+
+	/**
+	 * Escapes the XML special characters of a text.
+	 * 
+	 * @param _text
+	 *            the text
+	 * @return the escaped text
+	 */
+	private static String escape(String _text) {
+		StringBuilder result = new StringBuilder(_text.length());
+		for (int i = 0; i < _text.length(); i++) {
+			char c = _text.charAt(i);
+			switch (c) {
+			case '<':
+				result.append("&lt;");
+				break;
+			case '>':
+				result.append("&gt;");
+				break;
+			case '&':
+				result.append("&amp;");
+				break;
+			case '"':
+				result.append("&quot;");
+				break;
+			default:
+				if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r')
+					result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Returns the SVG font family of a font. Java's logical fonts are mapped
+	 * to the generic SVG font families.
+	 * 
+	 * @param _font
+	 *            the font
+	 * @return the font family
+	 */
+	private static String fontFamily(Font _font) {
+		String family = _font.getFamily();
+		if (family.equals(Font.DIALOG) || family.equals(Font.DIALOG_INPUT)
+				|| family.equals(Font.SANS_SERIF))
+			return "sans-serif";
+		if (family.equals(Font.SERIF))
+			return "serif";
+		if (family.equals(Font.MONOSPACED))
+			return "monospace";
+		return escape(family);
+	}
+
+	/**
+	 * Returns the SVG color and opacity attributes of the current paint.
+	 * 
+	 * @param _attribute
+	 *            name of the attribute (<code>fill</code> or
+	 *            <code>stroke</code>)
+	 * @return the attributes
+	 */
+	private String paintAttributes(String _attribute) {
+		Color color;
+		if (paint instanceof Color)
+			color = (Color) paint;
+		else if (paint instanceof GradientPaint)
+			color = ((GradientPaint) paint).getColor1();
+		else
+			color = Color.gray;
+		float alpha = color.getAlpha() / 255f;
+		if (composite instanceof AlphaComposite)
+			alpha *= ((AlphaComposite) composite).getAlpha();
+
+		String result = " " + _attribute + "=\""
+				+ String.format("#%06x", color.getRGB() & 0xffffff) + "\"";
+		if (alpha < 1f)
+			result += " " + _attribute + "-opacity=\"" + format(alpha) + "\"";
+		return result;
+	}
+
+	/**
+	 * Returns the SVG path data of a shape transformed by the current
+	 * transform.
+	 * 
+	 * @param _shape
+	 *            the shape
+	 * @return the path data
+	 */
+	private String pathData(Shape _shape) {
+		StringBuilder result = new StringBuilder();
+		double[] coords = new double[6];
+		for (PathIterator i = _shape.getPathIterator(transform); !i.isDone(); i
+				.next()) {
+			switch (i.currentSegment(coords)) {
+			case PathIterator.SEG_MOVETO:
+				result.append('M').append(format(coords[0])).append(' ')
+						.append(format(coords[1]));
+				break;
+			case PathIterator.SEG_LINETO:
+				result.append('L').append(format(coords[0])).append(' ')
+						.append(format(coords[1]));
+				break;
+			case PathIterator.SEG_QUADTO:
+				result.append('Q').append(format(coords[0])).append(' ')
+						.append(format(coords[1])).append(' ').append(
+								format(coords[2])).append(' ').append(
+								format(coords[3]));
+				break;
+			case PathIterator.SEG_CUBICTO:
+				result.append('C').append(format(coords[0])).append(' ')
+						.append(format(coords[1])).append(' ').append(
+								format(coords[2])).append(' ').append(
+								format(coords[3])).append(' ').append(
+								format(coords[4])).append(' ').append(
+								format(coords[5]));
+				break;
+			case PathIterator.SEG_CLOSE:
+				result.append('Z');
+				break;
+			}
+		}
+		return result.toString();
+	}
+
+	@Override
+	public void draw(Shape _shape) {
+		if (!(stroke instanceof BasicStroke)) {
+			fill(stroke.createStrokedShape(_shape));
+			return;
+		}
+		BasicStroke basicStroke = (BasicStroke) stroke;
+		String data = pathData(_shape);
+		if (data.length() == 0)
+			return;
+		double scale = Math.sqrt(Math.abs(transform.getDeterminant()));
+		elements.append("<path d=\"").append(data).append("\" fill=\"none\"")
+				.append(paintAttributes("stroke")).append(" stroke-width=\"")
+				.append(format(basicStroke.getLineWidth() * scale)).append('"');
+		float[] dashes = basicStroke.getDashArray();
+		if (dashes != null) {
+			elements.append(" stroke-dasharray=\"");
+			for (int i = 0; i < dashes.length; i++)
+				elements.append(i > 0 ? "," : "").append(
+						format(dashes[i] * scale));
+			elements.append('"');
+		}
+		elements.append("/>\n");
+	}
+
+	@Override
+	public void fill(Shape _shape) {
+		String data = pathData(_shape);
+		if (data.length() == 0)
+			return;
+		elements.append("<path d=\"").append(data).append('"').append(
+				paintAttributes("fill"));
+		if (_shape.getPathIterator(null).getWindingRule() == PathIterator.WIND_EVEN_ODD)
+			elements.append(" fill-rule=\"evenodd\"");
+		elements.append("/>\n");
+	}
+
+	@Override
+	public void drawString(String _text, float _x, float _y) {
+		if (_text == null || _text.length() == 0)
+			return;
+		Point2D position = transform.transform(new Point2D.Float(_x, _y), null);
+		elements.append("<text x=\"").append(format(position.getX())).append(
+				"\" y=\"").append(format(position.getY())).append('"');
+		if (transform.getType() > AffineTransform.TYPE_TRANSLATION) {
+			// Rotate and scale around the text position...
+			elements.append(" transform=\"matrix(").append(
+					format(transform.getScaleX())).append(' ').append(
+					format(transform.getShearY())).append(' ').append(
+					format(transform.getShearX())).append(' ').append(
+					format(transform.getScaleY())).append(' ').append(
+					format(position.getX() - transform.getScaleX()
+							* position.getX() - transform.getShearX()
+							* position.getY())).append(' ').append(
+					format(position.getY() - transform.getShearY()
+							* position.getX() - transform.getScaleY()
+							* position.getY())).append(")\"");
+		}
+		elements.append(" font-family=\"").append(fontFamily(font))
+				.append("\" font-size=\"").append(format(font.getSize2D()))
+				.append('"');
+		if (font.isBold())
+			elements.append(" font-weight=\"bold\"");
+		if (font.isItalic())
+			elements.append(" font-style=\"italic\"");
+		elements.append(paintAttributes("fill")).append(" xml:space=\"preserve\">")
+				.append(escape(_text)).append("</text>\n");
+	}
+
+	@Override
+	public void drawString(String _text, int _x, int _y) {
+		drawString(_text, (float) _x, (float) _y);
+	}
+
+	@Override
+	public void drawString(AttributedCharacterIterator _iterator, float _x,
+			float _y) {
+		StringBuilder text = new StringBuilder();
+		for (char c = _iterator.first(); c != AttributedCharacterIterator.DONE; c = _iterator
+				.next())
+			text.append(c);
+		drawString(text.toString(), _x, _y);
+	}
+
+	@Override
+	public void drawString(AttributedCharacterIterator _iterator, int _x,
+			int _y) {
+		drawString(_iterator, (float) _x, (float) _y);
+	}
+
+	@Override
+	public void drawGlyphVector(GlyphVector _glyphs, float _x, float _y) {
+		fill(_glyphs.getOutline(_x, _y));
+	}
+
+	@Override
+	public boolean drawImage(Image _image, AffineTransform _transform,
+			ImageObserver _observer) {
+		return true;
+	}
+
+	@Override
+	public void drawImage(BufferedImage _image, BufferedImageOp _op, int _x,
+			int _y) {
+	}
+
+	@Override
+	public void drawRenderedImage(RenderedImage _image,
+			AffineTransform _transform) {
+	}
+
+	@Override
+	public void drawRenderableImage(RenderableImage _image,
+			AffineTransform _transform) {
+	}
+
+	@Override
+	public boolean drawImage(Image _image, int _x, int _y,
+			ImageObserver _observer) {
+		return true;
+	}
+
+	@Override
+	public boolean drawImage(Image _image, int _x, int _y, int _width,
+			int _height, ImageObserver _observer) {
+		return true;
+	}
+
+	@Override
+	public boolean drawImage(Image _image, int _x, int _y, Color _bgcolor,
+			ImageObserver _observer) {
+		return true;
+	}
+
+	@Override
+	public boolean drawImage(Image _image, int _x, int _y, int _width,
+			int _height, Color _bgcolor, ImageObserver _observer) {
+		return true;
+	}
+
+	@Override
+	public boolean drawImage(Image _image, int _dx1, int _dy1, int _dx2,
+			int _dy2, int _sx1, int _sy1, int _sx2, int _sy2,
+			ImageObserver _observer) {
+		return true;
+	}
+
+	@Override
+	public boolean drawImage(Image _image, int _dx1, int _dy1, int _dx2,
+			int _dy2, int _sx1, int _sy1, int _sx2, int _sy2, Color _bgcolor,
+			ImageObserver _observer) {
+		return true;
+	}
+
+	@Override
+	public boolean hit(Rectangle _rect, Shape _shape, boolean _onStroke) {
+		Shape deviceShape = transform.createTransformedShape(_onStroke ? stroke
+				.createStrokedShape(_shape) : _shape);
+		return deviceShape.intersects(_rect);
+	}
+
+	@Override
+	public GraphicsConfiguration getDeviceConfiguration() {
+		return MEASURE.getDeviceConfiguration();
+	}
+
+	@Override
+	public void setComposite(Composite _composite) {
+		this.composite = _composite;
+	}
+
+	@Override
+	public Composite getComposite() {
+		return composite;
+	}
+
+	@Override
+	public void setPaint(Paint _paint) {
+		if (_paint != null)
+			this.paint = _paint;
+	}
+
+	@Override
+	public Paint getPaint() {
+		return paint;
+	}
+
+	@Override
+	public void setStroke(Stroke _stroke) {
+		this.stroke = _stroke;
+	}
+
+	@Override
+	public Stroke getStroke() {
+		return stroke;
+	}
+
+	@Override
+	public void setRenderingHint(RenderingHints.Key _key, Object _value) {
+		hints.put(_key, _value);
+	}
+
+	@Override
+	public Object getRenderingHint(RenderingHints.Key _key) {
+		return hints.get(_key);
+	}
+
+	@Override
+	public void setRenderingHints(Map<?, ?> _hints) {
+		hints.clear();
+		hints.putAll(_hints);
+	}
+
+	@Override
+	public void addRenderingHints(Map<?, ?> _hints) {
+		hints.putAll(_hints);
+	}
+
+	@Override
+	public RenderingHints getRenderingHints() {
+		return (RenderingHints) hints.clone();
+	}
+
+	@Override
+	public void translate(int _x, int _y) {
+		translate((double) _x, (double) _y);
+	}
+
+	@Override
+	public void translate(double _tx, double _ty) {
+		transform.translate(_tx, _ty);
+		if (clip != null)
+			clip = AffineTransform.getTranslateInstance(-_tx, -_ty)
+					.createTransformedShape(clip);
+	}
+
+	@Override
+	public void rotate(double _theta) {
+		transform(AffineTransform.getRotateInstance(_theta));
+	}
+
+	@Override
+	public void rotate(double _theta, double _x, double _y) {
+		transform(AffineTransform.getRotateInstance(_theta, _x, _y));
+	}
+
+	@Override
+	public void scale(double _sx, double _sy) {
+		transform(AffineTransform.getScaleInstance(_sx, _sy));
+	}
+
+	@Override
+	public void shear(double _shx, double _shy) {
+		transform(AffineTransform.getShearInstance(_shx, _shy));
+	}
+
+	@Override
+	public void transform(AffineTransform _transform) {
+		Shape deviceClip = getDeviceClip();
+		transform.concatenate(_transform);
+		setDeviceClip(deviceClip);
+	}
+
+	@Override
+	public void setTransform(AffineTransform _transform) {
+		Shape deviceClip = getDeviceClip();
+		transform = new AffineTransform(_transform);
+		setDeviceClip(deviceClip);
+	}
+
+	@Override
+	public AffineTransform getTransform() {
+		return new AffineTransform(transform);
+	}
+
+	/**
+	 * Returns the current clip in device space.
+	 * 
+	 * @return the clip in device space; <code>null</code> if no clip is set
+	 */
+	private Shape getDeviceClip() {
+		return clip == null ? null : transform.createTransformedShape(clip);
+	}
+
+	/**
+	 * Sets the current clip given in device space.
+	 * 
+	 * @param _deviceClip
+	 *            the clip in device space; <code>null</code> to remove the
+	 *            clip
+	 */
+	private void setDeviceClip(Shape _deviceClip) {
+		if (_deviceClip == null) {
+			clip = null;
+			return;
+		}
+		try {
+			clip = transform.createInverse().createTransformedShape(
+					_deviceClip);
+		} catch (NoninvertibleTransformException e) {
+			clip = null;
+		}
+	}
+
+	@Override
+	public void setBackground(Color _color) {
+		this.background = _color;
+	}
+
+	@Override
+	public Color getBackground() {
+		return background;
+	}
+
+	@Override
+	public void clip(Shape _shape) {
+		if (clip == null) {
+			clip = _shape;
+		} else {
+			Area area = new Area(clip);
+			area.intersect(new Area(_shape));
+			clip = area;
+		}
+	}
+
+	@Override
+	public FontRenderContext getFontRenderContext() {
+		return MEASURE.getFontRenderContext();
+	}
+
+	@Override
+	public Graphics create() {
+		return new SVGGraphics2D(this);
+	}
+
+	@Override
+	public Color getColor() {
+		return paint instanceof Color ? (Color) paint : Color.black;
+	}
+
+	@Override
+	public void setColor(Color _color) {
+		setPaint(_color);
+	}
+
+	@Override
+	public void setPaintMode() {
+		composite = AlphaComposite.SrcOver;
+	}
+
+	@Override
+	public void setXORMode(Color _color) {
+	}
+
+	@Override
+	public Font getFont() {
+		return font;
+	}
+
+	@Override
+	public void setFont(Font _font) {
+		if (_font != null)
+			this.font = _font;
+	}
+
+	@Override
+	public FontMetrics getFontMetrics(Font _font) {
+		synchronized (MEASURE) {
+			return MEASURE.getFontMetrics(_font);
+		}
+	}
+
+	@Override
+	public Rectangle getClipBounds() {
+		return clip == null ? null : clip.getBounds();
+	}
+
+	@Override
+	public void clipRect(int _x, int _y, int _width, int _height) {
+		clip(new Rectangle(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void setClip(int _x, int _y, int _width, int _height) {
+		setClip(new Rectangle(_x, _y, _width, _height));
+	}
+
+	@Override
+	public Shape getClip() {
+		return clip;
+	}
+
+	@Override
+	public void setClip(Shape _clip) {
+		this.clip = _clip;
+	}
+
+	@Override
+	public void copyArea(int _x, int _y, int _width, int _height, int _dx,
+			int _dy) {
+	}
+
+	@Override
+	public void drawLine(int _x1, int _y1, int _x2, int _y2) {
+		draw(new Line2D.Float(_x1, _y1, _x2, _y2));
+	}
+
+	@Override
+	public void fillRect(int _x, int _y, int _width, int _height) {
+		fill(new Rectangle(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void clearRect(int _x, int _y, int _width, int _height) {
+		Paint currentPaint = paint;
+		paint = background;
+		fillRect(_x, _y, _width, _height);
+		paint = currentPaint;
+	}
+
+	@Override
+	public void drawRoundRect(int _x, int _y, int _width, int _height,
+			int _arcWidth, int _arcHeight) {
+		draw(new RoundRectangle2D.Float(_x, _y, _width, _height, _arcWidth,
+				_arcHeight));
+	}
+
+	@Override
+	public void fillRoundRect(int _x, int _y, int _width, int _height,
+			int _arcWidth, int _arcHeight) {
+		fill(new RoundRectangle2D.Float(_x, _y, _width, _height, _arcWidth,
+				_arcHeight));
+	}
+
+	@Override
+	public void drawOval(int _x, int _y, int _width, int _height) {
+		draw(new Ellipse2D.Float(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void fillOval(int _x, int _y, int _width, int _height) {
+		fill(new Ellipse2D.Float(_x, _y, _width, _height));
+	}
+
+	@Override
+	public void drawArc(int _x, int _y, int _width, int _height,
+			int _startAngle, int _arcAngle) {
+		draw(new Arc2D.Float(_x, _y, _width, _height, _startAngle, _arcAngle,
+				Arc2D.OPEN));
+	}
+
+	@Override
+	public void fillArc(int _x, int _y, int _width, int _height,
+			int _startAngle, int _arcAngle) {
+		fill(new Arc2D.Float(_x, _y, _width, _height, _startAngle, _arcAngle,
+				Arc2D.PIE));
+	}
+
+	@Override
+	public void drawPolyline(int[] _xPoints, int[] _yPoints, int _nPoints) {
+		if (_nPoints < 2)
+			return;
+		GeneralPath path = new GeneralPath();
+		path.moveTo(_xPoints[0], _yPoints[0]);
+		for (int i = 1; i < _nPoints; i++)
+			path.lineTo(_xPoints[i], _yPoints[i]);
+		draw(path);
+	}
+
+	@Override
+	public void drawPolygon(int[] _xPoints, int[] _yPoints, int _nPoints) {
+		draw(new Polygon(_xPoints, _yPoints, _nPoints));
+	}
+
+	@Override
+	public void fillPolygon(int[] _xPoints, int[] _yPoints, int _nPoints) {
+		fill(new Polygon(_xPoints, _yPoints, _nPoints));
+	}
+
+	@Override
+	public void dispose() {
+	}
+}
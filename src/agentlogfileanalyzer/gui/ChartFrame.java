@@ -24,8 +24,13 @@ package agentlogfileanalyzer.gui;
 
 import java.awt.*;
 import java.util.*;
+import java.util.concurrent.Future;
+
 import javax.swing.*;
 
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+
 import agentlogfileanalyzer.*;
 import agentlogfileanalyzer.histogram.*;
 
@@ -81,11 +86,41 @@ public class ChartFrame extends JFrame {
 	 */
 	private String[] tableSelection = { "Population", "Match Set", "Action Set" };
 
+	/**
+	 * Selects the rule choosing the bin width if no bin width is given.
+	 */
+	private JComboBox jComboBoxBinningSelector = null;
+
+	/**
+	 * Names of the binning rules displayed in the
+	 * <code>jComboBoxBinningSelector</code> (in the order of the constants of
+	 * <code>Binning</code>).
+	 */
+	private String[] binningSelection = { "Freedman-Diaconis", "Sturges",
+			"Run-wide min/max", "Run-wide quantiles" };
+
+	/**
+	 * Index of the first run-wide binning in <code>binningSelection</code>
+	 */
+	private static final int RUN_BINNING_OFFSET = 2;
+
 	/**
 	 * Contains the histogram.
 	 */
 	private JPanel jPanelHistogram = null;
 
+	/**
+	 * Shows the <code>chart</code>; <code>null</code> until the first
+	 * histogram with data is displayed
+	 */
+	private ChartPanel chartPanel = null;
+
+	/**
+	 * The chart of this <code>ChartFrame</code>. It is created once and
+	 * updated in place for every iteration and histogram.
+	 */
+	private JFreeChart chart = null;
+
 	/**
 	 * Contains the iteration and the number of classifiers displayed in this
 	 * <code>ChartFrame</code>.
@@ -145,6 +180,24 @@ public class ChartFrame extends JFrame {
 	 */
 	private JTextField jTextFieldUpperLimit = null;
 
+	/**
+	 * Defines a fixed bin width for this <code>ChartFrame</code>. If empty,
+	 * the bin width is chosen by the selected binning rule.
+	 */
+	private JTextField jTextFieldBinWidth = null;
+
+	/**
+	 * Computes the histogram of the latest update in the background;
+	 * <code>null</code> if no computation is running
+	 */
+	private ChartUpdater chartUpdater = null;
+
+	/**
+	 * Computes the run-wide bin grid of the selected histogram in the
+	 * background; <code>null</code> if no computation is running
+	 */
+	private SwingWorker<Binning, Object> gridWorker = null;
+
 	/**
 	 * Creates a new <code>ChartFrame</code> that displays histograms. A
 	 * <code>ChartFrame</code> is opened by the <code>TableFrame</code>-class
@@ -167,7 +220,7 @@ public class ChartFrame extends JFrame {
 	 * Initializes a new <code>ChartFrame</code>.
 	 */
 	private void initialize() {
-		this.setSize(323, 275);
+		this.setSize(440, 300);
 		this.setLocation(myTableFrame.getLocation().x + 20, myTableFrame
 				.getLocation().y + 20);
 
@@ -225,7 +278,9 @@ public class ChartFrame extends JFrame {
 	}
 
 	/**
-	 * Updates this <code>ChartFrame</code> after changes.
+	 * Updates this <code>ChartFrame</code> after changes. The histogram is
+	 * computed in the background; a computation that is still running for a
+	 * previous update is cancelled and its result is discarded.
 	 */
 	private void updateChart() {
 		this.setTitle("Chart: " + jComboBoxTableSelector.getSelectedItem()
@@ -235,53 +290,319 @@ public class ChartFrame extends JFrame {
 		AbstractHistogram selectedHistogram = (AbstractHistogram) jComboBoxHistogramSelector
 				.getSelectedItem();
 
+		// Results of previous updates are no longer needed...
+		if (chartUpdater != null) {
+			chartUpdater.cancel(true);
+			chartUpdater = null;
+		}
+
 		if (this.currentElement != null && selectedHistogram != null) {
 
-			int numberOfClassifiers = currentElement.getPopulation()
-					.getRowCount();
-			if (selectedTable == 1)
-				numberOfClassifiers = currentElement.getMatchSet()
-						.getRowCount();
-			if (selectedTable == 2)
-				numberOfClassifiers = currentElement.getActionSet()
-						.getRowCount();
+			Binning binning = getSelectedBinning();
+			if (binning == null) {
+				// The run-wide bin grid is needed first...
+				computeRunBinning(selectedHistogram, selectedTable);
+				return;
+			}
+			chartUpdater = new ChartUpdater(selectedHistogram, currentElement,
+					selectedTable, getLimit(jTextFieldLowerLimit),
+					getLimit(jTextFieldUpperLimit), binning);
+			LogFileAnalyzer.getInstance().getWorkerPool().execute(chartUpdater);
 
-			double upperLimit;
-			double lowerLimit;
+		} else {
+			jTextAreaIteration.setText("iteration: <?>");
+			jTextAreaClassifiers.setText("# classifiers: 0");
+			this.setNewChartPanel(new JPanel());
+		}
+	}
 
+	/**
+	 * Computes the run-wide bin grid of a histogram in the background and
+	 * updates the chart afterwards.
+	 * 
+	 * @param _histogram
+	 *            the histogram
+	 * @param _selectedTable
+	 *            identifier of the classifier set
+	 */
+	private void computeRunBinning(final AbstractHistogram _histogram,
+			final int _selectedTable) {
+		final DataMemory dataMemory = myTableFrame.getDataMemory();
+		final int mode = jComboBoxBinningSelector.getSelectedIndex()
+				- RUN_BINNING_OFFSET;
+		if (gridWorker != null)
+			gridWorker.cancel(true);
+		jTextAreaClassifiers.setText("computing run-wide bins...");
+
+		gridWorker = new SwingWorker<Binning, Object>() {
+			@Override
+			protected Binning doInBackground() throws Exception {
+				return RunBinning.getBinning(dataMemory, _histogram,
+						_selectedTable, mode);
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled() || gridWorker != this)
+					return;
+				gridWorker = null;
+				try {
+					get();
+					updateChart();
+				} catch (Exception e) {
+					if (e.getCause() instanceof NumberFormatException)
+						setNewChartPanel(_histogram.createUnsupportedDataPanel());
+					else
+						e.printStackTrace();
+				}
+			}
+		};
+		gridWorker.execute();
+	}
+
+	/**
+	 * Computes the bins of the histogram of this <code>ChartFrame</code> in
+	 * the background. The bins are shown on the Event Dispatch Thread, and
+	 * only if no newer update was started in the meantime.
+	 */
+	private class ChartUpdater extends SwingWorker<HistogramBins, Object> {
+
+		/**
+		 * The displayed histogram
+		 */
+		private AbstractHistogram histogram;
+
+		/**
+		 * The displayed iteration
+		 */
+		private DataElement dataElement;
+
+		/**
+		 * Identifier of the displayed classifier set
+		 */
+		private int selectedTable;
+
+		/**
+		 * The lower limit of the values (<code>Double.NaN</code> if none)
+		 */
+		private double lowerLimit;
+
+		/**
+		 * The upper limit of the values (<code>Double.NaN</code> if none)
+		 */
+		private double upperLimit;
+
+		/**
+		 * Determines the bins of the histogram
+		 */
+		private Binning binning;
+
+		/**
+		 * Creates the computation of a histogram.
+		 * 
+		 * @param _histogram
+		 *            the displayed histogram
+		 * @param _dataElement
+		 *            the displayed iteration
+		 * @param _selectedTable
+		 *            identifier of the displayed classifier set
+		 * @param _lowerLimit
+		 *            the lower limit of the values
+		 * @param _upperLimit
+		 *            the upper limit of the values
+		 * @param _binning
+		 *            determines the bins of the histogram
+		 */
+		ChartUpdater(AbstractHistogram _histogram, DataElement _dataElement,
+				int _selectedTable, double _lowerLimit, double _upperLimit,
+				Binning _binning) {
+			this.histogram = _histogram;
+			this.dataElement = _dataElement;
+			this.selectedTable = _selectedTable;
+			this.lowerLimit = _lowerLimit;
+			this.upperLimit = _upperLimit;
+			this.binning = _binning;
+		}
+
+		@Override
+		protected HistogramBins doInBackground() throws Exception {
 			try {
-				upperLimit = Double.parseDouble(jTextFieldUpperLimit.getText());
+				return LogFileAnalyzer.getInstance().getHistogramCache()
+						.getBins(histogram, dataElement, selectedTable,
+								lowerLimit, upperLimit, binning);
 			} catch (NumberFormatException nfe) {
-				upperLimit = Double.NaN;
+				return null;
 			}
+		}
 
+		@Override
+		protected void done() {
+			if (isCancelled() || chartUpdater != this)
+				return; // A newer update is running.
+			chartUpdater = null;
+
+			HistogramBins bins;
 			try {
-				lowerLimit = Double.parseDouble(jTextFieldLowerLimit.getText());
-			} catch (NumberFormatException nfe) {
-				lowerLimit = Double.NaN;
+				bins = get();
+			} catch (Exception e) {
+				e.printStackTrace();
+				return;
 			}
 
-			JPanel chartPanel = selectedHistogram.createHistogram(
-					currentElement, selectedTable, lowerLimit, upperLimit);
-			this.setNewChartPanel(chartPanel);
+			int numberOfClassifiers = dataElement
+					.getClassifierSet(selectedTable).getRowCount();
+			int shownElements = 0;
+			if (bins != null && bins.getNumberOfValues() > 0)
+				showBins(histogram, bins);
+			else if (bins != null)
+				setNewChartPanel(histogram.createHistogram(bins));
+			else
+				setNewChartPanel(histogram.createUnsupportedDataPanel());
+			if (bins != null)
+				shownElements = bins.getNumberOfValues();
 
 			String numberOfClassifiersString = "# classifiers: "
 					+ numberOfClassifiers;
-			int shownElements = selectedHistogram
-					.getNumberOfVisibleClassifiers();
 			if (shownElements != numberOfClassifiers)
 				numberOfClassifiersString = "# classifiers: " + shownElements
 						+ "/" + numberOfClassifiers;
 
 			jTextAreaIteration.setText("iteration: "
-					+ currentElement.getIteration());
+					+ dataElement.getIteration());
 			jTextAreaClassifiers.setText(numberOfClassifiersString);
+		}
+	}
 
+	/**
+	 * Shows bins in the chart of this <code>ChartFrame</code>. The chart is
+	 * created for the first bins only; afterwards its dataset is updated in
+	 * place, so the layout is only revalidated if an error message was shown
+	 * before.
+	 * 
+	 * @param _histogram
+	 *            the histogram of the bins
+	 * @param _bins
+	 *            the bins
+	 */
+	private void showBins(AbstractHistogram _histogram, HistogramBins _bins) {
+		if (chart == null) {
+			chart = _histogram.createChart(_bins);
+			chartPanel = new ChartPanel(chart);
 		} else {
-			jTextAreaIteration.setText("iteration: <?>");
-			jTextAreaClassifiers.setText("# classifiers: 0");
-			this.setNewChartPanel(new JPanel());
+			_histogram.updateChart(chart, _bins);
+		}
+		if (jPanelHistogram != chartPanel)
+			setNewChartPanel(chartPanel);
+	}
+
+	/**
+	 * Returns <code>true</code> if the histogram of the latest update is still
+	 * being computed.
+	 * 
+	 * @return <code>true</code> if a computation is running
+	 */
+	boolean isUpdating() {
+		return chartUpdater != null || gridWorker != null;
+	}
+
+	/**
+	 * Closes this <code>ChartFrame</code> and cancels a running computation.
+	 */
+	@Override
+	public void dispose() {
+		if (chartUpdater != null) {
+			chartUpdater.cancel(true);
+			chartUpdater = null;
+		}
+		if (gridWorker != null) {
+			gridWorker.cancel(true);
+			gridWorker = null;
+		}
+		super.dispose();
+	}
+
+	/**
+	 * Computes the histogram currently selected in this
+	 * <code>ChartFrame</code> for another iteration in the background and
+	 * stores it in the histogram cache. Used to prepare the next frames
+	 * during playback.
+	 * 
+	 * @param _dataElement
+	 *            the iteration
+	 * @return the running computation, or <code>null</code> if the selected
+	 *         binning is not available yet
+	 */
+	Future<?> prefetch(final DataElement _dataElement) {
+		final AbstractHistogram histogram = (AbstractHistogram) jComboBoxHistogramSelector
+				.getSelectedItem();
+		final int selectedTable = jComboBoxTableSelector.getSelectedIndex();
+		final double lowerLimit = getLimit(jTextFieldLowerLimit);
+		final double upperLimit = getLimit(jTextFieldUpperLimit);
+		final Binning binning = getSelectedBinning();
+		if (binning == null)
+			return null;
+		return LogFileAnalyzer.getInstance().getWorkerPool().submit(
+				new Runnable() {
+					public void run() {
+						if (histogram == null || _dataElement == null)
+							return;
+						try {
+							LogFileAnalyzer.getInstance().getHistogramCache()
+									.getBins(histogram, _dataElement,
+											selectedTable, lowerLimit,
+											upperLimit, binning);
+						} catch (NumberFormatException nfe) {
+							// Will be reported when the frame is shown.
+						}
+					}
+				});
+	}
+
+	/**
+	 * Returns the limit entered in a <code>TextField</code>.
+	 * 
+	 * @param _jTextFieldLimit
+	 *            <code>jTextFieldLowerLimit</code> or
+	 *            <code>jTextFieldUpperLimit</code>
+	 * @return the limit, or <code>Double.NaN</code> if no valid limit is
+	 *         entered
+	 */
+	private double getLimit(JTextField _jTextFieldLimit) {
+		try {
+			return Double.parseDouble(_jTextFieldLimit.getText());
+		} catch (NumberFormatException nfe) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the binning selected in this <code>ChartFrame</code>. A valid
+	 * bin width entered by the user takes precedence over the selected
+	 * binning rule.
+	 * 
+	 * @return the selected binning, or <code>null</code> if a run-wide bin
+	 *         grid is selected that was not computed yet
+	 */
+	private Binning getSelectedBinning() {
+		try {
+			double binWidth = Double.parseDouble(replaceCommas(jTextFieldBinWidth
+					.getText()));
+			if (binWidth > 0)
+				return new Binning(binWidth);
+		} catch (NumberFormatException nfe) {
+			// No bin width given - use the selected rule.
 		}
+		int rule = jComboBoxBinningSelector.getSelectedIndex();
+		if (rule >= RUN_BINNING_OFFSET) {
+			if (myTableFrame.getDataMemory() == null)
+				return Binning.DEFAULT;
+			return RunBinning.lookup(myTableFrame.getDataMemory(),
+					(AbstractHistogram) jComboBoxHistogramSelector
+							.getSelectedItem(), jComboBoxTableSelector
+							.getSelectedIndex(), rule - RUN_BINNING_OFFSET);
+		}
+		return new Binning(rule == 1 ? Binning.STURGES
+				: Binning.FREEDMAN_DIACONIS);
 	}
 
 	/**
@@ -310,12 +631,17 @@ public class ChartFrame extends JFrame {
 			GridBagConstraints gridBagConstraints2 = new GridBagConstraints();
 			gridBagConstraints2.fill = GridBagConstraints.VERTICAL;
 			gridBagConstraints2.weightx = 1.0;
+			GridBagConstraints gridBagConstraints4 = new GridBagConstraints();
+			gridBagConstraints4.fill = GridBagConstraints.VERTICAL;
+			gridBagConstraints4.weightx = 1.0;
 			jPanelComboBoxes = new JPanel();
 			jPanelComboBoxes.setLayout(new GridBagLayout());
 			jPanelComboBoxes.add(getJComboBoxTableSelector(),
 					gridBagConstraints2);
 			jPanelComboBoxes.add(getJComboBoxHistogramSelector(),
 					gridBagConstraints3);
+			jPanelComboBoxes.add(getJComboBoxBinningSelector(),
+					gridBagConstraints4);
 		}
 		return jPanelComboBoxes;
 	}
@@ -360,6 +686,29 @@ public class ChartFrame extends JFrame {
 		return jComboBoxTableSelector;
 	}
 
+	/**
+	 * Initializes the <code>jComboBoxBinningSelector</code> that selects the
+	 * rule choosing the bin width.
+	 * 
+	 * @return the <code>jComboBoxBinningSelector</code>
+	 */
+	private JComboBox getJComboBoxBinningSelector() {
+		if (jComboBoxBinningSelector == null) {
+			jComboBoxBinningSelector = new JComboBox(binningSelection);
+			jComboBoxBinningSelector
+					.setToolTipText("Rule choosing the bins if no bin width is given; "
+									+ "run-wide bins are shared by all iterations");
+			jComboBoxBinningSelector
+					.addItemListener(new java.awt.event.ItemListener() {
+						public void itemStateChanged(java.awt.event.ItemEvent e) {
+							if (e.getStateChange() == java.awt.event.ItemEvent.SELECTED)
+								updateChart();
+						}
+					});
+		}
+		return jComboBoxBinningSelector;
+	}
+
 	/**
 	 * Initializes the <code>jComboBoxHistogramSelector</code> that selects
 	 * the histogram displayed in this <code>ChartFrame</code>.
@@ -372,24 +721,9 @@ public class ChartFrame extends JFrame {
 			jComboBoxHistogramSelector = new JComboBox();
 			jComboBoxHistogramSelector.setMaximumRowCount(10);
 
-			// If autoChart is activated, create one UniversalHistogram per
-			// column...
-			if (LogFileAnalyzer.getInstance().getAutoChart()) {
-				String[] columnNames = LogFileAnalyzer.getInstance()
-						.getColumnNames();
-				for (int i = 0; i < columnNames.length; i++) {
-					jComboBoxHistogramSelector.addItem(new UniversalHistogram(
-							columnNames[i]));
-				}
-			}
-
-			// Add special histogram to the ComboBox...
-			Vector<AbstractHistogram> histograms = LogFileAnalyzer
-					.getInstance().getHistograms();
-			if (histograms != null) {
-				for (int i = 0; i < histograms.size(); i++) {
-					jComboBoxHistogramSelector.addItem(histograms.get(i));
-				}
+			Vector<AbstractHistogram> histograms = getAvailableHistograms();
+			for (int i = 0; i < histograms.size(); i++) {
+				jComboBoxHistogramSelector.addItem(histograms.get(i));
 			}
 
 			jComboBoxHistogramSelector
@@ -398,6 +732,7 @@ public class ChartFrame extends JFrame {
 							// Delete lower and upper limit on change...
 							jTextFieldLowerLimit.setText("");
 							jTextFieldUpperLimit.setText("");
+							jTextFieldBinWidth.setText("");
 							updateChart();
 						}
 					});
@@ -405,6 +740,36 @@ public class ChartFrame extends JFrame {
 		return jComboBoxHistogramSelector;
 	}
 
+	/**
+	 * Returns all histograms that can be selected: one
+	 * <code>UniversalHistogram</code> per column if autoChart is activated,
+	 * followed by the histograms registered at the
+	 * <code>LogFileAnalyzer</code>.
+	 * 
+	 * @return all histograms that can be selected
+	 */
+	static Vector<AbstractHistogram> getAvailableHistograms() {
+		Vector<AbstractHistogram> result = new Vector<AbstractHistogram>();
+
+		// If autoChart is activated, create one UniversalHistogram per
+		// column...
+		if (LogFileAnalyzer.getInstance().getAutoChart()) {
+			String[] columnNames = LogFileAnalyzer.getInstance()
+					.getColumnNames();
+			for (int i = 0; i < columnNames.length; i++) {
+				result.add(new UniversalHistogram(columnNames[i]));
+			}
+		}
+
+		// Add special histograms...
+		Vector<AbstractHistogram> histograms = LogFileAnalyzer.getInstance()
+				.getHistograms();
+		if (histograms != null) {
+			result.addAll(histograms);
+		}
+		return result;
+	}
+
 	/**
 	 * Initializes the <code>jPanelHistogram</code> that contains the
 	 * histogram.
@@ -431,6 +796,8 @@ public class ChartFrame extends JFrame {
 		jPanelInfoAndHistogram.remove(jPanelHistogram);
 		jPanelHistogram = _newPanel;
 		jPanelInfoAndHistogram.add(_newPanel);
+		jPanelInfoAndHistogram.revalidate();
+		jPanelInfoAndHistogram.repaint();
 	}
 
 	/**
@@ -487,6 +854,11 @@ public class ChartFrame extends JFrame {
 			jPanelLimits.setVisible(true);
 			jPanelLimits.add(getJPanelLowerLimit(), gridBagConstraints);
 			jPanelLimits.add(getJPanelUpperLimit(), gridBagConstraints1);
+			GridBagConstraints gridBagConstraints5 = new GridBagConstraints();
+			gridBagConstraints5.insets = new Insets(0, 5, 0, 0);
+			gridBagConstraints5.gridy = 0;
+			gridBagConstraints5.gridx = 2;
+			jPanelLimits.add(getJPanelBinWidth(), gridBagConstraints5);
 		}
 		return jPanelLimits;
 	}
@@ -533,6 +905,62 @@ public class ChartFrame extends JFrame {
 		return jPanelLowerLimit;
 	}
 
+	/**
+	 * Initializes the panel that contains a <code>TextField</code> to define
+	 * a fixed bin width for this <code>ChartFrame</code>.
+	 * 
+	 * @return the panel
+	 */
+	private JPanel getJPanelBinWidth() {
+		BorderLayout borderLayout3 = new BorderLayout();
+		borderLayout3.setHgap(1);
+		borderLayout3.setVgap(1);
+		JPanel jPanelBinWidth = new JPanel();
+		jPanelBinWidth.setLayout(borderLayout3);
+		JTextArea jTextAreaBinWidth = new JTextArea();
+		jTextAreaBinWidth.setText("Bin width:");
+		jTextAreaBinWidth.setEditable(false);
+		jTextAreaBinWidth.setBackground(new Color(238, 238, 238));
+		jPanelBinWidth.add(jTextAreaBinWidth, BorderLayout.WEST);
+		jPanelBinWidth.add(getJTextFieldBinWidth(), BorderLayout.CENTER);
+		return jPanelBinWidth;
+	}
+
+	/**
+	 * Initializes the <code>jTextFieldBinWidth</code> that defines a fixed
+	 * bin width for this <code>ChartFrame</code>.
+	 * 
+	 * @return the <code>jTextFieldBinWidth</code>
+	 */
+	private JTextField getJTextFieldBinWidth() {
+		if (jTextFieldBinWidth == null) {
+			jTextFieldBinWidth = new JTextField();
+			jTextFieldBinWidth.setPreferredSize(new Dimension(60, 20));
+			jTextFieldBinWidth.setMinimumSize(new Dimension(60, 20));
+			jTextFieldBinWidth
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							try {
+								double binWidth = Double
+										.parseDouble(replaceCommas(jTextFieldBinWidth
+												.getText()));
+								if (binWidth > 0) {
+									jTextFieldBinWidth.setText("" + binWidth);
+									updateChart();
+								} else
+									jTextFieldBinWidth.setText("<?>");
+							} catch (NumberFormatException nfeBinWidth) {
+								if (jTextFieldBinWidth.getText().isEmpty())
+									updateChart();
+								else
+									jTextFieldBinWidth.setText("<?>");
+							}
+						}
+					});
+		}
+		return jTextFieldBinWidth;
+	}
+
 	/**
 	 * Initializes the <code>jTextAreaUpperLimit</code> that provides a
 	 * description for the corresponding <code>jTextFieldUpperLimit</code>.
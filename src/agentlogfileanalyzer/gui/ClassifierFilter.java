@@ -0,0 +1,315 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.util.Vector;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * A filter selecting classifiers of a classifier set. The filter consists of
+ * terms separated by blanks; a classifier is selected if it fits all terms. A
+ * term is either
+ * <ul>
+ * <li>a comparison of a numeric column with a number, e.g.
+ * <code>Fitness&gt;0.5</code> or <code>Prediction&lt;=100</code>
+ * (operators <code>&lt;</code>, <code>&lt;=</code>, <code>&gt;</code>,
+ * <code>&gt;=</code>, <code>=</code>),</li>
+ * <li>a range of a numeric column, e.g. <code>Fitness=0.2..0.8</code>
+ * (both limits included), or</li>
+ * <li>a pattern for the condition, e.g. <code>1#0*</code> (see
+ * <code>ConditionIndex.matchPattern()</code>).</li>
+ * </ul>
+ * Comparisons use the cached sort permutation of the column if available and
+ * otherwise scan the parsed column once; patterns use the condition index of
+ * the classifier set. The result is a bit set of the selected rows.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+class ClassifierFilter {
+
+	/**
+	 * Syntax of a comparison or range
+	 */
+	private static final Pattern COMPARISON = Pattern
+			.compile("(\\w+)(<=|>=|<|>|=)(.+)");
+
+	/**
+	 * Syntax of a condition pattern
+	 */
+	private static final Pattern CONDITION_PATTERN = Pattern
+			.compile("[01#*]+");
+
+	/**
+	 * Names of the compared columns
+	 */
+	private Vector<String> columns;
+
+	/**
+	 * Lower limits of the compared columns
+	 */
+	private Vector<Double> lowerLimits;
+
+	/**
+	 * Upper limits of the compared columns
+	 */
+	private Vector<Double> upperLimits;
+
+	/**
+	 * <code>true</code> if the lower limit is included
+	 */
+	private Vector<Boolean> lowerIncluded;
+
+	/**
+	 * <code>true</code> if the upper limit is included
+	 */
+	private Vector<Boolean> upperIncluded;
+
+	/**
+	 * Patterns for the condition
+	 */
+	private Vector<String> conditionPatterns;
+
+	/**
+	 * Parses a filter.
+	 * 
+	 * @param _filter
+	 *            the filter
+	 * @throws IllegalArgumentException
+	 *             if the filter contains an invalid term
+	 */
+	ClassifierFilter(String _filter) {
+		columns = new Vector<String>();
+		lowerLimits = new Vector<Double>();
+		upperLimits = new Vector<Double>();
+		lowerIncluded = new Vector<Boolean>();
+		upperIncluded = new Vector<Boolean>();
+		conditionPatterns = new Vector<String>();
+
+		String filter = _filter.trim();
+		if (filter.length() == 0)
+			return;
+		String[] terms = filter.split("\\s+");
+		for (int i = 0; i < terms.length; i++) {
+			if (CONDITION_PATTERN.matcher(terms[i]).matches()) {
+				conditionPatterns.add(terms[i]);
+				continue;
+			}
+			Matcher comparison = COMPARISON.matcher(terms[i]);
+			if (!comparison.matches())
+				throw new IllegalArgumentException("Invalid term: "
+						+ terms[i]);
+			String operator = comparison.group(2);
+			String value = comparison.group(3);
+			double lower = Double.NEGATIVE_INFINITY;
+			double upper = Double.POSITIVE_INFINITY;
+			boolean includeLower = true;
+			boolean includeUpper = true;
+			try {
+				int range = value.indexOf("..");
+				if (operator.equals("=") && range >= 0) {
+					lower = Double.parseDouble(value.substring(0, range));
+					upper = Double.parseDouble(value.substring(range + 2));
+				} else {
+					double number = Double.parseDouble(value);
+					if (operator.startsWith("<")) {
+						upper = number;
+						includeUpper = operator.equals("<=");
+					} else if (operator.startsWith(">")) {
+						lower = number;
+						includeLower = operator.equals(">=");
+					} else {
+						lower = number;
+						upper = number;
+					}
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid number: "
+						+ terms[i]);
+			}
+			columns.add(comparison.group(1));
+			lowerLimits.add(Double.valueOf(lower));
+			upperLimits.add(Double.valueOf(upper));
+			lowerIncluded.add(Boolean.valueOf(includeLower));
+			upperIncluded.add(Boolean.valueOf(includeUpper));
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if this filter selects all classifiers.
+	 * 
+	 * @return <code>true</code> if this filter contains no terms
+	 */
+	boolean isEmpty() {
+		return columns.isEmpty() && conditionPatterns.isEmpty();
+	}
+
+	/**
+	 * Selects the classifiers of a classifier set fitting this filter.
+	 * 
+	 * @param _element
+	 *            the iteration
+	 * @param _tableId
+	 *            identifier of the classifier set
+	 * @return a bit set of the selected rows (row <code>r</code> is bit
+	 *         <code>r % 64</code> of word <code>r / 64</code>), or
+	 *         <code>null</code> if this filter selects all classifiers
+	 * @throws IllegalArgumentException
+	 *             if a compared column does not exist or is not numeric
+	 */
+	long[] select(DataElement _element, int _tableId) {
+		if (isEmpty())
+			return null;
+		ClassifierTableModel model = _element.getTableModel(_tableId);
+		int rows = model.getRowCount();
+		long[] result = new long[(rows + 63) / 64];
+		for (int row = 0; row < rows; row++)
+			result[row >> 6] |= 1L << (row & 63);
+
+		for (int i = 0; i < columns.size(); i++) {
+			int column = findColumn(model, columns.get(i));
+			if (!model.isNumericColumn(column))
+				throw new IllegalArgumentException("Column "
+						+ model.getColumnName(column) + " is not numeric");
+			and(result, selectRange(model, column, lowerLimits.get(i)
+					.doubleValue(), lowerIncluded.get(i).booleanValue(),
+					upperLimits.get(i).doubleValue(), upperIncluded.get(i)
+							.booleanValue()));
+		}
+		for (int i = 0; i < conditionPatterns.size(); i++)
+			and(result, _element.getConditionIndex(_tableId).matchPattern(
+					conditionPatterns.get(i)));
+		return result;
+	}
+
+	/**
+	 * Returns the column with the given name (ignoring case).
+	 * 
+	 * @param _model
+	 *            the model
+	 * @param _name
+	 *            the name of the column
+	 * @return the column
+	 * @throws IllegalArgumentException
+	 *             if the column does not exist
+	 */
+	private static int findColumn(ClassifierTableModel _model, String _name) {
+		for (int column = 0; column < _model.getColumnCount(); column++) {
+			if (_model.getColumnName(column).equalsIgnoreCase(_name))
+				return column;
+		}
+		throw new IllegalArgumentException("Unknown column: " + _name);
+	}
+
+	/**
+	 * Selects the rows whose value in a numeric column is within a range. If
+	 * the sort permutation of the column is cached, the limits are searched
+	 * in the sorted values; otherwise all values are compared.
+	 * 
+	 * @param _model
+	 *            the model
+	 * @param _column
+	 *            the numeric column
+	 * @param _lower
+	 *            the lower limit
+	 * @param _includeLower
+	 *            <code>true</code> if the lower limit is included
+	 * @param _upper
+	 *            the upper limit
+	 * @param _includeUpper
+	 *            <code>true</code> if the upper limit is included
+	 * @return a bit set of the selected rows
+	 */
+	private static long[] selectRange(ClassifierTableModel _model,
+			int _column, double _lower, boolean _includeLower, double _upper,
+			boolean _includeUpper) {
+		double[] values = _model.getSortKeys(_column);
+		long[] result = new long[(values.length + 63) / 64];
+		if (_model.hasSortPermutation(_column)) {
+			int[] sorted;
+			try {
+				sorted = _model.getSortPermutation(_column);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return result;
+			}
+			int from = search(values, sorted, _lower, !_includeLower);
+			int to = search(values, sorted, _upper, _includeUpper);
+			for (int i = from; i < to; i++)
+				result[sorted[i] >> 6] |= 1L << (sorted[i] & 63);
+		} else {
+			for (int row = 0; row < values.length; row++) {
+				double value = values[row];
+				if ((_includeLower ? value >= _lower : value > _lower)
+						&& (_includeUpper ? value <= _upper : value < _upper))
+					result[row >> 6] |= 1L << (row & 63);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Searches a limit in the sorted values of a column.
+	 * 
+	 * @param _values
+	 *            the values of the column
+	 * @param _sorted
+	 *            the rows in ascending order of the values
+	 * @param _limit
+	 *            the searched limit
+	 * @param _skipEqual
+	 *            <code>true</code> to skip values equal to the limit
+	 * @return the first position in <code>_sorted</code> whose value is
+	 *         greater than (<code>_skipEqual</code>) or at least (otherwise)
+	 *         the limit
+	 */
+	private static int search(double[] _values, int[] _sorted, double _limit,
+			boolean _skipEqual) {
+		int low = 0;
+		int high = _sorted.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			double value = _values[_sorted[middle]];
+			if (value < _limit || (_skipEqual && value == _limit))
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Intersects two bit sets.
+	 * 
+	 * @param _result
+	 *            the first bit set; receives the intersection
+	 * @param _other
+	 *            the second bit set
+	 */
+	private static void and(long[] _result, long[] _other) {
+		for (int word = 0; word < _result.length; word++)
+			_result[word] &= word < _other.length ? _other[word] : 0;
+	}
+}
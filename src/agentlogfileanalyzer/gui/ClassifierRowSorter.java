@@ -0,0 +1,457 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.Cursor;
+import java.util.*;
+
+import javax.swing.*;
+import javax.swing.table.TableColumnModel;
+
+import agentlogfileanalyzer.ClassifierTableModel;
+import agentlogfileanalyzer.IndexSort;
+
+/**
+ * Sorts and filters the rows of a <code>ClassifierTableModel</code>. Rows are
+ * sorted by one column and filtered by a bit set of visible rows. The
+ * sort permutations are computed from primitive sort keys and cached by the
+ * model, so sorting an iteration again is immediate. The sorter keeps its
+ * sort keys when it is given the model of another iteration.
+ * <p>
+ * Permutations of large models (see <code>IndexSort.PARALLEL_THRESHOLD</code>)
+ * are computed in parallel in the background. Meanwhile the header of the
+ * sorted column shows "sorting..." and the rows keep their order; the new
+ * order and sort keys are applied together when the sort is done.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+class ClassifierRowSorter extends RowSorter<ClassifierTableModel> {
+
+	/**
+	 * The table using this sorter
+	 */
+	private JTable table;
+
+	/**
+	 * The sorted model
+	 */
+	private ClassifierTableModel model;
+
+	/**
+	 * The current sort keys; at most one key is used
+	 */
+	private List<SortKey> sortKeys;
+
+	/**
+	 * Bit set of the visible rows; <code>null</code> if all rows are visible
+	 */
+	private long[] filter;
+
+	/**
+	 * Model positions of the view rows; <code>null</code> if the rows are not
+	 * sorted or filtered
+	 */
+	private int[] viewToModel;
+
+	/**
+	 * View positions of the model rows (<code>-1</code> for hidden rows);
+	 * <code>null</code> if the rows are not sorted or filtered
+	 */
+	private int[] modelToView;
+
+	/**
+	 * Computes a sort permutation in the background; <code>null</code> if no
+	 * computation is running
+	 */
+	private SortWorker sortWorker = null;
+
+	/**
+	 * Creates a sorter for a model of a table. The rows are not sorted.
+	 * 
+	 * @param _table
+	 *            the table using this sorter
+	 * @param _model
+	 *            the sorted model
+	 */
+	ClassifierRowSorter(JTable _table, ClassifierTableModel _model) {
+		this.table = _table;
+		this.model = _model;
+		this.sortKeys = Collections.emptyList();
+	}
+
+	/**
+	 * Returns the sorter of a table. The sorter is created on first use and
+	 * stored in the table.
+	 * 
+	 * @param _table
+	 *            the table
+	 * @param _model
+	 *            the model of the table
+	 * @return the sorter of the table
+	 */
+	static ClassifierRowSorter getRowSorter(JTable _table,
+			ClassifierTableModel _model) {
+		ClassifierRowSorter sorter = (ClassifierRowSorter) _table
+				.getClientProperty(ClassifierRowSorter.class);
+		if (sorter == null) {
+			sorter = new ClassifierRowSorter(_table, _model);
+			_table.putClientProperty(ClassifierRowSorter.class, sorter);
+		}
+		return sorter;
+	}
+
+	/**
+	 * Replaces the sorted model and sorts its rows by the current sort keys.
+	 * The filter is removed. Must only be called while the sorter is not
+	 * installed in a table. If the rows must be sorted in the background,
+	 * they are unsorted until the sort is done.
+	 * 
+	 * @param _model
+	 *            the new model
+	 */
+	void setModel(ClassifierTableModel _model) {
+		cancelSort();
+		this.model = _model;
+		this.filter = null;
+		List<SortKey> keys = sortKeys;
+		if (!keys.isEmpty() && keys.get(0).getColumn() >= model.getColumnCount())
+			keys = Collections.emptyList();
+		if (needsBackgroundSort(keys)) {
+			sortKeys = Collections.emptyList();
+			viewToModel = null;
+			modelToView = null;
+			sortInBackground(keys);
+		} else {
+			sortKeys = keys;
+			sort();
+		}
+	}
+
+	/**
+	 * Shows only the given rows.
+	 * 
+	 * @param _filter
+	 *            bit set of the visible rows (row <code>r</code> is bit
+	 *            <code>r % 64</code> of word <code>r / 64</code>);
+	 *            <code>null</code> to show all rows
+	 */
+	void setFilter(long[] _filter) {
+		int[] oldViewToModel = getViewToModel();
+		this.filter = _filter;
+		sort();
+		fireRowSorterChanged(oldViewToModel);
+	}
+
+	@Override
+	public ClassifierTableModel getModel() {
+		return model;
+	}
+
+	@Override
+	public void toggleSortOrder(int _column) {
+		SortOrder order = SortOrder.ASCENDING;
+		List<? extends SortKey> keys = sortKeys;
+		if (sortWorker != null)
+			keys = sortWorker.keys;
+		if (!keys.isEmpty() && keys.get(0).getColumn() == _column
+				&& keys.get(0).getSortOrder() == SortOrder.ASCENDING)
+			order = SortOrder.DESCENDING;
+		setSortKeys(Collections.singletonList(new SortKey(_column, order)));
+	}
+
+	@Override
+	public int convertRowIndexToModel(int _index) {
+		if (viewToModel == null) {
+			if (_index < 0 || _index >= model.getRowCount())
+				throw new IndexOutOfBoundsException("Invalid index: "
+						+ _index);
+			return _index;
+		}
+		return viewToModel[_index];
+	}
+
+	@Override
+	public int convertRowIndexToView(int _index) {
+		if (modelToView == null) {
+			if (_index < 0 || _index >= model.getRowCount())
+				throw new IndexOutOfBoundsException("Invalid index: "
+						+ _index);
+			return _index;
+		}
+		return modelToView[_index];
+	}
+
+	@Override
+	public void setSortKeys(List<? extends SortKey> _keys) {
+		List<SortKey> keys = Collections.emptyList();
+		if (_keys != null && !_keys.isEmpty()
+				&& _keys.get(0).getSortOrder() != SortOrder.UNSORTED)
+			keys = Collections.singletonList((SortKey) _keys.get(0));
+		if (sortWorker != null && !keys.isEmpty()
+				&& sortWorker.column == keys.get(0).getColumn()) {
+			// The column is already being sorted; only the direction applied
+			// when the sort is done changes...
+			sortWorker.keys = keys;
+			return;
+		}
+		cancelSort();
+		if (keys.equals(sortKeys))
+			return;
+		if (needsBackgroundSort(keys))
+			sortInBackground(keys);
+		else
+			applySortKeys(keys);
+	}
+
+	@Override
+	public List<? extends SortKey> getSortKeys() {
+		return sortKeys;
+	}
+
+	@Override
+	public int getViewRowCount() {
+		return viewToModel == null ? model.getRowCount() : viewToModel.length;
+	}
+
+	@Override
+	public int getModelRowCount() {
+		return model.getRowCount();
+	}
+
+	@Override
+	public void modelStructureChanged() {
+		sort();
+	}
+
+	@Override
+	public void allRowsChanged() {
+		sort();
+	}
+
+	@Override
+	public void rowsInserted(int _firstRow, int _endRow) {
+		sort();
+	}
+
+	@Override
+	public void rowsDeleted(int _firstRow, int _endRow) {
+		sort();
+	}
+
+	@Override
+	public void rowsUpdated(int _firstRow, int _endRow) {
+	}
+
+	@Override
+	public void rowsUpdated(int _firstRow, int _endRow, int _column) {
+	}
+
+	/**
+	 * Returns a copy of the model positions of the view rows.
+	 * 
+	 * @return the model positions of the view rows, or <code>null</code> if
+	 *         the rows are not sorted
+	 */
+	private int[] getViewToModel() {
+		return viewToModel == null ? null : viewToModel.clone();
+	}
+
+	/**
+	 * Sets the sort keys and sorts the rows. Notifies the listeners of the
+	 * sorter.
+	 * 
+	 * @param _keys
+	 *            the new sort keys
+	 */
+	private void applySortKeys(List<SortKey> _keys) {
+		boolean keysChanged = !_keys.equals(sortKeys);
+		sortKeys = _keys;
+		if (keysChanged)
+			fireSortOrderChanged();
+		int[] oldViewToModel = getViewToModel();
+		sort();
+		fireRowSorterChanged(oldViewToModel);
+	}
+
+	/**
+	 * Returns <code>true</code> if sorting by the given keys takes long and
+	 * is done in the background.
+	 * 
+	 * @param _keys
+	 *            the sort keys
+	 * @return <code>true</code> if the rows are sorted in the background
+	 */
+	private boolean needsBackgroundSort(List<SortKey> _keys) {
+		return !_keys.isEmpty()
+				&& model.getRowCount() >= IndexSort.PARALLEL_THRESHOLD
+				&& !model.hasSortPermutation(_keys.get(0).getColumn());
+	}
+
+	/**
+	 * Computes the sort permutation for the given keys in the background and
+	 * applies the keys when it is done.
+	 * 
+	 * @param _keys
+	 *            the new sort keys
+	 */
+	private void sortInBackground(List<SortKey> _keys) {
+		sortWorker = new SortWorker(model, _keys);
+		showSorting(_keys.get(0).getColumn());
+		sortWorker.execute();
+	}
+
+	/**
+	 * Stops waiting for a sort running in the background. The computation
+	 * finishes anyway, so its permutation is cached by the model.
+	 */
+	private void cancelSort() {
+		if (sortWorker != null) {
+			sortWorker.cancel(false);
+			sortWorker = null;
+			showSorting(-1);
+		}
+	}
+
+	/**
+	 * Marks the header of the column that is being sorted.
+	 * 
+	 * @param _column
+	 *            the column in the model; <code>-1</code> to remove the mark
+	 */
+	private void showSorting(int _column) {
+		if (table.getModel() != model)
+			return;
+		TableColumnModel columnModel = table.getColumnModel();
+		for (int i = 0; i < columnModel.getColumnCount(); i++) {
+			int modelColumn = columnModel.getColumn(i).getModelIndex();
+			String name = model.getColumnName(modelColumn);
+			columnModel.getColumn(i).setHeaderValue(
+					modelColumn == _column ? name + " (sorting\u2026)" : name);
+		}
+		if (table.getTableHeader() != null)
+			table.getTableHeader().repaint();
+		table.setCursor(_column < 0 ? null : Cursor
+				.getPredefinedCursor(Cursor.WAIT_CURSOR));
+	}
+
+	/**
+	 * Sorts the rows of the model by the current sort keys using the cached
+	 * sort permutation of the model and removes the rows hidden by the
+	 * filter. Only called if the permutation can be computed quickly or is
+	 * cached.
+	 */
+	private void sort() {
+		int rows = model.getRowCount();
+		int[] order = null;
+		if (!sortKeys.isEmpty()) {
+			SortKey key = sortKeys.get(0);
+			try {
+				order = model.getSortPermutation(key.getColumn());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (order != null && key.getSortOrder() == SortOrder.DESCENDING) {
+				int[] descending = new int[rows];
+				for (int i = 0; i < rows; i++)
+					descending[i] = order[rows - 1 - i];
+				order = descending;
+			}
+		}
+		if (order == null && filter == null) {
+			viewToModel = null;
+			modelToView = null;
+			return;
+		}
+
+		int visible = rows;
+		if (filter != null) {
+			visible = 0;
+			for (int word = 0; word < filter.length; word++)
+				visible += Long.bitCount(filter[word]);
+		}
+		viewToModel = new int[visible];
+		modelToView = new int[rows];
+		Arrays.fill(modelToView, -1);
+		int view = 0;
+		for (int i = 0; i < rows; i++) {
+			int row = order == null ? i : order[i];
+			if (filter == null || (filter[row >> 6] & (1L << (row & 63))) != 0) {
+				viewToModel[view] = row;
+				modelToView[row] = view++;
+			}
+		}
+	}
+
+	/**
+	 * Computes the sort permutation of a model in the background.
+	 */
+	private class SortWorker extends SwingWorker<int[], Object> {
+
+		/**
+		 * The sorted model
+		 */
+		private ClassifierTableModel sortedModel;
+
+		/**
+		 * The sorted column
+		 */
+		private final int column;
+
+		/**
+		 * The sort keys applied when the permutation is computed; may be
+		 * changed to another direction of the sorted column while the worker
+		 * is running
+		 */
+		private List<SortKey> keys;
+
+		/**
+		 * Creates a worker sorting a model by the given keys.
+		 * 
+		 * @param _sortedModel
+		 *            the sorted model
+		 * @param _keys
+		 *            the sort keys
+		 */
+		SortWorker(ClassifierTableModel _sortedModel, List<SortKey> _keys) {
+			this.sortedModel = _sortedModel;
+			this.column = _keys.get(0).getColumn();
+			this.keys = _keys;
+		}
+
+		@Override
+		protected int[] doInBackground() throws Exception {
+			return sortedModel.getSortPermutation(column);
+		}
+
+		@Override
+		protected void done() {
+			if (isCancelled() || sortWorker != this || sortedModel != model)
+				return;
+			sortWorker = null;
+			showSorting(-1);
+			// The permutation is cached now, so the keys are applied at
+			// once...
+			applySortKeys(keys);
+		}
+	}
+}
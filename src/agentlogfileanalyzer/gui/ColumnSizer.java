@@ -0,0 +1,157 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.util.HashMap;
+
+import javax.swing.JTable;
+import javax.swing.table.*;
+
+import agentlogfileanalyzer.ClassifierTableModel;
+
+/**
+ * Sizes the columns of a table to fit the header and the contents. The width
+ * of a column is estimated from its longest cell: only this cell is measured
+ * by the cell renderer. The longest cell of a
+ * <code>ClassifierTableModel</code> is found once and kept with the model; for
+ * other models, a bounded sample of rows is compared. Widths are cached per
+ * column name, so a column is only measured again if the length of its
+ * longest cell changes.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+class ColumnSizer {
+
+	/**
+	 * Maximum number of rows compared for models other than a
+	 * <code>ClassifierTableModel</code>
+	 */
+	static final int SAMPLE_SIZE = 256;
+
+	/**
+	 * The sized table
+	 */
+	private JTable table;
+
+	/**
+	 * Length of the longest cell and the width per column name
+	 */
+	private HashMap<String, int[]> widths;
+
+	/**
+	 * Creates a sizer for the columns of a table.
+	 * 
+	 * @param _table
+	 *            the sized table
+	 */
+	ColumnSizer(JTable _table) {
+		this.table = _table;
+		this.widths = new HashMap<String, int[]>();
+	}
+
+	/**
+	 * Returns the sizer of a table. The sizer is created on first use and
+	 * stored in the table.
+	 * 
+	 * @param _table
+	 *            the table
+	 * @return the sizer of the table
+	 */
+	static ColumnSizer getColumnSizer(JTable _table) {
+		ColumnSizer sizer = (ColumnSizer) _table
+				.getClientProperty(ColumnSizer.class);
+		if (sizer == null) {
+			sizer = new ColumnSizer(_table);
+			_table.putClientProperty(ColumnSizer.class, sizer);
+		}
+		return sizer;
+	}
+
+	/**
+	 * Sets the preferred widths of all visible columns to the maximum of the
+	 * header and the content width.
+	 */
+	void resize() {
+		TableModel model = table.getModel();
+		TableColumnModel columnModel = table.getColumnModel();
+		for (int i = 0; i < columnModel.getColumnCount(); i++) {
+			TableColumn column = columnModel.getColumn(i);
+			int modelColumn = column.getModelIndex();
+			Object longestCell = getLongestCell(model, modelColumn);
+			int length = longestCell == null ? 0 : longestCell.toString()
+					.length();
+
+			String name = model.getColumnName(modelColumn);
+			int[] cached = widths.get(name);
+			if (cached == null || cached[0] != length) {
+				// Use headerRenderer to calculate header-size
+				TableCellRenderer headerRenderer = table.getTableHeader()
+						.getDefaultRenderer();
+				int headerWidth = headerRenderer.getTableCellRendererComponent(
+						null, column.getHeaderValue(), false, false, 0, 0)
+						.getPreferredSize().width;
+				int cellWidth = 0;
+				if (longestCell != null)
+					cellWidth = table.getDefaultRenderer(
+							model.getColumnClass(modelColumn))
+							.getTableCellRendererComponent(table, longestCell,
+									false, false, 0, i).getPreferredSize().width;
+				cached = new int[] { length,
+						Math.max(headerWidth, cellWidth) + 3 };
+				widths.put(name, cached);
+			}
+			column.setPreferredWidth(cached[1]);
+		}
+	}
+
+	/**
+	 * Returns the cell of a column with the longest text.
+	 * 
+	 * @param _model
+	 *            the model containing the column
+	 * @param _column
+	 *            the column in the model
+	 * @return the cell with the longest text, or <code>null</code> if the
+	 *         column contains no cells
+	 */
+	private static Object getLongestCell(TableModel _model, int _column) {
+		Object longestCell = null;
+		int longestLength = -1;
+		if (_model instanceof ClassifierTableModel) {
+			int row = ((ClassifierTableModel) _model).getLongestRow(_column);
+			if (row >= 0)
+				longestCell = _model.getValueAt(row, _column);
+		} else {
+			int rows = _model.getRowCount();
+			int step = Math.max(1, rows / SAMPLE_SIZE);
+			for (int row = 0; row < rows; row += step) {
+				Object cell = _model.getValueAt(row, _column);
+				if (cell != null && cell.toString().length() > longestLength) {
+					longestCell = cell;
+					longestLength = longestCell.toString().length();
+				}
+			}
+		}
+		return longestCell;
+	}
+}
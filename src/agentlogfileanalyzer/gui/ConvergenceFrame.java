@@ -0,0 +1,114 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.Color;
+
+import javax.swing.JFrame;
+
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.CombinedDomainXYPlot;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.xy.DefaultXYDataset;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Provides a frame showing the convergence of the population over a complete
+ * run: the estimated number of distinct conditions and the estimated Jaccard
+ * similarity of the conditions of consecutive iterations. Both metrics are
+ * calculated while the log-file is read.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class ConvergenceFrame extends JFrame {
+
+	/**
+	 * Creates a frame showing the convergence of the population.
+	 *
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 */
+	public ConvergenceFrame(DataMemory _dataMemory) {
+		super("Convergence");
+
+		int size = _dataMemory.size();
+		double[][] distinct = new double[2][size];
+		double[][] similarity = new double[2][size];
+		for (int i = 0; i < size; i++) {
+			DataElement element = _dataMemory.getElement(i);
+			distinct[0][i] = element.getIteration();
+			distinct[1][i] = element.getDistinctConditions();
+			similarity[0][i] = element.getIteration();
+			similarity[1][i] = element.getConditionSimilarity();
+		}
+
+		DefaultXYDataset distinctDataset = new DefaultXYDataset();
+		distinctDataset.addSeries("distinct conditions", distinct);
+		DefaultXYDataset similarityDataset = new DefaultXYDataset();
+		similarityDataset.addSeries("similarity to previous iteration",
+				similarity);
+
+		CombinedDomainXYPlot plot = new CombinedDomainXYPlot(new NumberAxis(
+				"iteration"));
+		plot.add(createPlot(distinctDataset, "distinct conditions"));
+		plot.add(createPlot(similarityDataset, "Jaccard similarity"));
+
+		JFreeChart chart = new JFreeChart("Convergence of the population",
+				JFreeChart.DEFAULT_TITLE_FONT, plot, false);
+		setContentPane(new ChartPanel(chart));
+		setSize(640, 480);
+	}
+
+	/**
+	 * Creates a subplot of the convergence chart.
+	 *
+	 * @param _dataset
+	 *            the data shown in the subplot
+	 * @param _label
+	 *            label of the y axis
+	 * @return the subplot
+	 */
+	private XYPlot createPlot(DefaultXYDataset _dataset, String _label) {
+		NumberAxis rangeAxis = new NumberAxis(_label);
+		rangeAxis.setAutoRangeIncludesZero(false);
+		XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true,
+				false);
+		XYPlot plot = new XYPlot(_dataset, null, rangeAxis, renderer);
+		plot.setBackgroundPaint(Color.white);
+		plot.setDomainGridlinePaint(Color.lightGray);
+		plot.setRangeGridlinePaint(Color.lightGray);
+		return plot;
+	}
+
+	/**
+	 * Displays this frame on the screen.
+	 */
+	public void display() {
+		setVisible(true);
+	}
+}
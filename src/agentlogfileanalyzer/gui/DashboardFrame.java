@@ -0,0 +1,264 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.*;
+import java.util.Vector;
+
+import javax.swing.*;
+
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.histogram.*;
+
+/**
+ * Provides a frame showing the histograms of all columns and all registered
+ * histograms for the current iteration in a grid. The histograms of all
+ * columns are computed in a single pass over the classifier set.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class DashboardFrame extends JFrame {
+
+	/**
+	 * Number of charts per row of the grid
+	 */
+	private static final int COLUMNS = 3;
+
+	/**
+	 * <code>TableFrame</code> that opened this frame
+	 */
+	private TableFrame myTableFrame;
+
+	/**
+	 * All histograms shown in this frame
+	 */
+	private AbstractHistogram[] histograms;
+
+	/**
+	 * Selects the classifier set displayed in this frame.
+	 */
+	private JComboBox jComboBoxTableSelector = null;
+
+	/**
+	 * Shows the iteration and the computation time.
+	 */
+	private JLabel jLabelStatus = null;
+
+	/**
+	 * Contains the charts.
+	 */
+	private JPanel jPanelCharts = null;
+
+	/**
+	 * Charts of the histograms; created for the first bins with data and
+	 * updated in place afterwards
+	 */
+	private JFreeChart[] charts = null;
+
+	/**
+	 * Panels showing the <code>charts</code>
+	 */
+	private ChartPanel[] chartPanels = null;
+
+	/**
+	 * Computes the histograms in the background; <code>null</code> if no
+	 * computation is running
+	 */
+	private SwingWorker<HistogramBins[], Object> dashboardWorker = null;
+
+	/**
+	 * Creates a dashboard for the current iteration of a
+	 * <code>TableFrame</code>.
+	 * 
+	 * @param _myTableFrame
+	 *            <code>TableFrame</code> that opened this frame
+	 */
+	DashboardFrame(TableFrame _myTableFrame) {
+		super("Dashboard");
+		this.myTableFrame = _myTableFrame;
+		// One UniversalHistogram per column followed by all other available
+		// histograms...
+		Vector<AbstractHistogram> dashboardHistograms = new Vector<AbstractHistogram>();
+		String[] columnNames = LogFileAnalyzer.getInstance().getColumnNames();
+		for (int i = 0; i < columnNames.length; i++) {
+			dashboardHistograms.add(new UniversalHistogram(columnNames[i]));
+		}
+		Vector<AbstractHistogram> availableHistograms = ChartFrame
+				.getAvailableHistograms();
+		for (int i = 0; i < availableHistograms.size(); i++) {
+			if (!dashboardHistograms.contains(availableHistograms.get(i)))
+				dashboardHistograms.add(availableHistograms.get(i));
+		}
+		this.histograms = dashboardHistograms
+				.toArray(new AbstractHistogram[dashboardHistograms.size()]);
+		this.charts = new JFreeChart[histograms.length];
+		this.chartPanels = new ChartPanel[histograms.length];
+
+		jComboBoxTableSelector = new JComboBox(new String[] { "Population",
+				"Match Set", "Action Set" });
+		jComboBoxTableSelector
+				.addItemListener(new java.awt.event.ItemListener() {
+					public void itemStateChanged(java.awt.event.ItemEvent e) {
+						if (e.getStateChange() == java.awt.event.ItemEvent.SELECTED)
+							loadNewDataSet();
+					}
+				});
+		JPanel jPanelControls = new JPanel();
+		jPanelControls.add(jComboBoxTableSelector);
+
+		jPanelCharts = new JPanel(new GridLayout(0, COLUMNS, 2, 2));
+		for (int i = 0; i < histograms.length; i++)
+			jPanelCharts.add(new JPanel());
+
+		jLabelStatus = new JLabel(" ");
+
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jPanelControls, BorderLayout.NORTH);
+		jPanelContentpane.add(jPanelCharts, BorderLayout.CENTER);
+		jPanelContentpane.add(jLabelStatus, BorderLayout.SOUTH);
+		setContentPane(jPanelContentpane);
+		setSize(900, 200 + 220 * ((histograms.length + COLUMNS - 1) / COLUMNS));
+		setLocation(myTableFrame.getLocation().x + 20, myTableFrame
+				.getLocation().y + 20);
+
+		addWindowListener(new java.awt.event.WindowAdapter() {
+			public void windowClosing(java.awt.event.WindowEvent e) {
+				myTableFrame.removeDashboardFrame(DashboardFrame.this);
+				dispose();
+			}
+		});
+	}
+
+	/**
+	 * Displays this frame on the screen and shows the current iteration.
+	 */
+	public void display() {
+		setVisible(true);
+		loadNewDataSet();
+	}
+
+	/**
+	 * Returns <code>true</code> if the histograms of the latest update are
+	 * still being computed.
+	 * 
+	 * @return <code>true</code> if a computation is running
+	 */
+	boolean isUpdating() {
+		return dashboardWorker != null;
+	}
+
+	/**
+	 * Updates this frame with the current <code>DataElement</code> of the
+	 * <code>TableFrame</code>. The histograms are computed in the background;
+	 * a running computation is cancelled.
+	 */
+	void loadNewDataSet() {
+		final DataElement element = myTableFrame.getCurrentElement();
+		final int selectedTable = jComboBoxTableSelector.getSelectedIndex();
+		if (dashboardWorker != null) {
+			dashboardWorker.cancel(true);
+			dashboardWorker = null;
+		}
+		if (element == null)
+			return;
+
+		setTitle("Dashboard: " + jComboBoxTableSelector.getSelectedItem());
+		dashboardWorker = new SwingWorker<HistogramBins[], Object>() {
+			private long millis;
+
+			@Override
+			protected HistogramBins[] doInBackground() throws Exception {
+				long start = System.currentTimeMillis();
+				HistogramBins[] bins = HistogramScan.calculateBins(element
+						.getClassifierSet(selectedTable), histograms,
+						Binning.DEFAULT);
+				millis = System.currentTimeMillis() - start;
+				return bins;
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled() || dashboardWorker != this)
+					return;
+				dashboardWorker = null;
+				HistogramBins[] bins;
+				try {
+					bins = get();
+				} catch (Exception e) {
+					e.printStackTrace();
+					return;
+				}
+
+				// Update the charts in place; only replaced panels require a
+				// new layout...
+				boolean replaced = false;
+				for (int i = 0; i < histograms.length; i++) {
+					JComponent component;
+					if (bins[i] != null && bins[i].getNumberOfValues() > 0) {
+						if (charts[i] == null) {
+							charts[i] = histograms[i].createChart(bins[i]);
+							chartPanels[i] = new ChartPanel(charts[i]);
+						} else {
+							histograms[i].updateChart(charts[i], bins[i]);
+						}
+						component = chartPanels[i];
+					} else if (bins[i] != null) {
+						component = histograms[i].createHistogram(bins[i]);
+					} else {
+						component = histograms[i].createUnsupportedDataPanel();
+					}
+					if (jPanelCharts.getComponent(i) != component) {
+						jPanelCharts.remove(i);
+						jPanelCharts.add(component, i);
+						replaced = true;
+					}
+				}
+				if (replaced) {
+					jPanelCharts.revalidate();
+					jPanelCharts.repaint();
+				}
+				jLabelStatus.setText("iteration: " + element.getIteration()
+						+ "   # classifiers: "
+						+ element.getClassifierSet(selectedTable).getRowCount()
+						+ "   (" + millis + " ms)");
+			}
+		};
+		LogFileAnalyzer.getInstance().getWorkerPool().execute(dashboardWorker);
+	}
+
+	/**
+	 * Closes this frame and cancels a running computation.
+	 */
+	@Override
+	public void dispose() {
+		if (dashboardWorker != null) {
+			dashboardWorker.cancel(true);
+			dashboardWorker = null;
+		}
+		super.dispose();
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.*;
+
+import javax.swing.*;
+import javax.swing.table.*;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Provides a frame showing the differences of a classifier set between two
+ * iterations. Inserted classifiers are shown in green, deleted classifiers in
+ * red, and changed classifiers in yellow.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class DiffFrame extends JFrame {
+
+	/**
+	 * Background color of inserted classifiers
+	 */
+	private static final Color COLOR_INSERTED = new Color(200, 240, 200);
+
+	/**
+	 * Background color of deleted classifiers
+	 */
+	private static final Color COLOR_DELETED = new Color(245, 200, 200);
+
+	/**
+	 * Background color of changed classifiers
+	 */
+	private static final Color COLOR_CHANGED = new Color(250, 240, 180);
+
+	/**
+	 * Creates a frame showing the differences of a classifier set between two
+	 * iterations.
+	 *
+	 * @param _diff
+	 *            the differences that will be displayed
+	 * @param _tableName
+	 *            name of the compared classifier set
+	 * @param _millis
+	 *            time in milliseconds needed to compute the differences
+	 */
+	public DiffFrame(ClassifierSetDiff _diff, String _tableName, long _millis) {
+		super("Differences: " + _tableName + " " + _diff.getFromIteration()
+				+ " -> " + _diff.getToIteration());
+
+		JTable jTableDiff = new JTable(_diff.createTableModel()) {
+			// Cells are not editable...
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+		};
+		jTableDiff.setDefaultRenderer(Object.class, new DiffCellRenderer());
+		jTableDiff.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+		for (int i = 0; i < jTableDiff.getColumnCount(); i++)
+			jTableDiff.getColumnModel().getColumn(i).setPreferredWidth(
+					i == 1 ? 150 : 110);
+
+		TableRowSorter<TableModel> sorter = new TableRowSorter<TableModel>(
+				jTableDiff.getModel());
+		for (int i = 0; i < jTableDiff.getModel().getColumnCount(); i++)
+			sorter.setComparator(i, new TableElementComparator());
+		jTableDiff.setRowSorter(sorter);
+
+		JLabel jLabelSummary = new JLabel(_diff.getNumberOfInserted()
+				+ " inserted, " + _diff.getNumberOfDeleted() + " deleted, "
+				+ _diff.getNumberOfChanged() + " changed (computed in "
+				+ _millis + " ms)");
+
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jLabelSummary, BorderLayout.NORTH);
+		jPanelContentpane.add(new JScrollPane(jTableDiff), BorderLayout.CENTER);
+		setContentPane(jPanelContentpane);
+		setSize(640, 380);
+	}
+
+	/**
+	 * Displays this frame on the screen.
+	 */
+	public void display() {
+		setVisible(true);
+	}
+
+	/**
+	 * Colors the rows of the difference table according to the status of the
+	 * classifier.
+	 */
+	private static class DiffCellRenderer extends DefaultTableCellRenderer {
+
+		/*
+		 * Comment available in superclass.
+		 */
+		@Override
+		public Component getTableCellRendererComponent(JTable table,
+				Object value, boolean isSelected, boolean hasFocus, int row,
+				int column) {
+			Component c = super.getTableCellRendererComponent(table, value,
+					isSelected, hasFocus, row, column);
+			if (!isSelected) {
+				Object status = table.getModel().getValueAt(
+						table.convertRowIndexToModel(row), 0);
+				if (ClassifierSetDiff.INSERTED.equals(status))
+					c.setBackground(COLOR_INSERTED);
+				else if (ClassifierSetDiff.DELETED.equals(status))
+					c.setBackground(COLOR_DELETED);
+				else
+					c.setBackground(COLOR_CHANGED);
+			}
+			return c;
+		}
+	}
+}
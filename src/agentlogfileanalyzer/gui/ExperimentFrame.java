@@ -0,0 +1,278 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.*;
+import java.io.File;
+import java.util.Vector;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+import org.jfree.chart.*;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Provides a frame comparing the learning curves of several experiments.
+ * Every experiment consists of several runs whose log-files are read
+ * concurrently. For the selected metric, the frame shows the mean across all
+ * runs of an experiment and its 95% confidence band.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class ExperimentFrame extends JFrame {
+
+	/**
+	 * All experiments shown in this frame
+	 */
+	private Vector<ExperimentSession> sessions;
+
+	/**
+	 * Selects the metric displayed in this frame.
+	 */
+	private JComboBox jComboBoxMetricSelector = null;
+
+	/**
+	 * Opens the log-files of another experiment.
+	 */
+	private JButton jButtonAddExperiment = null;
+
+	/**
+	 * Shows the state of this frame (e.g. while log-files are read).
+	 */
+	private JLabel jLabelStatus = null;
+
+	/**
+	 * Contains the chart.
+	 */
+	private ChartPanel chartPanel = null;
+
+	/**
+	 * Directory of the last opened log-files
+	 */
+	private File logFilePath;
+
+	/**
+	 * Creates a new frame comparing the learning curves of experiments.
+	 *
+	 * @param _logFilePath
+	 *            directory used in the "Open"-dialog
+	 */
+	ExperimentFrame(File _logFilePath) {
+		super("Experiment comparison");
+		this.sessions = new Vector<ExperimentSession>();
+		this.logFilePath = _logFilePath;
+
+		JPanel jPanelControls = new JPanel();
+		jPanelControls.add(getJComboBoxMetricSelector());
+		jPanelControls.add(getJButtonAddExperiment());
+
+		jLabelStatus = new JLabel(" ");
+
+		chartPanel = new ChartPanel(createChart());
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jPanelControls, BorderLayout.NORTH);
+		jPanelContentpane.add(chartPanel, BorderLayout.CENTER);
+		jPanelContentpane.add(jLabelStatus, BorderLayout.SOUTH);
+		setContentPane(jPanelContentpane);
+		setSize(640, 420);
+	}
+
+	/**
+	 * Displays this frame on the screen and asks for the log-files of the
+	 * first experiment.
+	 */
+	public void display() {
+		setVisible(true);
+		addExperiment();
+	}
+
+	/**
+	 * Initializes the <code>jComboBoxMetricSelector</code> that selects the
+	 * metric displayed in this frame.
+	 *
+	 * @return the <code>jComboBoxMetricSelector</code>
+	 */
+	private JComboBox getJComboBoxMetricSelector() {
+		if (jComboBoxMetricSelector == null) {
+			// Until runs are read, only the sizes are known to be numeric...
+			jComboBoxMetricSelector = new JComboBox(RunSummary
+					.getMetricNames(new DefaultTableModel()));
+			jComboBoxMetricSelector
+					.addItemListener(new java.awt.event.ItemListener() {
+						public void itemStateChanged(java.awt.event.ItemEvent e) {
+							chartPanel.setChart(createChart());
+						}
+					});
+		}
+		return jComboBoxMetricSelector;
+	}
+
+	/**
+	 * Initializes the <code>jButtonAddExperiment</code>. On click the
+	 * log-files of another experiment are opened.
+	 *
+	 * @return the <code>jButtonAddExperiment</code>
+	 */
+	private JButton getJButtonAddExperiment() {
+		if (jButtonAddExperiment == null) {
+			jButtonAddExperiment = new JButton("Add experiment");
+			jButtonAddExperiment
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							addExperiment();
+						}
+					});
+		}
+		return jButtonAddExperiment;
+	}
+
+	/**
+	 * Asks for the log-files of an experiment and reads them in the
+	 * background.
+	 */
+	private void addExperiment() {
+		JFileChooser chooser = TableFrame.createLogFileChooser(logFilePath);
+		chooser.setMultiSelectionEnabled(true);
+		chooser.setDialogTitle("Select all runs of an experiment");
+		if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+		logFilePath = chooser.getCurrentDirectory();
+
+		final File[] logFiles = chooser.getSelectedFiles();
+		String name = JOptionPane.showInputDialog(this, "Experiment name:",
+				"Experiment " + (sessions.size() + 1));
+		if (name == null)
+			return;
+
+		final ExperimentSession session = new ExperimentSession(name,
+				logFiles);
+		jButtonAddExperiment.setEnabled(false);
+		jLabelStatus.setText("Reading " + logFiles.length + " runs of '"
+				+ name + "'...");
+
+		new SwingWorker<Object, Object>() {
+			@Override
+			protected Object doInBackground() throws Exception {
+				session.readData(LogFileAnalyzer.getInstance()
+						.getImportThreads(), ExperimentSession.DEFAULT_CAPACITY);
+				return null;
+			}
+
+			@Override
+			protected void done() {
+				jButtonAddExperiment.setEnabled(true);
+				try {
+					get();
+				} catch (Exception e) {
+					// The session is incomplete, do not show it...
+					Throwable cause = e.getCause() != null ? e.getCause() : e;
+					jLabelStatus.setText("Runs of '" + session.getName()
+							+ "' could not be read: " + cause.getMessage());
+					e.printStackTrace();
+					return;
+				}
+				sessions.add(session);
+				updateMetricSelector();
+				jLabelStatus.setText(session.getRuns().size() + " of "
+						+ logFiles.length + " runs of '" + session.getName()
+						+ "' read.");
+				chartPanel.setChart(createChart());
+			}
+		}.execute();
+	}
+
+	/**
+	 * Offers the metrics that were recorded for all runs of all experiments
+	 * in the <code>jComboBoxMetricSelector</code>. The selected metric is
+	 * kept if it is still offered.
+	 */
+	private void updateMetricSelector() {
+		Object selected = jComboBoxMetricSelector.getSelectedItem();
+		String[] metricNames = RunSummary.getMetricNames();
+		Vector<String> offered = new Vector<String>();
+		for (int metric = 0; metric < metricNames.length; metric++) {
+			boolean recorded = true;
+			for (int i = 0; i < sessions.size() && recorded; i++)
+				recorded = sessions.get(i).hasMetric(metric);
+			if (recorded)
+				offered.add(metricNames[metric]);
+		}
+		jComboBoxMetricSelector.setModel(new DefaultComboBoxModel(offered));
+		if (offered.contains(selected))
+			jComboBoxMetricSelector.setSelectedItem(selected);
+	}
+
+	/**
+	 * Creates a chart showing the mean and confidence band of the selected
+	 * metric for every experiment.
+	 *
+	 * @return the chart
+	 */
+	private JFreeChart createChart() {
+		String metricName = (String) jComboBoxMetricSelector.getSelectedItem();
+		int metric = RunSummary.getMetricIndex(metricName);
+
+		YIntervalSeriesCollection dataset = new YIntervalSeriesCollection();
+		for (int i = 0; i < sessions.size(); i++) {
+			CrossRunStatistics statistics = sessions.get(i).getStatistics(
+					metric);
+			YIntervalSeries series = new YIntervalSeries(sessions.get(i)
+					.getName());
+			for (int bucket = 0; bucket < statistics.size(); bucket++) {
+				if (statistics.getNumberOfRuns(bucket) > 0)
+					series.add(statistics.getIteration(bucket), statistics
+							.getMean(bucket), statistics
+							.getLowerBound(bucket), statistics
+							.getUpperBound(bucket));
+			}
+			dataset.addSeries(series);
+		}
+
+		JFreeChart chart = ChartFactory.createXYLineChart(metricName, // title
+				"iteration", // x axis label
+				metricName, // y axis label
+				dataset, // data
+				PlotOrientation.VERTICAL, // orientation
+				true, // legend
+				true, // tooltips
+				false // URL
+				);
+
+		DeviationRenderer renderer = new DeviationRenderer(true, false);
+		renderer.setAlpha(0.25f);
+		XYPlot plot = (XYPlot) chart.getPlot();
+		plot.setRenderer(renderer);
+		plot.setBackgroundPaint(Color.white);
+		plot.setDomainGridlinePaint(Color.lightGray);
+		plot.setRangeGridlinePaint(Color.lightGray);
+		return chart;
+	}
+}
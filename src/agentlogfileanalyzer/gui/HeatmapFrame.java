@@ -0,0 +1,281 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.*;
+import java.util.Vector;
+
+import javax.swing.*;
+
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.PaintScale;
+import org.jfree.chart.renderer.xy.XYBlockRenderer;
+import org.jfree.chart.title.PaintScaleLegend;
+import org.jfree.data.xy.DefaultXYZDataset;
+import org.jfree.ui.RectangleAnchor;
+import org.jfree.ui.RectangleEdge;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.histogram.*;
+
+/**
+ * Provides a frame showing the distribution of a histogram's values over a
+ * complete run as heatmap: iterations on the x axis, value bins on the y axis
+ * and the mean number of classifiers per iteration as color. The iterations
+ * are grouped into one bucket per pixel of the chart.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class HeatmapFrame extends JFrame {
+
+	/**
+	 * Number of value bins of the heatmap
+	 */
+	private static final int NUMBER_OF_BINS = 50;
+
+	/**
+	 * Contains all iterations of the run
+	 */
+	private DataMemory dataMemory;
+
+	/**
+	 * Selects the classifier set displayed in this frame.
+	 */
+	private JComboBox jComboBoxTableSelector = null;
+
+	/**
+	 * Selects the histogram displayed in this frame.
+	 */
+	private JComboBox jComboBoxHistogramSelector = null;
+
+	/**
+	 * Shows the state of the computation.
+	 */
+	private JLabel jLabelStatus = null;
+
+	/**
+	 * Contains the heatmap.
+	 */
+	private ChartPanel chartPanel = null;
+
+	/**
+	 * Computes the heatmap in the background; <code>null</code> if no
+	 * computation is running
+	 */
+	private SwingWorker<HistogramHeatmap, Object> heatmapWorker = null;
+
+	/**
+	 * Creates a frame showing heatmaps of a run.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 */
+	HeatmapFrame(DataMemory _dataMemory) {
+		super("Heatmap");
+		this.dataMemory = _dataMemory;
+
+		java.awt.event.ItemListener selectionListener = new java.awt.event.ItemListener() {
+			public void itemStateChanged(java.awt.event.ItemEvent e) {
+				if (e.getStateChange() == java.awt.event.ItemEvent.SELECTED)
+					updateHeatmap();
+			}
+		};
+		jComboBoxTableSelector = new JComboBox(new String[] { "Population",
+				"Match Set", "Action Set" });
+		jComboBoxTableSelector.addItemListener(selectionListener);
+		jComboBoxHistogramSelector = new JComboBox(ChartFrame
+				.getAvailableHistograms());
+		jComboBoxHistogramSelector.setMaximumRowCount(10);
+		jComboBoxHistogramSelector.addItemListener(selectionListener);
+
+		JPanel jPanelControls = new JPanel();
+		jPanelControls.add(jComboBoxTableSelector);
+		jPanelControls.add(jComboBoxHistogramSelector);
+
+		jLabelStatus = new JLabel(" ");
+		chartPanel = new ChartPanel(null);
+
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jPanelControls, BorderLayout.NORTH);
+		jPanelContentpane.add(chartPanel, BorderLayout.CENTER);
+		jPanelContentpane.add(jLabelStatus, BorderLayout.SOUTH);
+		setContentPane(jPanelContentpane);
+		setSize(800, 480);
+	}
+
+	/**
+	 * Displays this frame on the screen and computes the first heatmap.
+	 */
+	public void display() {
+		setVisible(true);
+		updateHeatmap();
+	}
+
+	/**
+	 * Computes the heatmap for the selected classifier set and histogram in
+	 * the background. A running computation is cancelled.
+	 */
+	private void updateHeatmap() {
+		final AbstractHistogram histogram = (AbstractHistogram) jComboBoxHistogramSelector
+				.getSelectedItem();
+		final int selectedTable = jComboBoxTableSelector.getSelectedIndex();
+		if (histogram == null)
+			return;
+		if (heatmapWorker != null)
+			heatmapWorker.cancel(true);
+
+		// One iteration bucket per pixel...
+		final int numberOfBuckets = Math.max(100, chartPanel.getWidth());
+		final String title = jComboBoxTableSelector.getSelectedItem() + " - "
+				+ histogram;
+		setTitle("Heatmap: " + title);
+		jLabelStatus.setText("Computing heatmap of " + dataMemory.size()
+				+ " iterations...");
+
+		heatmapWorker = new SwingWorker<HistogramHeatmap, Object>() {
+			private long millis;
+
+			@Override
+			protected HistogramHeatmap doInBackground() throws Exception {
+				long start = System.currentTimeMillis();
+				HistogramHeatmap heatmap = new HistogramHeatmap(dataMemory,
+						histogram, selectedTable, numberOfBuckets,
+						NUMBER_OF_BINS);
+				millis = System.currentTimeMillis() - start;
+				return heatmap;
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled() || heatmapWorker != this)
+					return;
+				heatmapWorker = null;
+				try {
+					HistogramHeatmap heatmap = get();
+					chartPanel.setChart(createChart(heatmap, title));
+					jLabelStatus.setText(dataMemory.size() + " iterations in "
+							+ heatmap.getNumberOfBuckets() + " buckets ("
+							+ millis + " ms)");
+				} catch (Exception e) {
+					chartPanel.setChart(null);
+					if (e.getCause() instanceof NumberFormatException)
+						jLabelStatus.setText(histogram
+								+ " cannot be displayed as histogram.");
+					else
+						e.printStackTrace();
+				}
+			}
+		};
+		heatmapWorker.execute();
+	}
+
+	/**
+	 * Creates the chart of a heatmap.
+	 * 
+	 * @param _heatmap
+	 *            the heatmap
+	 * @param _title
+	 *            title of the chart
+	 * @return the chart
+	 */
+	private JFreeChart createChart(HistogramHeatmap _heatmap, String _title) {
+		int buckets = _heatmap.getNumberOfBuckets();
+		int bins = _heatmap.getNumberOfBins();
+		double[][] data = new double[3][buckets * bins];
+		double maximum = 0;
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			for (int bin = 0; bin < bins; bin++) {
+				int item = bucket * bins + bin;
+				data[0][item] = _heatmap.getIteration(bucket);
+				data[1][item] = _heatmap.getBinStart(bin);
+				data[2][item] = _heatmap.getMeanCount(bucket, bin);
+				maximum = Math.max(maximum, data[2][item]);
+			}
+		}
+		DefaultXYZDataset dataset = new DefaultXYZDataset();
+		dataset.addSeries("classifiers", data);
+
+		XYBlockRenderer renderer = new XYBlockRenderer();
+		renderer.setBlockAnchor(RectangleAnchor.BOTTOM_LEFT);
+		renderer.setBlockWidth((_heatmap.getEndIteration() - _heatmap
+				.getIteration(0))
+				/ buckets);
+		renderer.setBlockHeight(_heatmap.getBinWidth());
+		HeatPaintScale paintScale = new HeatPaintScale(Math.max(maximum,
+				Double.MIN_VALUE));
+		renderer.setPaintScale(paintScale);
+
+		NumberAxis xAxis = new NumberAxis("iteration");
+		xAxis.setAutoRangeIncludesZero(false);
+		xAxis.setLowerMargin(0);
+		xAxis.setUpperMargin(0);
+		NumberAxis yAxis = new NumberAxis(_title);
+		yAxis.setAutoRangeIncludesZero(false);
+		yAxis.setLowerMargin(0);
+		yAxis.setUpperMargin(0);
+		XYPlot plot = new XYPlot(dataset, xAxis, yAxis, renderer);
+		plot.setBackgroundPaint(Color.white);
+		plot.setDomainGridlinesVisible(false);
+		plot.setRangeGridlinesVisible(false);
+
+		JFreeChart chart = new JFreeChart(_title,
+				JFreeChart.DEFAULT_TITLE_FONT, plot, false);
+		PaintScaleLegend legend = new PaintScaleLegend(paintScale,
+				new NumberAxis("classifiers per iteration"));
+		legend.setPosition(RectangleEdge.RIGHT);
+		legend.setMargin(4, 4, 4, 4);
+		chart.addSubtitle(legend);
+		return chart;
+	}
+
+	/**
+	 * Maps counts to colors from white (no classifiers) to dark blue (most
+	 * classifiers).
+	 */
+	private static class HeatPaintScale implements PaintScale {
+
+		private double upperBound;
+
+		HeatPaintScale(double _upperBound) {
+			this.upperBound = _upperBound;
+		}
+
+		public double getLowerBound() {
+			return 0;
+		}
+
+		public double getUpperBound() {
+			return upperBound;
+		}
+
+		public Paint getPaint(double _value) {
+			double share = Math.max(0, Math.min(1, _value / upperBound));
+			return new Color((int) (255 - 235 * share),
+					(int) (255 - 205 * share), (int) (255 - 105 * share));
+		}
+	}
+}
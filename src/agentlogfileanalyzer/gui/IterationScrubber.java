@@ -0,0 +1,319 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.sketch.RunSeries;
+
+/**
+ * A timeline of all iterations below the controls of the
+ * <code>TableFrame</code>. The timeline shows an overview of a selected
+ * metric as sparkline and marks the current iteration. Pressing or dragging
+ * the mouse on the timeline navigates to the iteration below the pointer;
+ * the <code>TableFrame</code> coalesces the navigation events, so scrubbing
+ * across long runs stays fluid.
+ * <p>
+ * The sparkline is downsampled to one bucket per pixel from the
+ * <code>RunSeries</code> of the metric, which is computed once in the
+ * background.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+class IterationScrubber extends JPanel {
+
+	/**
+	 * Height of the timeline in pixels
+	 */
+	private static final int HEIGHT = 28;
+
+	/**
+	 * <code>TableFrame</code> navigated by this scrubber
+	 */
+	private TableFrame myTableFrame;
+
+	/**
+	 * Contains all iterations; <code>null</code> if no log-file is loaded
+	 */
+	private DataMemory dataMemory = null;
+
+	/**
+	 * Position of the current iteration in the <code>dataMemory</code>
+	 */
+	private int currentIndex = -1;
+
+	/**
+	 * Selects the metric shown in the sparkline.
+	 */
+	private JComboBox jComboBoxMetric = null;
+
+	/**
+	 * Paints the sparkline and handles the mouse.
+	 */
+	private JComponent timeline = null;
+
+	/**
+	 * The series of the selected metric; <code>null</code> while it is
+	 * computed
+	 */
+	private RunSeries runSeries = null;
+
+	/**
+	 * Positions of the downsampled series
+	 */
+	private int[] positions = null;
+
+	/**
+	 * Width of the timeline the <code>positions</code> were sampled for
+	 */
+	private int sampledWidth = -1;
+
+	/**
+	 * Smallest value of the <code>positions</code>
+	 */
+	private double minimum;
+
+	/**
+	 * Largest value of the <code>positions</code>
+	 */
+	private double maximum;
+
+	/**
+	 * Computes the series in the background; <code>null</code> if no
+	 * computation is running
+	 */
+	private SwingWorker<RunSeries, Object> seriesWorker = null;
+
+	/**
+	 * Creates a scrubber for a <code>TableFrame</code>.
+	 * 
+	 * @param _myTableFrame
+	 *            <code>TableFrame</code> navigated by this scrubber
+	 */
+	IterationScrubber(TableFrame _myTableFrame) {
+		super(new BorderLayout(2, 0));
+		this.myTableFrame = _myTableFrame;
+
+		// Until a run is shown, only the sizes are known to be numeric...
+		jComboBoxMetric = new JComboBox(RunSummary
+				.getMetricNames(new DefaultTableModel()));
+		jComboBoxMetric.setMaximumRowCount(10);
+		jComboBoxMetric.setToolTipText("Metric shown in the timeline");
+		jComboBoxMetric.addItemListener(new java.awt.event.ItemListener() {
+			public void itemStateChanged(java.awt.event.ItemEvent e) {
+				if (e.getStateChange() == java.awt.event.ItemEvent.SELECTED)
+					updateSeries();
+			}
+		});
+
+		timeline = new JComponent() {
+			protected void paintComponent(Graphics g) {
+				paintTimeline((Graphics2D) g);
+			}
+		};
+		timeline.setPreferredSize(new Dimension(200, HEIGHT));
+		timeline.setToolTipText("Press or drag to navigate");
+		MouseAdapter mouseAdapter = new MouseAdapter() {
+			public void mousePressed(MouseEvent e) {
+				navigate(e.getX());
+			}
+
+			public void mouseDragged(MouseEvent e) {
+				navigate(e.getX());
+			}
+		};
+		timeline.addMouseListener(mouseAdapter);
+		timeline.addMouseMotionListener(mouseAdapter);
+
+		add(jComboBoxMetric, BorderLayout.WEST);
+		add(timeline, BorderLayout.CENTER);
+	}
+
+	/**
+	 * Shows the iterations of another run. The series of the selected metric
+	 * is computed in the background.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 */
+	void setDataMemory(DataMemory _dataMemory) {
+		// Offer the metrics that are numeric in the run; the selected metric
+		// is kept if possible...
+		this.dataMemory = null;
+		DataElement last = _dataMemory == null ? null : _dataMemory
+				.getLastElement();
+		if (last != null) {
+			Object selected = jComboBoxMetric.getSelectedItem();
+			jComboBoxMetric.setModel(new DefaultComboBoxModel(RunSummary
+					.getMetricNames(last.getPopulation())));
+			jComboBoxMetric.setSelectedItem(selected);
+		}
+
+		this.dataMemory = _dataMemory;
+		this.currentIndex = -1;
+		updateSeries();
+	}
+
+	/**
+	 * Marks the current iteration.
+	 * 
+	 * @param _element
+	 *            the current <code>DataElement</code>
+	 */
+	void setCurrentElement(DataElement _element) {
+		int index = (dataMemory == null || _element == null) ? -1 : dataMemory
+				.indexOf(_element);
+		if (index != currentIndex) {
+			currentIndex = index;
+			timeline.repaint();
+		}
+	}
+
+	/**
+	 * Computes the series of the selected metric in the background. A
+	 * running computation is cancelled.
+	 */
+	private void updateSeries() {
+		if (seriesWorker != null) {
+			seriesWorker.cancel(true);
+			seriesWorker = null;
+		}
+		runSeries = null;
+		positions = null;
+		timeline.repaint();
+		final DataMemory memory = dataMemory;
+		final int metric = RunSummary.getMetricIndex((String) jComboBoxMetric
+				.getSelectedItem());
+		if (memory == null || memory.size() == 0 || metric < 0)
+			return;
+
+		runSeries = RunSeries.lookup(memory, metric);
+		if (runSeries != null)
+			return;
+		seriesWorker = new SwingWorker<RunSeries, Object>() {
+			@Override
+			protected RunSeries doInBackground() throws Exception {
+				return RunSeries.getRunSeries(memory, metric);
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled() || seriesWorker != this)
+					return;
+				seriesWorker = null;
+				try {
+					runSeries = get();
+					timeline.repaint();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		};
+		seriesWorker.execute();
+	}
+
+	/**
+	 * Navigates the <code>TableFrame</code> to the iteration below a position
+	 * of the timeline.
+	 * 
+	 * @param _x
+	 *            horizontal position on the timeline
+	 */
+	private void navigate(int _x) {
+		if (dataMemory == null || dataMemory.size() == 0)
+			return;
+		int size = dataMemory.size();
+		int index = (int) ((long) _x * size / Math.max(1, timeline.getWidth()));
+		myTableFrame.showElementAt(Math.max(0, Math.min(size - 1, index)));
+	}
+
+	/**
+	 * Paints the sparkline and the marker of the current iteration.
+	 * 
+	 * @param _g
+	 *            the graphics context of the timeline
+	 */
+	private void paintTimeline(Graphics2D _g) {
+		int width = timeline.getWidth();
+		int height = timeline.getHeight();
+		_g.setColor(Color.white);
+		_g.fillRect(0, 0, width, height);
+		_g.setColor(Color.lightGray);
+		_g.drawRect(0, 0, width - 1, height - 1);
+		if (dataMemory == null || dataMemory.size() == 0)
+			return;
+		int size = dataMemory.size();
+
+		if (runSeries != null) {
+			if (positions == null || sampledWidth != width)
+				sample(width);
+			_g.setColor(Color.gray);
+			int lastX = 0;
+			int lastY = 0;
+			for (int i = 0; i < positions.length; i++) {
+				int x = (int) ((long) positions[i] * width / size);
+				// Constant series are drawn in the middle...
+				int y = height / 2;
+				if (maximum > minimum)
+					y = height - 3
+							- (int) ((runSeries.getValue(positions[i]) - minimum)
+									/ (maximum - minimum) * (height - 6));
+				if (i > 0)
+					_g.drawLine(lastX, lastY, x, y);
+				lastX = x;
+				lastY = y;
+			}
+		}
+
+		if (currentIndex >= 0) {
+			int x = (int) ((long) currentIndex * width / size);
+			_g.setColor(Color.red);
+			_g.drawLine(x, 0, x, height - 1);
+		}
+	}
+
+	/**
+	 * Downsamples the series to one bucket per pixel of the timeline.
+	 * 
+	 * @param _width
+	 *            width of the timeline
+	 */
+	private void sample(int _width) {
+		positions = runSeries.downsample(0, runSeries.size(), Math.max(1,
+				_width));
+		sampledWidth = _width;
+		minimum = Double.POSITIVE_INFINITY;
+		maximum = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < positions.length; i++) {
+			minimum = Math.min(minimum, runSeries.getValue(positions[i]));
+			maximum = Math.max(maximum, runSeries.getValue(positions[i]));
+		}
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.BorderLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.matching.*;
+
+/**
+ * Provides a frame that shows the classifiers of the population matching an
+ * arbitrary input. The query can be answered for the current iteration (the
+ * matching classifiers are listed) or for all iterations (the number of
+ * matching classifiers is listed per iteration). Queries use the
+ * <code>ConditionIndex</code> of every <code>DataElement</code>.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class MatchQueryFrame extends JFrame {
+
+	/**
+	 * <code>TableFrame</code> that opened this frame
+	 */
+	private TableFrame myTableFrame;
+
+	/**
+	 * Contains all iterations
+	 */
+	private DataMemory dataMemory;
+
+	/**
+	 * The input that is matched
+	 */
+	private JTextField jTextFieldInput = null;
+
+	/**
+	 * Selects whether all iterations are queried.
+	 */
+	private JCheckBox jCheckBoxAllIterations = null;
+
+	/**
+	 * Shows the query result.
+	 */
+	private JTable jTableResult = null;
+
+	/**
+	 * Shows the number of results and the query time.
+	 */
+	private JLabel jLabelStatus = null;
+
+	/**
+	 * Iterations of the rows of the result table if all iterations were
+	 * queried
+	 */
+	private double[] resultIterations = null;
+
+	/**
+	 * Creates a frame for match queries.
+	 *
+	 * @param _myTableFrame
+	 *            <code>TableFrame</code> that opened this frame
+	 * @param _dataMemory
+	 *            contains all iterations
+	 * @param _input
+	 *            the initial input
+	 */
+	MatchQueryFrame(TableFrame _myTableFrame, DataMemory _dataMemory,
+			String _input) {
+		super("Matching classifiers");
+		this.myTableFrame = _myTableFrame;
+		this.dataMemory = _dataMemory;
+
+		jTextFieldInput = new JTextField(_input, 20);
+		jTextFieldInput.addActionListener(new java.awt.event.ActionListener() {
+			public void actionPerformed(java.awt.event.ActionEvent e) {
+				query();
+			}
+		});
+		jCheckBoxAllIterations = new JCheckBox("all iterations");
+		jCheckBoxAllIterations
+				.addItemListener(new java.awt.event.ItemListener() {
+					public void itemStateChanged(java.awt.event.ItemEvent e) {
+						query();
+					}
+				});
+		JButton jButtonMatch = new JButton("Match");
+		jButtonMatch.addActionListener(new java.awt.event.ActionListener() {
+			public void actionPerformed(java.awt.event.ActionEvent e) {
+				query();
+			}
+		});
+
+		JPanel jPanelControls = new JPanel();
+		jPanelControls.add(new JLabel("input"));
+		jPanelControls.add(jTextFieldInput);
+		jPanelControls.add(jCheckBoxAllIterations);
+		jPanelControls.add(jButtonMatch);
+
+		jTableResult = new JTable() {
+			// Cells are not editable...
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+		};
+		jTableResult.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		jTableResult.addMouseListener(new MouseAdapter() {
+			public void mouseClicked(MouseEvent e) {
+				int row = jTableResult.getSelectedRow();
+				if (e.getClickCount() == 2 && row > -1
+						&& resultIterations != null)
+					myTableFrame.showIteration(resultIterations[row]);
+			}
+		});
+
+		jLabelStatus = new JLabel(" ");
+
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jPanelControls, BorderLayout.NORTH);
+		jPanelContentpane.add(new JScrollPane(jTableResult),
+				BorderLayout.CENTER);
+		jPanelContentpane.add(jLabelStatus, BorderLayout.SOUTH);
+		setContentPane(jPanelContentpane);
+		setSize(560, 360);
+	}
+
+	/**
+	 * Displays this frame on the screen and answers the initial query.
+	 */
+	public void display() {
+		setVisible(true);
+		query();
+	}
+
+	/**
+	 * Answers the query for the current input.
+	 */
+	private void query() {
+		final TernaryCondition input = TernaryCondition
+				.parseInput(jTextFieldInput.getText());
+		if (input == null) {
+			jLabelStatus.setText("The input must consist of 0s and 1s.");
+			return;
+		}
+		if (jCheckBoxAllIterations.isSelected())
+			queryAllIterations(input);
+		else
+			queryCurrentIteration(input);
+	}
+
+	/**
+	 * Lists the classifiers of the current population matching the input.
+	 *
+	 * @param _input
+	 *            the encoded input
+	 */
+	private void queryCurrentIteration(TernaryCondition _input) {
+		DataElement element = myTableFrame.getCurrentElement();
+		if (element == null)
+			return;
+		DefaultTableModel population = element.getPopulation();
+
+		long start = System.nanoTime();
+		int[] rows = element.getConditionIndex(DataElement.POPULATION).match(
+				_input);
+		long micros = (System.nanoTime() - start) / 1000;
+
+		DefaultTableModel result = new DefaultTableModel(0, population
+				.getColumnCount());
+		String[] columnNames = new String[population.getColumnCount()];
+		for (int column = 0; column < columnNames.length; column++)
+			columnNames[column] = population.getColumnName(column);
+		result.setColumnIdentifiers(columnNames);
+		for (int i = 0; i < rows.length; i++) {
+			Object[] row = new Object[columnNames.length];
+			for (int column = 0; column < row.length; column++)
+				row[column] = population.getValueAt(rows[i], column);
+			result.addRow(row);
+		}
+		resultIterations = null;
+		jTableResult.setModel(result);
+		jLabelStatus.setText(rows.length + " of " + population.getRowCount()
+				+ " classifiers match in iteration " + element.getIteration()
+				+ " (" + micros + " \u00b5s)");
+	}
+
+	/**
+	 * Lists the number of matching classifiers for every iteration. The
+	 * iterations are queried in parallel in the background.
+	 *
+	 * @param _input
+	 *            the encoded input
+	 */
+	private void queryAllIterations(final TernaryCondition _input) {
+		final int size = dataMemory.size();
+		final int[] matches = new int[size];
+		jLabelStatus.setText("Matching " + size + " iterations...");
+
+		new SwingWorker<Long, Object>() {
+			@Override
+			protected Long doInBackground() throws Exception {
+				long start = System.currentTimeMillis();
+				dataMemory.processInParallel(0, size,
+						new IterationRangeProcessor() {
+							public void process(int _fromIndex, int _toIndex) {
+								// Building an index per iteration would cost
+								// more than testing the conditions once...
+								HashMap<String, TernaryCondition> cache = new HashMap<String, TernaryCondition>();
+								for (int i = _fromIndex; i < _toIndex; i++) {
+									DataElement element = dataMemory
+											.getElement(i);
+									ConditionIndex index = element
+											.getCachedConditionIndex(DataElement.POPULATION);
+									matches[i] = index != null ? index
+											.match(_input).length
+											: ConditionIndex.countMatches(
+													element.getPopulation(),
+													_input, cache);
+								}
+							}
+						});
+				return Long.valueOf(System.currentTimeMillis() - start);
+			}
+
+			@Override
+			protected void done() {
+				try {
+					long millis = get().longValue();
+					String[] columnNames = { "Iteration", "# classifiers",
+							"# matching" };
+					DefaultTableModel result = new DefaultTableModel(
+							columnNames, 0);
+					resultIterations = new double[size];
+					for (int i = 0; i < size; i++) {
+						DataElement element = dataMemory.getElement(i);
+						resultIterations[i] = element.getIteration();
+						result.addRow(new Object[] {
+								"" + element.getIteration(),
+								"" + element.getPopulation().getRowCount(),
+								"" + matches[i] });
+					}
+					jTableResult.setModel(result);
+					jLabelStatus.setText(size + " iterations matched in "
+							+ millis + " ms");
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		}.execute();
+	}
+}
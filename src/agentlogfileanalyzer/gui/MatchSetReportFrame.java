@@ -0,0 +1,109 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.BorderLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Vector;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+import agentlogfileanalyzer.matching.MatchSetMismatch;
+
+/**
+ * Provides a frame listing all iterations whose logged match set differs from
+ * the match set recomputed from the population and the LCS input. A double
+ * click on an iteration shows it in the <code>TableFrame</code>.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class MatchSetReportFrame extends JFrame {
+
+	/**
+	 * Creates a frame listing match set mismatches.
+	 *
+	 * @param _myTableFrame
+	 *            <code>TableFrame</code> showing the iterations
+	 * @param _mismatches
+	 *            the mismatches
+	 * @param _numberOfSkipped
+	 *            number of iterations that could not be validated
+	 * @param _millis
+	 *            time in milliseconds needed for the validation
+	 */
+	MatchSetReportFrame(final TableFrame _myTableFrame,
+			final Vector<MatchSetMismatch> _mismatches, int _numberOfSkipped,
+			long _millis) {
+		super("Match set validation");
+
+		String[] columnNames = { "Iteration", "Input", "# missing",
+				"# unexpected", "Missing", "Unexpected" };
+		DefaultTableModel model = new DefaultTableModel(columnNames, 0);
+		for (int i = 0; i < _mismatches.size(); i++) {
+			MatchSetMismatch mismatch = _mismatches.get(i);
+			model.addRow(new Object[] { "" + mismatch.getIteration(),
+					mismatch.getInput(), "" + mismatch.getMissing().size(),
+					"" + mismatch.getUnexpected().size(),
+					mismatch.getMissing().toString(),
+					mismatch.getUnexpected().toString() });
+		}
+
+		final JTable jTableMismatches = new JTable(model) {
+			// Cells are not editable...
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+		};
+		jTableMismatches.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		jTableMismatches.addMouseListener(new MouseAdapter() {
+			public void mouseClicked(MouseEvent e) {
+				int row = jTableMismatches.getSelectedRow();
+				if (e.getClickCount() == 2 && row > -1)
+					_myTableFrame.showIteration(_mismatches.get(row)
+							.getIteration());
+			}
+		});
+
+		JLabel jLabelSummary = new JLabel(_mismatches.size()
+				+ " iterations with incorrect match sets, " + _numberOfSkipped
+				+ " iterations not validated (validated in " + _millis
+				+ " ms)");
+
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jLabelSummary, BorderLayout.NORTH);
+		jPanelContentpane.add(new JScrollPane(jTableMismatches),
+				BorderLayout.CENTER);
+		setContentPane(jPanelContentpane);
+		setSize(640, 300);
+	}
+
+	/**
+	 * Displays this frame on the screen.
+	 */
+	public void display() {
+		setVisible(true);
+	}
+}
@@ -0,0 +1,318 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.util.*;
+import java.util.concurrent.Future;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Plays a run: advances the iterations of a <code>TableFrame</code> at a
+ * fixed rate and stride and shows them in all open <code>ChartFrame</code>s.
+ * The position is derived from the elapsed time, so frames are dropped if
+ * the charts cannot keep up. The histograms of the next frames are computed
+ * in advance by the worker pool and stored in the histogram cache.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+class Playback {
+
+	/**
+	 * <code>TableFrame</code> whose iterations are played
+	 */
+	private TableFrame myTableFrame;
+
+	/**
+	 * Triggers the frames
+	 */
+	private javax.swing.Timer timer;
+
+	/**
+	 * Number of frames shown per second
+	 */
+	private int rate = 10;
+
+	/**
+	 * Number of iterations advanced per frame
+	 */
+	private int stride = 1;
+
+	/**
+	 * Number of frames whose histograms are computed in advance
+	 */
+	private int prefetchedFrames = 8;
+
+	/**
+	 * Time at which the playback was started or its rate was changed (in
+	 * milliseconds)
+	 */
+	private long startTime;
+
+	/**
+	 * Number of frames due since the <code>startTime</code>
+	 */
+	private long frames;
+
+	/**
+	 * Number of frames that were dropped
+	 */
+	private long droppedFrames;
+
+	/**
+	 * Position of the last iteration whose histograms were prefetched
+	 */
+	private int prefetchedIndex;
+
+	/**
+	 * Running computations of prefetched histograms
+	 */
+	private LinkedList<Prefetch> prefetches;
+
+	/**
+	 * Creates a playback for the given <code>TableFrame</code>.
+	 * 
+	 * @param _myTableFrame
+	 *            <code>TableFrame</code> whose iterations are played
+	 */
+	Playback(TableFrame _myTableFrame) {
+		this.myTableFrame = _myTableFrame;
+		this.prefetches = new LinkedList<Prefetch>();
+		this.timer = new javax.swing.Timer(1000 / rate,
+				new java.awt.event.ActionListener() {
+					public void actionPerformed(java.awt.event.ActionEvent e) {
+						nextFrame();
+					}
+				});
+	}
+
+	/**
+	 * Starts the playback at the current iteration of the
+	 * <code>TableFrame</code>. If the current iteration is the last one, the
+	 * playback starts at the first iteration.
+	 * 
+	 * @return <code>true</code> if the playback was started
+	 */
+	boolean start() {
+		DataMemory dataMemory = myTableFrame.getDataMemory();
+		DataElement currentElement = myTableFrame.getCurrentElement();
+		if (dataMemory == null || currentElement == null
+				|| dataMemory.size() < 2)
+			return false;
+		if (dataMemory.indexOf(currentElement) == dataMemory.size() - 1)
+			myTableFrame.showPlaybackFrame(dataMemory.getFirstElement());
+
+		startTime = System.currentTimeMillis();
+		frames = 0;
+		droppedFrames = 0;
+		prefetchedIndex = dataMemory.indexOf(myTableFrame.getCurrentElement());
+		timer.setDelay(1000 / rate);
+		timer.setInitialDelay(1000 / rate);
+		prefetch(prefetchedIndex);
+		timer.start();
+		return true;
+	}
+
+	/**
+	 * Stops the playback and cancels all prefetched computations.
+	 */
+	void stop() {
+		if (!timer.isRunning())
+			return;
+		timer.stop();
+		while (!prefetches.isEmpty())
+			prefetches.removeFirst().future.cancel(true);
+		myTableFrame.playbackStopped();
+	}
+
+	/**
+	 * Returns <code>true</code> if the playback is running.
+	 * 
+	 * @return <code>true</code> if the playback is running
+	 */
+	boolean isRunning() {
+		return timer.isRunning();
+	}
+
+	/**
+	 * Shows the frame that is due at the current time. Frames that are due
+	 * but were not shown in time are dropped.
+	 */
+	private void nextFrame() {
+		DataMemory dataMemory = myTableFrame.getDataMemory();
+		DataElement currentElement = myTableFrame.getCurrentElement();
+		if (dataMemory == null || currentElement == null) {
+			stop();
+			return;
+		}
+
+		long due = (System.currentTimeMillis() - startTime) * rate / 1000;
+		long steps = due - frames;
+		if (steps <= 0)
+			return;
+		frames = due;
+		droppedFrames += steps - 1;
+
+		int lastIndex = dataMemory.size() - 1;
+		long index = dataMemory.indexOf(currentElement) + steps * stride;
+		myTableFrame.showPlaybackFrame(dataMemory.getElement((int) Math.min(
+				index, lastIndex)));
+		if (index >= lastIndex) {
+			stop();
+			return;
+		}
+		prefetch((int) index);
+	}
+
+	/**
+	 * Computes the histograms of the frames following the given position in
+	 * advance. Computations for frames that were already passed are
+	 * cancelled.
+	 * 
+	 * @param _index
+	 *            position of the current frame
+	 */
+	private void prefetch(int _index) {
+		while (!prefetches.isEmpty()
+				&& (prefetches.getFirst().index <= _index || prefetches
+						.getFirst().future.isDone()))
+			prefetches.removeFirst().future.cancel(true);
+
+		DataMemory dataMemory = myTableFrame.getDataMemory();
+		Vector<ChartFrame> chartFrames = myTableFrame.getChartFrames();
+		int lastIndex = Math.min(dataMemory.size() - 1, _index
+				+ prefetchedFrames * stride);
+		for (int index = Math.max(prefetchedIndex, _index) + stride; index <= lastIndex; index += stride) {
+			DataElement element = dataMemory.getElement(index);
+			for (int i = 0; i < chartFrames.size(); i++) {
+				Future<?> future = chartFrames.get(i).prefetch(element);
+				if (future != null)
+					prefetches.add(new Prefetch(index, future));
+			}
+			prefetchedIndex = index;
+		}
+	}
+
+	/**
+	 * Sets the number of frames shown per second. A running playback
+	 * continues from the current frame at the new rate.
+	 * 
+	 * @param _rate
+	 *            number of frames shown per second
+	 */
+	void setRate(int _rate) {
+		this.rate = Math.max(1, _rate);
+		timer.setDelay(1000 / rate);
+		if (timer.isRunning()) {
+			// Frames due at the old rate must not be recomputed at the new
+			// one, else the playback jumps or stalls...
+			startTime = System.currentTimeMillis();
+			frames = 0;
+		}
+	}
+
+	/**
+	 * Returns the number of frames shown per second.
+	 * 
+	 * @return number of frames shown per second
+	 */
+	int getRate() {
+		return rate;
+	}
+
+	/**
+	 * Sets the number of iterations advanced per frame.
+	 * 
+	 * @param _stride
+	 *            number of iterations advanced per frame
+	 */
+	void setStride(int _stride) {
+		this.stride = Math.max(1, _stride);
+	}
+
+	/**
+	 * Returns the number of iterations advanced per frame.
+	 * 
+	 * @return number of iterations advanced per frame
+	 */
+	int getStride() {
+		return stride;
+	}
+
+	/**
+	 * Sets the number of frames whose histograms are computed in advance.
+	 * 
+	 * @param _prefetchedFrames
+	 *            number of frames computed in advance
+	 */
+	void setPrefetchedFrames(int _prefetchedFrames) {
+		this.prefetchedFrames = Math.max(0, _prefetchedFrames);
+	}
+
+	/**
+	 * Returns the number of frames whose histograms are computed in advance.
+	 * 
+	 * @return number of frames computed in advance
+	 */
+	int getPrefetchedFrames() {
+		return prefetchedFrames;
+	}
+
+	/**
+	 * Returns the number of frames dropped since the playback was started.
+	 * 
+	 * @return number of dropped frames
+	 */
+	long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/**
+	 * A running computation of a prefetched histogram.
+	 */
+	private static class Prefetch {
+
+		/**
+		 * Position of the prefetched iteration in the <code>DataMemory</code>
+		 */
+		private int index;
+
+		/**
+		 * The running computation
+		 */
+		private Future<?> future;
+
+		/**
+		 * Creates a prefetched histogram.
+		 * 
+		 * @param _index
+		 *            position of the prefetched iteration
+		 * @param _future
+		 *            the running computation
+		 */
+		Prefetch(int _index, Future<?> _future) {
+			this.index = _index;
+			this.future = _future;
+		}
+	}
+}
@@ -0,0 +1,391 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.*;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Vector;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+import org.jfree.chart.*;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.data.category.DefaultCategoryDataset;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.sketch.RunQuantiles;
+
+/**
+ * Provides a frame for comparing a selected classifier to the classifiers of
+ * all iterations of a run. For every numeric column, the percentile rank of
+ * the classifier's value is shown within its own iteration and within a
+ * window of iterations. Ranks within the window are estimated from the
+ * <code>RunQuantiles</code> of the run, so a comparison against millions of
+ * classifiers is answered without reading the classifier sets again.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class RunComparisonFrame extends JFrame {
+
+	/**
+	 * Number of significant digits of the shown values and quantiles
+	 */
+	private static final int SIGNIFICANT_DIGITS = 6;
+
+	/**
+	 * Contains all iterations
+	 */
+	private DataMemory dataMemory;
+
+	/**
+	 * Identifier of the classifier set of the selected classifier
+	 */
+	private int tableId;
+
+	/**
+	 * Names of the numeric columns
+	 */
+	private Vector<String> columnNames = new Vector<String>();
+
+	/**
+	 * Values of the selected classifier in the numeric columns
+	 */
+	private double[] selectedValues;
+
+	/**
+	 * Percentile ranks of the selected classifier within its iteration
+	 */
+	private double[] iterationRanks;
+
+	/**
+	 * Summaries of the numeric columns; <code>null</code> until computed
+	 */
+	private RunQuantiles[] runQuantiles;
+
+	/**
+	 * First iteration of the window
+	 */
+	private JTextField jTextFieldFrom = null;
+
+	/**
+	 * Last iteration of the window
+	 */
+	private JTextField jTextFieldTo = null;
+
+	/**
+	 * Ranks of the selected classifier per column
+	 */
+	private DefaultCategoryDataset dataset = null;
+
+	/**
+	 * Shows the values, ranks and quantiles per column.
+	 */
+	private JTable jTableResult = null;
+
+	/**
+	 * Shows the state of the comparison.
+	 */
+	private JLabel jLabelStatus = null;
+
+	/**
+	 * Computes the summaries in the background
+	 */
+	private SwingWorker<RunQuantiles[], Object> worker = null;
+
+	/**
+	 * Creates a frame that compares a classifier to all iterations of a run.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations
+	 * @param _element
+	 *            iteration of the selected classifier
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _row
+	 *            model row of the selected classifier
+	 * @param _title
+	 *            describes the selected classifier
+	 */
+	RunComparisonFrame(DataMemory _dataMemory, DataElement _element,
+			int _tableId, int _row, String _title) {
+		super("Classifier comparison with run");
+		this.dataMemory = _dataMemory;
+		this.tableId = _tableId;
+
+		// Rank the classifier within its own iteration...
+		ClassifierTableModel model = _element.getTableModel(_tableId);
+		Vector<Double> values = new Vector<Double>();
+		Vector<Double> ranks = new Vector<Double>();
+		for (int column = 0; column < model.getColumnCount(); column++) {
+			if (!model.isNumericColumn(column))
+				continue;
+			double[] numbers = model.getNumericColumn(column);
+			double selected = numbers[_row];
+			if (Double.isNaN(selected))
+				continue;
+			int below = 0;
+			int count = 0;
+			for (int i = 0; i < numbers.length; i++) {
+				if (!Double.isNaN(numbers[i])) {
+					count++;
+					if (numbers[i] <= selected)
+						below++;
+				}
+			}
+			columnNames.add(model.getColumnName(column));
+			values.add(Double.valueOf(selected));
+			ranks.add(Double.valueOf((double) below / count));
+		}
+		selectedValues = new double[values.size()];
+		iterationRanks = new double[ranks.size()];
+		for (int i = 0; i < selectedValues.length; i++) {
+			selectedValues[i] = values.get(i).doubleValue();
+			iterationRanks[i] = ranks.get(i).doubleValue();
+		}
+
+		jTextFieldFrom = new JTextField(""
+				+ dataMemory.getElement(0).getIteration(), 8);
+		jTextFieldTo = new JTextField(""
+				+ dataMemory.getElement(dataMemory.size() - 1).getIteration(),
+				8);
+		java.awt.event.ActionListener compareListener = new java.awt.event.ActionListener() {
+			public void actionPerformed(java.awt.event.ActionEvent e) {
+				compare();
+			}
+		};
+		jTextFieldFrom.addActionListener(compareListener);
+		jTextFieldTo.addActionListener(compareListener);
+		JButton jButtonCompare = new JButton("Compare");
+		jButtonCompare.addActionListener(compareListener);
+
+		JPanel jPanelControls = new JPanel();
+		jPanelControls.add(new JLabel("iterations"));
+		jPanelControls.add(jTextFieldFrom);
+		jPanelControls.add(new JLabel("to"));
+		jPanelControls.add(jTextFieldTo);
+		jPanelControls.add(jButtonCompare);
+
+		dataset = new DefaultCategoryDataset();
+		JFreeChart jfreechart = ChartFactory.createBarChart("", // title
+				"", // x-axis title
+				"percentile rank", // y-axis title
+				dataset, PlotOrientation.VERTICAL, true, true, false);
+		jfreechart.addSubtitle(0, new TextTitle(_title, new Font("SansSerif",
+				Font.BOLD, 12)));
+		jfreechart.addSubtitle(1, new TextTitle("- iteration "
+				+ _element.getIteration() + " -", new Font("SansSerif",
+				Font.BOLD, 12)));
+		jfreechart.setBackgroundPaint(Color.white);
+		CategoryPlot categoryplot = (CategoryPlot) jfreechart.getPlot();
+		categoryplot.setBackgroundPaint(Color.lightGray);
+		categoryplot.setRangeGridlinePaint(Color.white);
+		((NumberAxis) categoryplot.getRangeAxis()).setRange(0, 100);
+		ChartPanel chartpanel = new ChartPanel(jfreechart);
+		chartpanel.setPreferredSize(new Dimension(500, 270));
+
+		jTableResult = new JTable() {
+			// Cells are not editable...
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+		};
+		JScrollPane jScrollPaneResult = new JScrollPane(jTableResult);
+		jScrollPaneResult.setPreferredSize(new Dimension(500, 140));
+
+		jLabelStatus = new JLabel(" ");
+
+		JPanel jPanelCenter = new JPanel(new BorderLayout());
+		jPanelCenter.add(chartpanel, BorderLayout.CENTER);
+		jPanelCenter.add(jScrollPaneResult, BorderLayout.SOUTH);
+
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jPanelControls, BorderLayout.NORTH);
+		jPanelContentpane.add(jPanelCenter, BorderLayout.CENTER);
+		jPanelContentpane.add(jLabelStatus, BorderLayout.SOUTH);
+		setContentPane(jPanelContentpane);
+	}
+
+	/**
+	 * Displays this frame on the screen and compares the classifier to all
+	 * iterations.
+	 */
+	public void display() {
+		pack();
+		setVisible(true);
+		compare();
+	}
+
+	/**
+	 * Stops the computation of the summaries and disposes this frame.
+	 */
+	public void dispose() {
+		if (worker != null)
+			worker.cancel(true);
+		super.dispose();
+	}
+
+	/**
+	 * Compares the classifier to the iterations of the selected window. If
+	 * the summaries of the run are not available yet, they are computed in
+	 * the background first.
+	 */
+	private void compare() {
+		if (runQuantiles != null) {
+			showComparison();
+			return;
+		}
+		if (worker != null)
+			return; // The summaries are being computed.
+
+		// Use the summaries at once if all were computed before...
+		RunQuantiles[] known = new RunQuantiles[columnNames.size()];
+		boolean complete = true;
+		for (int i = 0; i < known.length; i++) {
+			known[i] = RunQuantiles.lookup(dataMemory, tableId, columnNames
+					.get(i));
+			complete &= known[i] != null;
+		}
+		if (complete) {
+			runQuantiles = known;
+			showComparison();
+			return;
+		}
+
+		jLabelStatus.setText("Summarizing " + dataMemory.size()
+				+ " iterations...");
+		worker = new SwingWorker<RunQuantiles[], Object>() {
+			@Override
+			protected RunQuantiles[] doInBackground() throws Exception {
+				RunQuantiles[] result = new RunQuantiles[columnNames.size()];
+				for (int i = 0; i < result.length; i++)
+					result[i] = RunQuantiles.getRunQuantiles(dataMemory,
+							tableId, columnNames.get(i));
+				return result;
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled())
+					return;
+				try {
+					runQuantiles = get();
+					showComparison();
+				} catch (Exception e) {
+					e.printStackTrace();
+					jLabelStatus.setText("The run could not be summarized.");
+				}
+				worker = null;
+			}
+		};
+		worker.execute();
+	}
+
+	/**
+	 * Shows the ranks of the classifier within the selected window. The
+	 * summaries must be available.
+	 */
+	private void showComparison() {
+		double from;
+		double to;
+		try {
+			from = Double.parseDouble(jTextFieldFrom.getText());
+			to = Double.parseDouble(jTextFieldTo.getText());
+		} catch (NumberFormatException e) {
+			jLabelStatus.setText("The iterations must be numbers.");
+			return;
+		}
+		int fromIndex = dataMemory.indexOf(dataMemory.searchElement(Math.min(
+				from, to)));
+		int toIndex = dataMemory.indexOf(dataMemory.searchElement(Math.max(
+				from, to))) + 1;
+
+		long start = System.nanoTime();
+		String[] header = { "Column", "Value", "Rank in iteration",
+				"Rank in window", "5%", "Median", "95%" };
+		DefaultTableModel result = new DefaultTableModel(header, 0);
+		dataset.clear();
+		long numberOfValues = 0;
+		for (int i = 0; i < runQuantiles.length; i++) {
+			String column = columnNames.get(i);
+			RunQuantiles quantiles = runQuantiles[i];
+			double windowRank = quantiles.getRank(selectedValues[i],
+					fromIndex, toIndex);
+			numberOfValues = Math.max(numberOfValues, quantiles
+					.getNumberOfValues(fromIndex, toIndex));
+			dataset.addValue(100 * iterationRanks[i], "iteration", column);
+			dataset.addValue(100 * windowRank, "window", column);
+			result.addRow(new Object[] {
+					column,
+					number(selectedValues[i]),
+					percent(iterationRanks[i]),
+					percent(windowRank),
+					number(quantiles.getQuantile(0.05, fromIndex, toIndex)),
+					number(quantiles.getQuantile(0.5, fromIndex, toIndex)),
+					number(quantiles.getQuantile(0.95, fromIndex, toIndex)) });
+		}
+		long micros = (System.nanoTime() - start) / 1000;
+		jTableResult.setModel(result);
+		jLabelStatus.setText("Compared with " + numberOfValues
+				+ " classifiers of " + (toIndex - fromIndex)
+				+ " iterations (" + micros + " \u00b5s)");
+	}
+
+	/**
+	 * Formats a value with at most <code>SIGNIFICANT_DIGITS</code>
+	 * significant digits.
+	 * 
+	 * @param _value
+	 *            the value
+	 * @return the formatted value
+	 */
+	private static String number(double _value) {
+		if (Double.isNaN(_value))
+			return "-";
+		if (Double.isInfinite(_value))
+			return "" + _value;
+		return new BigDecimal(_value).round(
+				new MathContext(SIGNIFICANT_DIGITS)).stripTrailingZeros()
+				.toPlainString();
+	}
+
+	/**
+	 * Formats a share as percentage.
+	 * 
+	 * @param _share
+	 *            the share (between <code>0</code> and <code>1</code>)
+	 * @return the formatted percentage
+	 */
+	private static String percent(double _share) {
+		if (Double.isNaN(_share))
+			return "-";
+		return String.format("%.1f%%", Double.valueOf(100 * _share));
+	}
+}
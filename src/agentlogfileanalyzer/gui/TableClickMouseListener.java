@@ -22,11 +22,10 @@
 
 package agentlogfileanalyzer.gui;
 
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
+import java.awt.event.*;
 import java.util.Vector;
 
-import javax.swing.JTable;
+import javax.swing.*;
 import javax.swing.table.TableModel;
 
 import agentlogfileanalyzer.*;
@@ -43,17 +42,36 @@ public class TableClickMouseListener extends MouseAdapter {
 	 */
 	JTable table;
 
+	/**
+	 * The <code>TableFrame</code> showing the table
+	 */
+	private TableFrame myTableFrame;
+
+	/**
+	 * Identifier of the classifier set shown in the table
+	 */
+	private int tableId;
+
 	/**
 	 * Creates a new <code>TableClickMouseListener</code>.
 	 * 
 	 * @param _table
 	 *            the table associated with this
 	 *            <code>TableClickMouseListener</code>
+	 * @param _myTableFrame
+	 *            the <code>TableFrame</code> showing the table
+	 * @param _tableId
+	 *            identifier of the classifier set shown in the table
+	 *            (<code>0</code> for population, <code>1</code> for match
+	 *            set, <code>2</code> for action set)
 	 */
-	TableClickMouseListener(JTable _table) {
+	TableClickMouseListener(JTable _table, TableFrame _myTableFrame,
+			int _tableId) {
 		// It is necessary to keep the table since it is not possible
 		// to determine the table from the event's source.
 		table = _table;
+		myTableFrame = _myTableFrame;
+		tableId = _tableId;
 	}
 
 	/**
@@ -64,40 +82,118 @@ public class TableClickMouseListener extends MouseAdapter {
 	 */
 	public void mouseClicked(MouseEvent e) {
 		if (e.getClickCount() == 2) {
-			TableModel tm = table.getModel();
 			int rowIdView = table.getSelectionModel().getLeadSelectionIndex();
+			if (rowIdView > -1) // Has a row been selected?
+				compareWithTable(table.convertRowIndexToModel(rowIdView));
+		}
+	}
 
-			if (rowIdView > -1) { // Has a row been selected?
+	/**
+	 * Shows the comparison menu if the event is a popup trigger.
+	 */
+	public void mousePressed(MouseEvent e) {
+		showPopupMenu(e);
+	}
 
-				// Get id of selected row in table model...
-				int rowIdModel = table.convertRowIndexToModel(rowIdView);
+	/**
+	 * Shows the comparison menu if the event is a popup trigger.
+	 */
+	public void mouseReleased(MouseEvent e) {
+		showPopupMenu(e);
+	}
 
-				// Get available columns...
-				String[] columnNames = LogFileAnalyzer.getInstance()
-						.getColumnNames();
+	/**
+	 * Selects the row below the mouse pointer and shows a menu that compares
+	 * its classifier with the table or with all iterations of the run.
+	 * 
+	 * @param e
+	 *            the mouse event
+	 */
+	private void showPopupMenu(MouseEvent e) {
+		if (!e.isPopupTrigger())
+			return;
+		int rowIdView = table.rowAtPoint(e.getPoint());
+		if (rowIdView < 0)
+			return;
+		table.getSelectionModel().setSelectionInterval(rowIdView, rowIdView);
+		final int rowIdModel = table.convertRowIndexToModel(rowIdView);
 
-				Vector<ComparisonDataSet> mmsForColumns = new Vector<ComparisonDataSet>();
-				for (int i = 0; i < columnNames.length; i++) {
-					if (columnConvertible(i)) {
-						ComparisonDataSet mms = determineMinMax(i, new Double(
-								(String) tm.getValueAt(rowIdModel, i))
-								.doubleValue());
-						mmsForColumns.add(mms);
-					}
-				}
+		JPopupMenu jPopupMenu = new JPopupMenu();
+		JMenuItem jMenuItemTable = new JMenuItem("Compare with table");
+		jMenuItemTable.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent _e) {
+				compareWithTable(rowIdModel);
+			}
+		});
+		jPopupMenu.add(jMenuItemTable);
+		JMenuItem jMenuItemRun = new JMenuItem("Compare with run");
+		jMenuItemRun.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent _e) {
+				compareWithRun(rowIdModel);
+			}
+		});
+		jMenuItemRun.setEnabled(myTableFrame.getBoundElement(tableId) != null);
+		jPopupMenu.add(jMenuItemRun);
+		jPopupMenu.show(table, e.getX(), e.getY());
+	}
 
-				// Get string representation of selected classifier...
-				String selectedClassifier = "Classifier ";
-				for (int i = 0; i < tm.getColumnCount(); i++) {
-					selectedClassifier += " " + tm.getValueAt(rowIdModel, i);
-				}
+	/**
+	 * Creates a new <code>ComparisonFrame</code> that compares a classifier
+	 * with the table's other classifiers.
+	 * 
+	 * @param rowIdModel
+	 *            id of the classifier's row in the table model
+	 */
+	private void compareWithTable(int rowIdModel) {
+		TableModel tm = table.getModel();
 
-				String title = "- " + table.getName() + " -";
+		// Get available columns...
+		String[] columnNames = LogFileAnalyzer.getInstance().getColumnNames();
 
-				new ComparisonFrame(selectedClassifier, title, mmsForColumns)
-						.display();
+		Vector<ComparisonDataSet> mmsForColumns = new Vector<ComparisonDataSet>();
+		for (int i = 0; i < columnNames.length; i++) {
+			if (columnConvertible(i)) {
+				ComparisonDataSet mms = determineMinMax(i, new Double(
+						(String) tm.getValueAt(rowIdModel, i)).doubleValue());
+				mmsForColumns.add(mms);
 			}
 		}
+
+		String title = "- " + table.getName() + " -";
+
+		new ComparisonFrame(describeClassifier(rowIdModel), title,
+				mmsForColumns).display();
+	}
+
+	/**
+	 * Creates a new <code>RunComparisonFrame</code> that compares a
+	 * classifier with the classifiers of all iterations.
+	 * 
+	 * @param rowIdModel
+	 *            id of the classifier's row in the table model
+	 */
+	private void compareWithRun(int rowIdModel) {
+		DataElement element = myTableFrame.getBoundElement(tableId);
+		if (element == null)
+			return;
+		new RunComparisonFrame(myTableFrame.getDataMemory(), element,
+				tableId, rowIdModel, describeClassifier(rowIdModel)).display();
+	}
+
+	/**
+	 * Returns a string representation of a classifier.
+	 * 
+	 * @param rowIdModel
+	 *            id of the classifier's row in the table model
+	 * @return the string representation
+	 */
+	private String describeClassifier(int rowIdModel) {
+		TableModel tm = table.getModel();
+		String selectedClassifier = "Classifier ";
+		for (int i = 0; i < tm.getColumnCount(); i++) {
+			selectedClassifier += " " + tm.getValueAt(rowIdModel, i);
+		}
+		return selectedClassifier;
 	}
 
 	/**
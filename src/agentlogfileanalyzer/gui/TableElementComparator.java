@@ -34,36 +34,46 @@ class TableElementComparator implements Comparator<String> {
 	/**
 	 * Compares two <code>String</code>s provided as parameters. The method
 	 * tries to convert the given <code>String</code>s to <code>double</code>-values
-	 * before comparison. If the conversion fails, the comparator compares the
-	 * given <code>String</code>s directly.
-	 * 
-	 * Use this method only for <code>String</code>s that can both(!) be
-	 * either converted or not converted to <code>double</code>s.
+	 * before comparison. If both conversions succeed, the values are
+	 * compared. <code>String</code>s that cannot be converted are placed
+	 * after all numbers and compared directly, so columns mixing numbers and
+	 * text are still sorted consistently.
 	 * 
 	 * @param s1
 	 *            first <code>String</code> to compare
 	 * @param s2
 	 *            second <code>String</code> to compare
 	 * 
-	 * @return <code>-1</code> if <code>s1 < s1</code>, <code>0</code> if
-	 *         <code>s1 = s1</code>, <code>1</code> otherwise
+	 * @return a negative value if <code>s1 < s2</code>, <code>0</code> if
+	 *         <code>s1 = s2</code>, a positive value otherwise
 	 * 
 	 */
 	public int compare(String s1, String s2) {
-		// Try to convert the strings into doubles...
-		try {
-			double d1 = Double.parseDouble(s1);
-			double d2 = Double.parseDouble(s2);
-
-			if (d1 > d2)
-				return 1;
-			if (d1 == d2)
-				return 0;
-			return -1;
-		}
+		double d1 = toDouble(s1);
+		double d2 = toDouble(s2);
+		boolean number1 = !Double.isNaN(d1);
+		boolean number2 = !Double.isNaN(d2);
+		if (number1 && number2)
+			return Double.compare(d1, d2);
+		if (number1 != number2)
+			return number1 ? -1 : 1;
 		// Compare strings if the conversion failed.
-		catch (NumberFormatException e) {
-			return s1.compareTo(s2);
+		return s1.compareTo(s2);
+	}
+
+	/**
+	 * Converts a <code>String</code> to a <code>double</code>.
+	 * 
+	 * @param s
+	 *            the <code>String</code>
+	 * @return the value of the <code>String</code>, or <code>Double.NaN</code>
+	 *         if it cannot be converted
+	 */
+	private static double toDouble(String s) {
+		try {
+			return Double.parseDouble(s);
+		} catch (NumberFormatException e) {
+			return Double.NaN;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -31,6 +31,7 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.*;
 
 import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.matching.*;
 
 /**
  * Provides the main window containing the menu, buttons to step through the
@@ -58,6 +59,22 @@ public class TableFrame extends JFrame {
 	 */
 	private Vector<ChartFrame> chartFrames;
 
+	/**
+	 * Contains all opened <code>DashboardFrame</code>s
+	 */
+	private Vector<DashboardFrame> dashboardFrames;
+
+	/**
+	 * Starts a deferred refresh if navigation events arrive faster than the
+	 * frame budget allows.
+	 */
+	private javax.swing.Timer refreshTimer = null;
+
+	/**
+	 * Time at which the last refresh finished (in milliseconds)
+	 */
+	private long lastRefresh = 0;
+
 	/**
 	 * Contains the <code>jPanelControlPane</code> and <code>jTabbedPane</code>.
 	 */
@@ -69,6 +86,12 @@ public class TableFrame extends JFrame {
 	 */
 	private JPanel jPanelControlpane = null;
 
+	/**
+	 * Shows an overview of all iterations below the
+	 * <code>jPanelControlpane</code> and navigates by dragging.
+	 */
+	private IterationScrubber iterationScrubber = null;
+
 	/**
 	 * Shows the current iteration.
 	 */
@@ -99,6 +122,11 @@ public class TableFrame extends JFrame {
 	 */
 	private JMenuItem jMenuItemOpen = null;
 
+	/**
+	 * File menu item "compare experiment runs"
+	 */
+	private JMenuItem jMenuItemOpenExperiment = null;
+
 	/**
 	 * Tabs for switching among population, match and action sets.
 	 */
@@ -144,6 +172,37 @@ public class TableFrame extends JFrame {
 	 */
 	private JButton jButtonLast = null;
 
+	/**
+	 * Starts and stops the playback.
+	 */
+	private JToggleButton jToggleButtonPlay = null;
+
+	/**
+	 * Plays the iterations in all open <code>ChartFrame</code>s.
+	 */
+	private Playback playback = null;
+
+	/**
+	 * <code>true</code> if the tables do not show the current element since
+	 * they were not updated during playback
+	 */
+	private boolean tablesOutdated = false;
+
+	/**
+	 * <code>DataElement</code> shown by each table (population, match set,
+	 * action set). Tables of hidden tabs are only updated when their tab is
+	 * selected.
+	 */
+	private DataElement[] boundElements = new DataElement[3];
+
+	/**
+	 * All columns of each table showing a classifier set, including hidden
+	 * columns; <code>null</code> while a table shows a notification. The
+	 * columns are kept when the table is given the model of another
+	 * iteration.
+	 */
+	private TableColumn[][] classifierColumns = new TableColumn[3][];
+
 	/**
 	 * File menu item "exit"
 	 */
@@ -185,6 +244,46 @@ public class TableFrame extends JFrame {
 	 */
 	private JMenuItem jMenuNewChart = null;
 
+	/**
+	 * Menu item "Dashboard"
+	 */
+	private JMenuItem jMenuItemDashboard = null;
+
+	/**
+	 * Menu item "Compare iterations"
+	 */
+	private JMenuItem jMenuItemDiff = null;
+
+	/**
+	 * Menu item "Convergence"
+	 */
+	private JMenuItem jMenuItemConvergence = null;
+
+	/**
+	 * Menu item "Heatmap"
+	 */
+	private JMenuItem jMenuItemHeatmap = null;
+
+	/**
+	 * Menu item "Time series"
+	 */
+	private JMenuItem jMenuItemTimeSeries = null;
+
+	/**
+	 * Menu item "Validate match sets"
+	 */
+	private JMenuItem jMenuItemValidate = null;
+
+	/**
+	 * Menu item "Match input"
+	 */
+	private JMenuItem jMenuItemMatchQuery = null;
+
+	/**
+	 * Menu item "Playback settings"
+	 */
+	private JMenuItem jMenuItemPlayback = null;
+
 	private JTextField jTextField_input = null;
 
 	/**
@@ -197,6 +296,22 @@ public class TableFrame extends JFrame {
 	 */
 	private JLabel jLabel_iteration = null;
 
+	/**
+	 * Contains the <code>jTextFieldFilter</code> and
+	 * <code>jLabelFilterStatus</code>.
+	 */
+	private JPanel jPanelFilter = null;
+
+	/**
+	 * Filters the rows of the tables (see <code>ClassifierFilter</code>).
+	 */
+	private JTextField jTextFieldFilter = null;
+
+	/**
+	 * Shows the number of filtered rows or an error in the filter.
+	 */
+	private JLabel jLabelFilterStatus = null;
+
 	// ---------------------------------------------------------------
 
 	/**
@@ -229,6 +344,7 @@ public class TableFrame extends JFrame {
 			jPanelControlpane.add(getJButtonNext(), null);
 			jPanelControlpane.add(getJButtonFirst(), null);
 			jPanelControlpane.add(getJButtonLast(), null);
+			jPanelControlpane.add(getJToggleButtonPlay(), null);
 
 		}
 		return jPanelControlpane;
@@ -259,9 +375,8 @@ public class TableFrame extends JFrame {
 							try {
 								double searchValue = Double
 										.parseDouble(searchString);
-								currentElement = dataMemory
-										.searchElement(searchValue);
-								refresh();
+								navigateTo(dataMemory
+										.searchElement(searchValue));
 							} catch (NumberFormatException nfe) {
 								// Conversion to double fails.
 								jTextFieldIteration.setText("No valid value");
@@ -282,11 +397,11 @@ public class TableFrame extends JFrame {
 		if (jButtonNext == null) {
 			jButtonNext = new JButton();
 			jButtonNext.setText("+");
+			jButtonNext.setToolTipText("Next iteration (Alt+Right)");
 			jButtonNext.setEnabled(false);
 			jButtonNext.addActionListener(new java.awt.event.ActionListener() {
 				public void actionPerformed(java.awt.event.ActionEvent e) {
-					currentElement = currentElement.getNextElement();
-					refresh();
+					navigateTo(currentElement.getNextElement());
 				}
 			});
 		}
@@ -303,13 +418,12 @@ public class TableFrame extends JFrame {
 		if (jButtonPrevious == null) {
 			jButtonPrevious = new JButton();
 			jButtonPrevious.setText("-");
+			jButtonPrevious.setToolTipText("Previous iteration (Alt+Left)");
 			jButtonPrevious.setEnabled(false);
 			jButtonPrevious
 					.addActionListener(new java.awt.event.ActionListener() {
 						public void actionPerformed(java.awt.event.ActionEvent e) {
-							currentElement = currentElement
-									.getPreviousElement();
-							refresh();
+							navigateTo(currentElement.getPreviousElement());
 						}
 					});
 		}
@@ -333,7 +447,8 @@ public class TableFrame extends JFrame {
 
 	/**
 	 * Initializes the <code>jMenuFile</code> and adds
-	 * <code>jMenuItemOpen</code> and <code>jMenuItemExit</code>.
+	 * <code>jMenuItemOpen</code>, <code>jMenuItemOpenExperiment</code> and
+	 * <code>jMenuItemExit</code>.
 	 * 
 	 * @return the <code>jMenuFile</code>
 	 */
@@ -342,6 +457,7 @@ public class TableFrame extends JFrame {
 			jMenuFile = new JMenu();
 			jMenuFile.setText("File");
 			jMenuFile.add(getJMenuItemOpen());
+			jMenuFile.add(getJMenuItemOpenExperiment());
 			jMenuFile.add(getJMenuItemExit());
 		}
 		return jMenuFile;
@@ -361,37 +477,32 @@ public class TableFrame extends JFrame {
 			jMenuItemOpen
 					.addActionListener(new java.awt.event.ActionListener() {
 						public void actionPerformed(java.awt.event.ActionEvent e) {
-							JFileChooser chooser = new JFileChooser(logFilePath);
-							// own filters are added
-							Vector<ChoosableFileFilter> fileOpenFilters = LogFileAnalyzer
-									.getInstance().getFileOpenFilters();
-							if (fileOpenFilters.size() > 0) {
-								for (int i = 0; i < fileOpenFilters.size(); i++)
-									chooser
-											.addChoosableFileFilter(fileOpenFilters
-													.get(i));
-								chooser.setFileFilter(fileOpenFilters.get(0));
-							}
-							// if no own filters were specified, a default
-							// filter is created
-							else {
-								FileNameExtensionFilter logFilter = new FileNameExtensionFilter(
-										"Log-File (*.log; *.txt)", "log", "txt");
-								chooser.addChoosableFileFilter(logFilter);
-								chooser.setFileFilter(logFilter);
-							}
+							JFileChooser chooser = createLogFileChooser(logFilePath);
 							// OpenFile-Dialogue is started
 							int returnVal = chooser.showOpenDialog(null);
 							// on OK
 							if (returnVal == JFileChooser.APPROVE_OPTION) {
 								File logFile = chooser.getSelectedFile();
+								playback.stop();
+								// cached histograms of the previous log-file
+								// are discarded
+								LogFileAnalyzer.getInstance().getHistogramCache()
+										.clear();
 								// dataManager is created
 								dataMemory = new DataMemory(logFile);
+								// columns of the previous log-file are
+								// discarded
+								discardClassifierColumns();
 								// data are read in
 								dataMemory.readData();
+								iterationScrubber.setDataMemory(dataMemory);
 								// get first element
 								currentElement = dataMemory.getFirstElement();
 								refresh();
+								// check the logged match sets
+								if (LogFileAnalyzer.getInstance()
+										.getValidateMatchSets())
+									validateMatchSets(false);
 								// save directory
 								logFilePath = chooser.getCurrentDirectory();
 								// set file name in title
@@ -405,6 +516,56 @@ public class TableFrame extends JFrame {
 		return jMenuItemOpen;
 	}
 
+	/**
+	 * Initializes the <code>jMenuItemOpenExperiment</code> and adds an
+	 * <code>actionListener</code>. On click an <code>ExperimentFrame</code>
+	 * is opened that reads several log-files of an experiment.
+	 * 
+	 * @return the <code>jMenuItemOpenExperiment</code>
+	 */
+	private JMenuItem getJMenuItemOpenExperiment() {
+		if (jMenuItemOpenExperiment == null) {
+			jMenuItemOpenExperiment = new JMenuItem();
+			jMenuItemOpenExperiment.setText("Compare experiment runs");
+			jMenuItemOpenExperiment
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							new ExperimentFrame(logFilePath).display();
+						}
+					});
+		}
+		return jMenuItemOpenExperiment;
+	}
+
+	/**
+	 * Creates an OpenFile-dialogue for log-files. The file filters defined in
+	 * the <code>LogFileAnalyzer</code> are added to the dialogue. If no
+	 * filters were defined, a default filter is used.
+	 * 
+	 * @param _directory
+	 *            the directory shown by the dialogue
+	 * @return an OpenFile-dialogue for log-files
+	 */
+	static JFileChooser createLogFileChooser(File _directory) {
+		JFileChooser chooser = new JFileChooser(_directory);
+		// own filters are added
+		Vector<ChoosableFileFilter> fileOpenFilters = LogFileAnalyzer
+				.getInstance().getFileOpenFilters();
+		if (fileOpenFilters.size() > 0) {
+			for (int i = 0; i < fileOpenFilters.size(); i++)
+				chooser.addChoosableFileFilter(fileOpenFilters.get(i));
+			chooser.setFileFilter(fileOpenFilters.get(0));
+		}
+		// if no own filters were specified, a default filter is created
+		else {
+			FileNameExtensionFilter logFilter = new FileNameExtensionFilter(
+					"Log-File (*.log; *.txt)", "log", "txt");
+			chooser.addChoosableFileFilter(logFilter);
+			chooser.setFileFilter(logFilter);
+		}
+		return chooser;
+	}
+
 	/**
 	 * Initializes the <code>jTabbedPane</code>.
 	 * 
@@ -419,6 +580,19 @@ public class TableFrame extends JFrame {
 					null);
 			jTabbedPane.addTab("Action Set", null, getJScrollPaneActionSet(),
 					null);
+			jTabbedPane
+					.addChangeListener(new javax.swing.event.ChangeListener() {
+						public void stateChanged(javax.swing.event.ChangeEvent e) {
+							// Bind the table of the selected tab if it shows
+							// another iteration...
+							int tableId = jTabbedPane.getSelectedIndex();
+							if (currentElement != null && !tablesOutdated
+									&& boundElements[tableId] != currentElement)
+								bindTable(tableId);
+							else if (currentElement != null)
+								filterTable(tableId);
+						}
+					});
 		}
 		return jTabbedPane;
 	}
@@ -475,7 +649,7 @@ public class TableFrame extends JFrame {
 			jTablePopulation.setRowSelectionAllowed(true);
 			jTablePopulation.setColumnSelectionAllowed(false);
 			jTablePopulation.addMouseListener(new TableClickMouseListener(
-					jTablePopulation));
+					jTablePopulation, this, DataElement.POPULATION));
 		}
 
 		return jTablePopulation;
@@ -529,7 +703,7 @@ public class TableFrame extends JFrame {
 			jTableMatchSet.setRowSelectionAllowed(true);
 			jTableMatchSet.setColumnSelectionAllowed(false);
 			jTableMatchSet.addMouseListener(new TableClickMouseListener(
-					jTableMatchSet));
+					jTableMatchSet, this, DataElement.MATCH_SET));
 		}
 		return jTableMatchSet;
 	}
@@ -582,7 +756,7 @@ public class TableFrame extends JFrame {
 			jTableActionSet.setRowSelectionAllowed(true);
 			jTableActionSet.setColumnSelectionAllowed(false);
 			jTableActionSet.addMouseListener(new TableClickMouseListener(
-					jTableActionSet));
+					jTableActionSet, this, DataElement.ACTION_SET));
 		}
 		return jTableActionSet;
 	}
@@ -600,8 +774,7 @@ public class TableFrame extends JFrame {
 			jButtonFirst.setEnabled(false);
 			jButtonFirst.addActionListener(new java.awt.event.ActionListener() {
 				public void actionPerformed(java.awt.event.ActionEvent e) {
-					currentElement = dataMemory.getFirstElement();
-					refresh();
+					navigateTo(dataMemory.getFirstElement());
 				}
 			});
 		}
@@ -621,14 +794,289 @@ public class TableFrame extends JFrame {
 			jButtonLast.setEnabled(false);
 			jButtonLast.addActionListener(new java.awt.event.ActionListener() {
 				public void actionPerformed(java.awt.event.ActionEvent e) {
-					currentElement = dataMemory.getLastElement();
-					refresh();
+					navigateTo(dataMemory.getLastElement());
 				}
 			});
 		}
 		return jButtonLast;
 	}
 
+	/**
+	 * Initializes the <code>jToggleButtonPlay</code>. While the button is
+	 * selected, the iterations are played in all open
+	 * <code>ChartFrame</code>s.
+	 * 
+	 * @return the <code>jToggleButtonPlay</code>
+	 */
+	private JToggleButton getJToggleButtonPlay() {
+		if (jToggleButtonPlay == null) {
+			jToggleButtonPlay = new JToggleButton();
+			jToggleButtonPlay.setText("Play");
+			jToggleButtonPlay
+					.setToolTipText("Play the iterations in all open charts");
+			jToggleButtonPlay
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							if (jToggleButtonPlay.isSelected()) {
+								if (playback.start())
+									jToggleButtonPlay.setText("Stop");
+								else
+									jToggleButtonPlay.setSelected(false);
+							} else {
+								playback.stop();
+							}
+						}
+					});
+		}
+		return jToggleButtonPlay;
+	}
+
+	/**
+	 * Initializes the <code>jPanelFilter</code>. The tables are filtered
+	 * whenever the text of the <code>jTextFieldFilter</code> changes.
+	 * 
+	 * @return the <code>jPanelFilter</code>
+	 */
+	private JPanel getJPanelFilter() {
+		if (jPanelFilter == null) {
+			jTextFieldFilter = new JTextField();
+			jTextFieldFilter
+					.setToolTipText("<html>Terms separated by blanks, e.g. "
+							+ "<code>Fitness&gt;0.5 Prediction=100..500 1#0*</code><br>"
+							+ "Numeric columns: &lt;, &lt;=, &gt;, &gt;=, = or "
+							+ "= with a range <code>a..b</code><br>"
+							+ "Condition: pattern of 0, 1, # and * (any symbol)</html>");
+			jTextFieldFilter.getDocument().addDocumentListener(
+					new javax.swing.event.DocumentListener() {
+						public void insertUpdate(
+								javax.swing.event.DocumentEvent e) {
+							applyFilter();
+						}
+
+						public void removeUpdate(
+								javax.swing.event.DocumentEvent e) {
+							applyFilter();
+						}
+
+						public void changedUpdate(
+								javax.swing.event.DocumentEvent e) {
+							applyFilter();
+						}
+					});
+			jLabelFilterStatus = new JLabel(" ");
+
+			jPanelFilter = new JPanel(new BorderLayout(5, 0));
+			jPanelFilter.add(new JLabel("filter"), BorderLayout.WEST);
+			jPanelFilter.add(jTextFieldFilter, BorderLayout.CENTER);
+			jPanelFilter.add(jLabelFilterStatus, BorderLayout.EAST);
+		}
+		return jPanelFilter;
+	}
+
+	/**
+	 * Filters the tables showing the current <code>DataElement</code> by the
+	 * text of the <code>jTextFieldFilter</code>.
+	 */
+	private void applyFilter() {
+		if (currentElement == null)
+			return;
+		for (int tableId = 0; tableId < 3; tableId++) {
+			if (boundElements[tableId] == currentElement)
+				filterTable(tableId);
+		}
+	}
+
+	/**
+	 * Filters a table by the text of the <code>jTextFieldFilter</code>. An
+	 * invalid filter is reported and shows all rows. The status of the filter
+	 * is shown if the table is selected.
+	 * 
+	 * @param _tableId
+	 *            identifier of the table's classifier set
+	 */
+	private void filterTable(int _tableId) {
+		JTable table = getTable(_tableId);
+		if (!(table.getRowSorter() instanceof ClassifierRowSorter))
+			return;
+		long[] selection = null;
+		String status = " ";
+		try {
+			selection = new ClassifierFilter(jTextFieldFilter.getText())
+					.select(boundElements[_tableId], _tableId);
+			if (selection != null) {
+				int shown = 0;
+				for (int word = 0; word < selection.length; word++)
+					shown += Long.bitCount(selection[word]);
+				status = shown + " of " + table.getModel().getRowCount()
+						+ " classifiers";
+			}
+		} catch (IllegalArgumentException e) {
+			status = e.getMessage();
+		}
+		((ClassifierRowSorter) table.getRowSorter()).setFilter(selection);
+		if (_tableId == jTabbedPane.getSelectedIndex())
+			jLabelFilterStatus.setText(status);
+	}
+
+	/**
+	 * Returns the table showing a classifier set.
+	 * 
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @return the table
+	 */
+	private JTable getTable(int _tableId) {
+		if (_tableId == DataElement.MATCH_SET)
+			return jTableMatchSet;
+		if (_tableId == DataElement.ACTION_SET)
+			return jTableActionSet;
+		return jTablePopulation;
+	}
+
+	/**
+	 * Shows a classifier set of the current <code>DataElement</code> in its
+	 * table. The table keeps its columns, sort keys, and filter; only the
+	 * model is replaced.
+	 * 
+	 * @param _tableId
+	 *            identifier of the classifier set
+	 */
+	private void bindTable(int _tableId) {
+		JTable table = getTable(_tableId);
+		ClassifierTableModel model = currentElement.getTableModel(_tableId);
+
+		// Remove the RowSorter of the old model first. Otherwise it would map
+		// the rows of the new model.
+		table.setRowSorter(null);
+
+		// Create the columns for the first classifier set; later models with
+		// the same columns reuse them...
+		if (!hasColumnsOf(classifierColumns[_tableId], model)) {
+			table.setAutoCreateColumnsFromModel(false);
+			TableColumn[] columns = new TableColumn[model.getColumnCount()];
+			for (int column = 0; column < columns.length; column++) {
+				columns[column] = new TableColumn(column);
+				columns[column].setHeaderValue(model.getColumnName(column));
+				columns[column].setIdentifier(model.getColumnName(column));
+			}
+			classifierColumns[_tableId] = columns;
+			table.setColumnModel(new DefaultTableColumnModel());
+			table.setModel(model);
+			showSelectedColumns(_tableId);
+		} else {
+			table.setModel(model);
+		}
+
+		// If autoResize is true, use resizeTable-method.
+		if (LogFileAnalyzer.getInstance().getAutoResize())
+			resizeTable(table);
+		addTableRowSort(table);
+		boundElements[_tableId] = currentElement;
+
+		// Keep the rows selected by the filter...
+		filterTable(_tableId);
+
+		// Update title...
+		String[] titles = { "Population", "MatchSet", "ActionSet" };
+		table.setName(titles[_tableId] + " @" + currentElement.getIteration());
+	}
+
+	/**
+	 * Returns <code>true</code> if the given columns are the columns of a
+	 * model, i.e. if there is one column per column of the model with the
+	 * model's column name.
+	 * 
+	 * @param _columns
+	 *            the columns; may be <code>null</code>
+	 * @param _model
+	 *            the model
+	 * @return <code>true</code> if the columns match the model
+	 */
+	private static boolean hasColumnsOf(TableColumn[] _columns,
+			TableModel _model) {
+		if (_columns == null || _columns.length != _model.getColumnCount())
+			return false;
+		for (int column = 0; column < _columns.length; column++) {
+			if (!_model.getColumnName(column).equals(
+					_columns[column].getIdentifier()))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Discards the columns of all tables showing a classifier set, so they
+	 * are created again from the next bound model.
+	 */
+	private void discardClassifierColumns() {
+		for (int tableId = 0; tableId < 3; tableId++) {
+			classifierColumns[tableId] = null;
+			boundElements[tableId] = null;
+		}
+	}
+
+	/**
+	 * Shows the columns selected in the View->Columns-Menu in all tables
+	 * showing a classifier set.
+	 */
+	private void showSelectedColumns() {
+		for (int tableId = 0; tableId < 3; tableId++) {
+			if (classifierColumns[tableId] != null) {
+				showSelectedColumns(tableId);
+				if (LogFileAnalyzer.getInstance().getAutoResize())
+					resizeTable(getTable(tableId));
+			}
+		}
+	}
+
+	/**
+	 * Adds the columns selected in the View->Columns-Menu to a table and
+	 * removes the deselected ones. Shown columns keep their order.
+	 * 
+	 * @param _tableId
+	 *            identifier of the table's classifier set
+	 */
+	private void showSelectedColumns(int _tableId) {
+		TableColumnModel columnModel = getTable(_tableId).getColumnModel();
+		TableColumn[] columns = classifierColumns[_tableId];
+		int visibleBefore = 0;
+		for (int column = 0; column < columns.length; column++) {
+			boolean selected = column >= viewItems.length
+					|| viewItems[column].getState();
+			int position = indexOf(columnModel, columns[column]);
+			if (selected && position < 0) {
+				columnModel.addColumn(columns[column]);
+				columnModel.moveColumn(columnModel.getColumnCount() - 1, Math
+						.min(visibleBefore, columnModel.getColumnCount() - 1));
+			} else if (!selected && position >= 0) {
+				columnModel.removeColumn(columns[column]);
+			}
+			if (selected)
+				visibleBefore++;
+		}
+	}
+
+	/**
+	 * Returns the position of a column in a column model.
+	 * 
+	 * @param _columnModel
+	 *            the column model
+	 * @param _column
+	 *            the column
+	 * @return the position of the column, or <code>-1</code> if the column
+	 *         model does not contain the column
+	 */
+	private static int indexOf(TableColumnModel _columnModel,
+			TableColumn _column) {
+		for (int i = 0; i < _columnModel.getColumnCount(); i++) {
+			if (_columnModel.getColumn(i) == _column)
+				return i;
+		}
+		return -1;
+	}
+
 	/**
 	 * Initializes the <code>jMenuItemExit</code> and adds an
 	 * <code>actionListener</code>. On click the program is closed.
@@ -660,6 +1108,14 @@ public class TableFrame extends JFrame {
 			jMenuView.setText("View");
 			jMenuView.add(getJMenuTable());
 			jMenuView.add(getJMenuItemChart());
+			jMenuView.add(getJMenuItemDashboard());
+			jMenuView.add(getJMenuItemDiff());
+			jMenuView.add(getJMenuItemConvergence());
+			jMenuView.add(getJMenuItemHeatmap());
+			jMenuView.add(getJMenuItemTimeSeries());
+			jMenuView.add(getJMenuItemValidate());
+			jMenuView.add(getJMenuItemMatchQuery());
+			jMenuView.add(getJMenuItemPlayback());
 		}
 		return jMenuView;
 	}
@@ -697,7 +1153,7 @@ public class TableFrame extends JFrame {
 							.addItemListener(new java.awt.event.ItemListener() {
 								public void itemStateChanged(
 										java.awt.event.ItemEvent e) {
-									refresh();
+									showSelectedColumns();
 								}
 							});
 					jMenuSelectColumns.add(viewItems[i]);
@@ -767,12 +1223,407 @@ public class TableFrame extends JFrame {
 		return jMenuNewChart;
 	}
 
+	/**
+	 * Initializes the <code>jMenuItemDashboard</code> and adds an
+	 * <code>actionListener</code>. On action a <code>DashboardFrame</code>
+	 * showing the histograms of all columns is opened.
+	 * 
+	 * @return the <code>jMenuItemDashboard</code>
+	 */
+	private JMenuItem getJMenuItemDashboard() {
+		if (jMenuItemDashboard == null) {
+			jMenuItemDashboard = new JMenuItem();
+			jMenuItemDashboard.setText("Dashboard");
+			jMenuItemDashboard
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							DashboardFrame dashboardFrame = new DashboardFrame(
+									TableFrame.this);
+							dashboardFrames.add(dashboardFrame);
+							dashboardFrame.display();
+						}
+					});
+		}
+		return jMenuItemDashboard;
+	}
+
+	/**
+	 * Initializes the <code>jMenuItemDiff</code> and adds an
+	 * <code>actionListener</code>. On action the user is asked for an
+	 * iteration and a <code>DiffFrame</code> shows the differences between
+	 * this iteration and the current iteration for the selected classifier
+	 * set.
+	 * 
+	 * @return the <code>jMenuItemDiff</code>
+	 */
+	private JMenuItem getJMenuItemDiff() {
+		if (jMenuItemDiff == null) {
+			jMenuItemDiff = new JMenuItem();
+			jMenuItemDiff.setText("Compare iterations");
+			jMenuItemDiff
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							if (currentElement == null)
+								return;
+							String input = JOptionPane.showInputDialog(
+									TableFrame.this,
+									"Compare current iteration with iteration:",
+									""
+											+ currentElement
+													.getPreviousElement()
+													.getIteration());
+							if (input == null)
+								return;
+							try {
+								double fromIteration = Double
+										.parseDouble(input);
+								int tableId = jTabbedPane.getSelectedIndex();
+								long start = System.currentTimeMillis();
+								ClassifierSetDiff diff = dataMemory.diff(
+										fromIteration, currentElement
+												.getIteration(), tableId);
+								long millis = System.currentTimeMillis()
+										- start;
+								new DiffFrame(diff, jTabbedPane
+										.getTitleAt(tableId), millis)
+										.display();
+							} catch (NumberFormatException nfe) {
+								// Conversion to double fails.
+								JOptionPane.showMessageDialog(TableFrame.this,
+										"No valid value");
+							}
+						}
+					});
+		}
+		return jMenuItemDiff;
+	}
+
+	/**
+	 * Initializes the <code>jMenuItemConvergence</code> and adds an
+	 * <code>actionListener</code>. On action a <code>ConvergenceFrame</code>
+	 * for the current log-file is opened.
+	 * 
+	 * @return the <code>jMenuItemConvergence</code>
+	 */
+	private JMenuItem getJMenuItemConvergence() {
+		if (jMenuItemConvergence == null) {
+			jMenuItemConvergence = new JMenuItem();
+			jMenuItemConvergence.setText("Convergence");
+			jMenuItemConvergence
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							if (dataMemory != null)
+								new ConvergenceFrame(dataMemory).display();
+						}
+					});
+		}
+		return jMenuItemConvergence;
+	}
+
+	/**
+	 * Initializes the <code>jMenuItemHeatmap</code> and adds an
+	 * <code>actionListener</code>. On action a <code>HeatmapFrame</code> for
+	 * the current log-file is opened.
+	 * 
+	 * @return the <code>jMenuItemHeatmap</code>
+	 */
+	private JMenuItem getJMenuItemHeatmap() {
+		if (jMenuItemHeatmap == null) {
+			jMenuItemHeatmap = new JMenuItem();
+			jMenuItemHeatmap.setText("Heatmap");
+			jMenuItemHeatmap
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							if (dataMemory != null)
+								new HeatmapFrame(dataMemory).display();
+						}
+					});
+		}
+		return jMenuItemHeatmap;
+	}
+
+	/**
+	 * Initializes the <code>jMenuItemTimeSeries</code> and adds an
+	 * <code>actionListener</code>. On action a <code>TimeSeriesFrame</code>
+	 * for the current log-file is opened.
+	 * 
+	 * @return the <code>jMenuItemTimeSeries</code>
+	 */
+	private JMenuItem getJMenuItemTimeSeries() {
+		if (jMenuItemTimeSeries == null) {
+			jMenuItemTimeSeries = new JMenuItem();
+			jMenuItemTimeSeries.setText("Time series");
+			jMenuItemTimeSeries
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							if (dataMemory != null)
+								new TimeSeriesFrame(TableFrame.this,
+										dataMemory).display();
+						}
+					});
+		}
+		return jMenuItemTimeSeries;
+	}
+
+	/**
+	 * Initializes the <code>jMenuItemValidate</code> and adds an
+	 * <code>actionListener</code>. On action the match sets of the current
+	 * log-file are validated.
+	 * 
+	 * @return the <code>jMenuItemValidate</code>
+	 */
+	private JMenuItem getJMenuItemValidate() {
+		if (jMenuItemValidate == null) {
+			jMenuItemValidate = new JMenuItem();
+			jMenuItemValidate.setText("Validate match sets");
+			jMenuItemValidate
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							if (dataMemory != null)
+								validateMatchSets(true);
+						}
+					});
+		}
+		return jMenuItemValidate;
+	}
+
+	/**
+	 * Initializes the <code>jMenuItemMatchQuery</code> and adds an
+	 * <code>actionListener</code>. On action a <code>MatchQueryFrame</code>
+	 * is opened for the current LCS input.
+	 * 
+	 * @return the <code>jMenuItemMatchQuery</code>
+	 */
+	private JMenuItem getJMenuItemMatchQuery() {
+		if (jMenuItemMatchQuery == null) {
+			jMenuItemMatchQuery = new JMenuItem();
+			jMenuItemMatchQuery.setText("Match input");
+			jMenuItemMatchQuery
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							openMatchQuery();
+						}
+					});
+		}
+		return jMenuItemMatchQuery;
+	}
+
+	/**
+	 * Initializes the <code>jMenuItemPlayback</code>. On click the rate,
+	 * stride and number of prefetched frames of the playback can be changed.
+	 * 
+	 * @return the <code>jMenuItemPlayback</code>
+	 */
+	private JMenuItem getJMenuItemPlayback() {
+		if (jMenuItemPlayback == null) {
+			jMenuItemPlayback = new JMenuItem();
+			jMenuItemPlayback.setText("Playback settings");
+			jMenuItemPlayback
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							JSpinner rate = new JSpinner(new SpinnerNumberModel(
+									playback.getRate(), 1, 100, 1));
+							JSpinner stride = new JSpinner(
+									new SpinnerNumberModel(playback
+											.getStride(), 1, 100000, 1));
+							JSpinner prefetched = new JSpinner(
+									new SpinnerNumberModel(playback
+											.getPrefetchedFrames(), 0, 100, 1));
+							JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+							panel.add(new JLabel("Frames per second"));
+							panel.add(rate);
+							panel.add(new JLabel("Iterations per frame"));
+							panel.add(stride);
+							panel.add(new JLabel("Prefetched frames"));
+							panel.add(prefetched);
+							if (JOptionPane.showConfirmDialog(TableFrame.this,
+									panel, "Playback settings",
+									JOptionPane.OK_CANCEL_OPTION) == JOptionPane.OK_OPTION) {
+								playback.setRate(((Number) rate.getValue())
+										.intValue());
+								playback.setStride(((Number) stride.getValue())
+										.intValue());
+								playback.setPrefetchedFrames(((Number) prefetched
+										.getValue()).intValue());
+							}
+						}
+					});
+		}
+		return jMenuItemPlayback;
+	}
+
+	/**
+	 * Shows an iteration during playback. Only the iteration number and the
+	 * <code>ChartFrame</code>s are updated; charts that are still computing
+	 * the previous frame skip this frame. The tables are updated when the
+	 * playback stops.
+	 * 
+	 * @param _element
+	 *            the iteration to show
+	 */
+	void showPlaybackFrame(DataElement _element) {
+		currentElement = _element;
+		tablesOutdated = true;
+		jTextFieldIteration.setText("" + currentElement.getIteration());
+		iterationScrubber.setCurrentElement(currentElement);
+		for (int i = 0; i < chartFrames.size(); i++) {
+			if (!chartFrames.get(i).isUpdating())
+				chartFrames.get(i).loadNewDataSet();
+		}
+		for (int i = 0; i < dashboardFrames.size(); i++) {
+			if (!dashboardFrames.get(i).isUpdating())
+				dashboardFrames.get(i).loadNewDataSet();
+		}
+	}
+
+	/**
+	 * Called when the playback stops. Shows the final iteration in the tables
+	 * and all charts.
+	 */
+	void playbackStopped() {
+		jToggleButtonPlay.setSelected(false);
+		jToggleButtonPlay.setText("Play");
+		if (tablesOutdated)
+			refresh();
+	}
+
+	/**
+	 * Returns the <code>DataMemory</code> of the opened log-file.
+	 * 
+	 * @return the <code>DataMemory</code>, or <code>null</code> if no
+	 *         log-file is opened
+	 */
+	DataMemory getDataMemory() {
+		return this.dataMemory;
+	}
+
+	/**
+	 * Returns all open <code>ChartFrame</code>s.
+	 * 
+	 * @return all open <code>ChartFrame</code>s
+	 */
+	Vector<ChartFrame> getChartFrames() {
+		return this.chartFrames;
+	}
+
+	/**
+	 * Opens a <code>MatchQueryFrame</code> for the input shown in
+	 * <code>jTextField_input</code>.
+	 */
+	private void openMatchQuery() {
+		if (dataMemory != null && currentElement != null)
+			new MatchQueryFrame(this, dataMemory, jTextField_input.getText())
+					.display();
+	}
+
+	/**
+	 * Recomputes the match sets of all iterations in the background and shows
+	 * a <code>MatchSetReportFrame</code> if a logged match set is incorrect.
+	 * 
+	 * @param _alwaysReport
+	 *            <code>true</code> to show the result even if all match sets
+	 *            are correct
+	 */
+	private void validateMatchSets(final boolean _alwaysReport) {
+		final MatchSetValidator validator = new MatchSetValidator(dataMemory);
+		new SwingWorker<Vector<MatchSetMismatch>, Object>() {
+			private long millis;
+
+			@Override
+			protected Vector<MatchSetMismatch> doInBackground()
+					throws Exception {
+				long start = System.currentTimeMillis();
+				Vector<MatchSetMismatch> mismatches = validator.validate();
+				millis = System.currentTimeMillis() - start;
+				return mismatches;
+			}
+
+			@Override
+			protected void done() {
+				try {
+					Vector<MatchSetMismatch> mismatches = get();
+					if (_alwaysReport || mismatches.size() > 0)
+						new MatchSetReportFrame(TableFrame.this, mismatches,
+								validator.getNumberOfSkipped(), millis)
+								.display();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		}.execute();
+	}
+
+	/**
+	 * Shows the <code>DataElement</code> whose iteration number is closest to
+	 * the given iteration.
+	 * 
+	 * @param _iteration
+	 *            an iteration number
+	 */
+	void showIteration(double _iteration) {
+		if (dataMemory != null)
+			navigateTo(dataMemory.searchElement(_iteration));
+	}
+
+	/**
+	 * Shows the <code>DataElement</code> at the given position of the
+	 * <code>DataMemory</code>.
+	 * 
+	 * @param _index
+	 *            position of the element (<code>0</code> to
+	 *            <code>size() - 1</code>)
+	 */
+	void showElementAt(int _index) {
+		if (dataMemory != null)
+			navigateTo(dataMemory.getElement(_index));
+	}
+
+	/**
+	 * Makes the given <code>DataElement</code> the current element. The
+	 * iteration number is updated at once, but the tables and charts are
+	 * refreshed at most once per frame budget (see
+	 * <code>LogFileAnalyzer.setNavigationFrameBudget()</code>). Navigation
+	 * events arriving in the meantime are coalesced, so only the most recent
+	 * iteration is displayed.
+	 * 
+	 * @param _element
+	 *            the new current element
+	 */
+	private void navigateTo(DataElement _element) {
+		if (_element == null || _element == currentElement)
+			return;
+		currentElement = _element;
+		jTextFieldIteration.setText("" + currentElement.getIteration());
+		iterationScrubber.setCurrentElement(currentElement);
+
+		if (refreshTimer.isRunning())
+			return; // The pending refresh will show the new element.
+		long wait = lastRefresh
+				+ LogFileAnalyzer.getInstance().getNavigationFrameBudget()
+				- System.currentTimeMillis();
+		if (wait <= 0) {
+			refresh();
+		} else {
+			refreshTimer.setInitialDelay((int) wait);
+			refreshTimer.start();
+		}
+	}
+
 	/**
 	 * Constructor. Starts the GUI.
 	 */
 	public TableFrame() {
 		super();
 		chartFrames = new Vector<ChartFrame>();
+		dashboardFrames = new Vector<DashboardFrame>();
+		refreshTimer = new javax.swing.Timer(0,
+				new java.awt.event.ActionListener() {
+					public void actionPerformed(java.awt.event.ActionEvent e) {
+						refresh();
+					}
+				});
+		refreshTimer.setRepeats(false);
+		playback = new Playback(this);
 		initialize();
 		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		this.setVisible(true);
@@ -787,6 +1638,40 @@ public class TableFrame extends JFrame {
 		this.setJMenuBar(getJJMenuBar());
 		this.setContentPane(getJContentPane());
 		this.setTitle("LogFileAnalyzer " + LogFileAnalyzer.getVERSION());
+
+		// Alt+Left and Alt+Right step through the iterations (holding the
+		// keys repeats the step)...
+		InputMap inputMap = getRootPane().getInputMap(
+				JComponent.WHEN_IN_FOCUSED_WINDOW);
+		inputMap.put(KeyStroke.getKeyStroke("alt LEFT"), "previousIteration");
+		inputMap.put(KeyStroke.getKeyStroke("alt RIGHT"), "nextIteration");
+		getRootPane().getActionMap().put("previousIteration",
+				new AbstractAction() {
+					public void actionPerformed(java.awt.event.ActionEvent e) {
+						if (currentElement != null)
+							navigateTo(currentElement.getPreviousElement());
+					}
+				});
+		getRootPane().getActionMap().put("nextIteration",
+				new AbstractAction() {
+					public void actionPerformed(java.awt.event.ActionEvent e) {
+						if (currentElement != null)
+							navigateTo(currentElement.getNextElement());
+					}
+				});
+	}
+
+	/**
+	 * Initializes the <code>iterationScrubber</code> below the
+	 * <code>jPanelControlpane</code>.
+	 * 
+	 * @return the <code>iterationScrubber</code>
+	 */
+	private IterationScrubber getIterationScrubber() {
+		if (iterationScrubber == null) {
+			iterationScrubber = new IterationScrubber(this);
+		}
+		return iterationScrubber;
 	}
 
 	/**
@@ -798,20 +1683,25 @@ public class TableFrame extends JFrame {
 		if (jContentPane == null) {
 			jContentPane = new JPanel();
 			jContentPane.setLayout(new BorderLayout());
-			jContentPane.add(getJPanelControlpane(), BorderLayout.NORTH);
+			JPanel jPanelNavigation = new JPanel(new BorderLayout());
+			jPanelNavigation.add(getJPanelControlpane(), BorderLayout.NORTH);
+			jPanelNavigation.add(getIterationScrubber(), BorderLayout.SOUTH);
+			jContentPane.add(jPanelNavigation, BorderLayout.NORTH);
 			jContentPane.add(getJTabbedPane(), BorderLayout.CENTER);
+			jContentPane.add(getJPanelFilter(), BorderLayout.SOUTH);
 		}
 		return jContentPane;
 	}
 
 	/**
-	 * Refreshes the tables and all open <code>ChartFrame</code>s. The method
-	 * removes columns deselected in the View->Columns-Menu, resizes the column
-	 * width and sets <code>RowSorter</code>s for the tables. If the
+	 * Refreshes the table of the selected tab and all open
+	 * <code>ChartFrame</code>s (see <code>bindTable()</code>). If the
 	 * currentElement is <code>null</code>, the controls are disabled and a
 	 * notification is shown.
 	 */
 	private void refresh() {
+		refreshTimer.stop();
+		tablesOutdated = false;
 		refreshCharts();
 		if (this.currentElement != null) {
 			// enable controls
@@ -821,61 +1711,13 @@ public class TableFrame extends JFrame {
 			jButtonFirst.setEnabled(true);
 			jButtonLast.setEnabled(true);
 
-			/*
-			 * Delete contents of the tables and show notification. This is
-			 * necessary to ensure that the new data is shown correctly.
-			 */
-			DefaultTableModel DTM = new DefaultTableModel(1, 1);
-			DTM.setValueAt("Daten werden aktualisiert", 0, 0);
-			String[] Header = { "Information" };
-			DTM.setColumnIdentifiers(Header);
-			jTablePopulation.setModel(DTM);
-			jTableMatchSet.setModel(DTM);
-			jTableActionSet.setModel(DTM);
-
-			// Show data of the current element.
+			// Show data of the current element. Only the table of the
+			// selected tab is updated; the other tables are updated when
+			// their tab is selected...
 			jTextFieldIteration.setText("" + currentElement.getIteration());
 			jTextField_input.setText(currentElement.getInput());
-			jTablePopulation.setModel(currentElement.getPopulation());
-			jTableMatchSet.setModel(currentElement.getMatchSet());
-			jTableActionSet.setModel(currentElement.getActionSet());
-
-			// Remove deselected columns
-			for (int i = 0; i < viewItems.length; i++) {
-				if (!viewItems[i].getState()) {
-					try {
-						jTablePopulation.removeColumn(jTablePopulation
-								.getColumn(viewItems[i].getName()));
-						jTableMatchSet.removeColumn(jTableMatchSet
-								.getColumn(viewItems[i].getName()));
-						jTableActionSet.removeColumn(jTableActionSet
-								.getColumn(viewItems[i].getName()));
-					} catch (IllegalArgumentException e) {
-						// ignore this part.
-					}
-
-				}
-			}
-
-			// If autoResize is true, use resizeTable-method.
-			if (LogFileAnalyzer.getInstance().getAutoResize()) {
-				resizeTable(jTablePopulation);
-				resizeTable(jTableMatchSet);
-				resizeTable(jTableActionSet);
-			}
-
-			// add RowSorter
-			addTableRowSort(jTablePopulation);
-			addTableRowSort(jTableMatchSet);
-			addTableRowSort(jTableActionSet);
-
-			// Update title...
-			jTablePopulation.setName("Population @"
-					+ currentElement.getIteration());
-			jTableMatchSet
-					.setName("MatchSet @" + currentElement.getIteration());
-			jTableActionSet.setName("ActionSet @"
-					+ currentElement.getIteration());
+			iterationScrubber.setCurrentElement(currentElement);
+			bindTable(jTabbedPane.getSelectedIndex());
 		} else {
 			// disable controls.
 			jTextFieldIteration.setText("File contains no information");
@@ -890,9 +1732,15 @@ public class TableFrame extends JFrame {
 			String[] Name = { "Information" };
 			DTM.setColumnIdentifiers(Name);
 
-			jTablePopulation.setModel(DTM);
-			jTableMatchSet.setModel(DTM);
-			jTableActionSet.setModel(DTM);
+			for (int tableId = 0; tableId < 3; tableId++) {
+				JTable table = getTable(tableId);
+				table.setRowSorter(null);
+				table.setAutoCreateColumnsFromModel(true);
+				table.setModel(DTM);
+			}
+			discardClassifierColumns();
+			jLabelFilterStatus.setText(" ");
+			iterationScrubber.setCurrentElement(null);
 
 			// If autoResize is true, use resizeTable-method.
 			if (LogFileAnalyzer.getInstance().getAutoResize()) {
@@ -907,6 +1755,7 @@ public class TableFrame extends JFrame {
 			jTableActionSet.setName("ActionSet");
 		}
 
+		lastRefresh = System.currentTimeMillis();
 	}
 
 	/**
@@ -916,45 +1765,21 @@ public class TableFrame extends JFrame {
 		for (int i = 0; i < this.chartFrames.size(); i++) {
 			chartFrames.get(i).loadNewDataSet();
 		}
+		for (int i = 0; i < this.dashboardFrames.size(); i++) {
+			dashboardFrames.get(i).loadNewDataSet();
+		}
 	}
 
 	/**
 	 * Resizes the column widths of a table to fit the size of the contents and
-	 * the header.
+	 * the header. Widths are estimated from the longest cell of every column
+	 * and cached across iterations (see <code>ColumnSizer</code>).
 	 * 
 	 * @param table
 	 *            table used for resize
 	 */
 	private void resizeTable(JTable table) {
-		// resize every column i
-		for (int i = 0; i < table.getColumnCount(); i++) {
-			TableColumnModel columnModel = table.getColumnModel();
-			TableColumn column = columnModel.getColumn(i);
-
-			int headerWidth = 0;
-			int cellWidth = 0;
-
-			// Use headerRenderer to calculate header-size
-			TableCellRenderer headerRenderer = table.getTableHeader()
-					.getDefaultRenderer();
-			headerWidth = headerRenderer.getTableCellRendererComponent(null,
-					column.getHeaderValue(), false, false, 0, 0)
-					.getPreferredSize().width;
-
-			// for every row j
-			for (int j = 0; j < table.getModel().getRowCount(); j++) {
-				// convert Table-column to Model-column
-				int modelColumn = table.convertColumnIndexToModel(i);
-
-				Object Inhalt = table.getModel().getValueAt(j, modelColumn);
-				int Width = table.getDefaultRenderer(table.getColumnClass(i))
-						.getTableCellRendererComponent(table, Inhalt, false,
-								false, 0, i).getPreferredSize().width;
-				cellWidth = Math.max(cellWidth, Width);
-			}
-			// set column-with to maximum of header- and content-width
-			column.setPreferredWidth(Math.max(headerWidth, cellWidth) + 3);
-		}
+		ColumnSizer.getColumnSizer(table).resize();
 	}
 
 	/**
@@ -964,6 +1789,17 @@ public class TableFrame extends JFrame {
 	 *            table that will equipped with <code>RowSorter</code>s
 	 */
 	private void addTableRowSort(JTable table) {
+		// Classifier sets are sorted by cached sort permutations; the sort
+		// keys are kept when showing another iteration...
+		if (table.getModel() instanceof ClassifierTableModel) {
+			ClassifierTableModel model = (ClassifierTableModel) table
+					.getModel();
+			ClassifierRowSorter sorter = ClassifierRowSorter.getRowSorter(
+					table, model);
+			sorter.setModel(model);
+			table.setRowSorter(sorter);
+			return;
+		}
 		TableRowSorter<TableModel> sorter = new TableRowSorter<TableModel>(
 				table.getModel());
 		for (int i = 0; i < table.getModel().getColumnCount(); i++)
@@ -981,6 +1817,19 @@ public class TableFrame extends JFrame {
 		return this.currentElement;
 	}
 
+	/**
+	 * Returns the <code>DataElement</code> whose data is shown in a table.
+	 * 
+	 * @param _tableId
+	 *            identifier of the table (<code>0</code> for population,
+	 *            <code>1</code> for match set, <code>2</code> for action set)
+	 * @return the <code>DataElement</code> shown in the table, or
+	 *         <code>null</code> if the table shows no data
+	 */
+	DataElement getBoundElement(int _tableId) {
+		return this.boundElements[_tableId];
+	}
+
 	/**
 	 * Stores a new <code>ChartFrame</code> into this class' vector of
 	 * <code>ChartFrame</code>s.
@@ -1003,6 +1852,17 @@ public class TableFrame extends JFrame {
 		chartFrames.remove(deleteChartFrame);
 	}
 
+	/**
+	 * Deletes a <code>DashboardFrame</code> out of this class' vector of
+	 * <code>DashboardFrame</code>s.
+	 * 
+	 * @param _dashboardFrame
+	 *            <code>DashboardFrame</code> to delete
+	 */
+	void removeDashboardFrame(DashboardFrame _dashboardFrame) {
+		dashboardFrames.remove(_dashboardFrame);
+	}
+
 	/**
 	 * Initializes <code>jTextField_input</code>.
 	 * 
@@ -1011,7 +1871,14 @@ public class TableFrame extends JFrame {
 	private JTextField getJTextField_input() {
 		if (jTextField_input == null) {
 			jTextField_input = new JTextField();
-			jTextField_input.setEditable(false);
+			jTextField_input.setToolTipText("Type an input and press Enter "
+					+ "to see the matching classifiers");
+			jTextField_input
+					.addActionListener(new java.awt.event.ActionListener() {
+						public void actionPerformed(java.awt.event.ActionEvent e) {
+							openMatchQuery();
+						}
+					});
 		}
 		return jTextField_input;
 	}
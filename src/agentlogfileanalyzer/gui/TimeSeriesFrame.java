@@ -0,0 +1,342 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.gui;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+import javax.swing.*;
+
+import org.jfree.chart.*;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.event.AxisChangeEvent;
+import org.jfree.chart.event.AxisChangeListener;
+import org.jfree.chart.plot.ValueMarker;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.Range;
+import org.jfree.data.xy.DefaultXYDataset;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.sketch.RunSeries;
+
+/**
+ * Provides a frame charting a metric over all iterations of a run, e.g. the
+ * population size or the mean fitness of the population. The series is
+ * downsampled to the width of the chart with the min/max pyramid of a
+ * <code>RunSeries</code>, so zooming and panning only re-query the visible
+ * range. Clicking into the chart shows the nearest iteration in the
+ * <code>TableFrame</code>.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+@SuppressWarnings("serial")
+public class TimeSeriesFrame extends JFrame {
+
+	/**
+	 * <code>TableFrame</code> that opened this frame
+	 */
+	private TableFrame myTableFrame;
+
+	/**
+	 * Contains all iterations of the run
+	 */
+	private DataMemory dataMemory;
+
+	/**
+	 * Selects the displayed metric.
+	 */
+	private JComboBox jComboBoxMetric = null;
+
+	/**
+	 * Shows the number of displayed points and the query time.
+	 */
+	private JLabel jLabelStatus = null;
+
+	/**
+	 * Contains the chart.
+	 */
+	private ChartPanel chartPanel = null;
+
+	/**
+	 * The plot of the chart
+	 */
+	private XYPlot plot = null;
+
+	/**
+	 * The downsampled series
+	 */
+	private DefaultXYDataset dataset = null;
+
+	/**
+	 * Marks the iteration selected last.
+	 */
+	private ValueMarker marker = null;
+
+	/**
+	 * The displayed series; <code>null</code> while it is computed
+	 */
+	private RunSeries runSeries = null;
+
+	/**
+	 * Range of iterations downsampled last
+	 */
+	private Range sampledRange = null;
+
+	/**
+	 * Computes the series in the background; <code>null</code> if no
+	 * computation is running
+	 */
+	private SwingWorker<RunSeries, Object> seriesWorker = null;
+
+	/**
+	 * Creates a frame charting the metrics of a run.
+	 * 
+	 * @param _myTableFrame
+	 *            <code>TableFrame</code> that opened this frame
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 */
+	TimeSeriesFrame(TableFrame _myTableFrame, DataMemory _dataMemory) {
+		super("Time series");
+		this.myTableFrame = _myTableFrame;
+		this.dataMemory = _dataMemory;
+
+		DataElement last = _dataMemory.getLastElement();
+		jComboBoxMetric = new JComboBox(last == null ? RunSummary
+				.getMetricNames() : RunSummary.getMetricNames(last
+				.getPopulation()));
+		jComboBoxMetric.setMaximumRowCount(10);
+		jComboBoxMetric.addItemListener(new java.awt.event.ItemListener() {
+			public void itemStateChanged(java.awt.event.ItemEvent e) {
+				if (e.getStateChange() == java.awt.event.ItemEvent.SELECTED)
+					updateSeries();
+			}
+		});
+		JPanel jPanelControls = new JPanel();
+		jPanelControls.add(jComboBoxMetric);
+
+		dataset = new DefaultXYDataset();
+		NumberAxis xAxis = new NumberAxis("iteration");
+		xAxis.setAutoRangeIncludesZero(false);
+		xAxis.setLowerMargin(0);
+		xAxis.setUpperMargin(0);
+		NumberAxis yAxis = new NumberAxis();
+		yAxis.setAutoRangeIncludesZero(false);
+		plot = new XYPlot(dataset, xAxis, yAxis, new XYLineAndShapeRenderer(
+				true, false));
+		plot.setBackgroundPaint(Color.white);
+		plot.setDomainGridlinePaint(Color.lightGray);
+		plot.setRangeGridlinePaint(Color.lightGray);
+		marker = new ValueMarker(0, Color.red, new BasicStroke(1f));
+		xAxis.addChangeListener(new AxisChangeListener() {
+			public void axisChanged(AxisChangeEvent _event) {
+				sampleVisibleRange();
+			}
+		});
+
+		chartPanel = new ChartPanel(new JFreeChart(null,
+				JFreeChart.DEFAULT_TITLE_FONT, plot, false));
+		chartPanel.setMouseZoomable(true);
+		chartPanel.addChartMouseListener(new ChartMouseListener() {
+			public void chartMouseClicked(ChartMouseEvent _event) {
+				showIterationAt(_event.getTrigger().getPoint());
+			}
+
+			public void chartMouseMoved(ChartMouseEvent _event) {
+			}
+		});
+
+		jLabelStatus = new JLabel(" ");
+
+		JPanel jPanelContentpane = new JPanel(new BorderLayout());
+		jPanelContentpane.add(jPanelControls, BorderLayout.NORTH);
+		jPanelContentpane.add(chartPanel, BorderLayout.CENTER);
+		jPanelContentpane.add(jLabelStatus, BorderLayout.SOUTH);
+		setContentPane(jPanelContentpane);
+		setSize(800, 400);
+	}
+
+	/**
+	 * Displays this frame on the screen and computes the first series.
+	 */
+	public void display() {
+		setVisible(true);
+		updateSeries();
+	}
+
+	/**
+	 * Stops the computation of the series and disposes this frame.
+	 */
+	public void dispose() {
+		if (seriesWorker != null)
+			seriesWorker.cancel(true);
+		super.dispose();
+	}
+
+	/**
+	 * Computes the series of the selected metric in the background. A running
+	 * computation is cancelled.
+	 */
+	private void updateSeries() {
+		final int metric = RunSummary.getMetricIndex((String) jComboBoxMetric
+				.getSelectedItem());
+		if (metric < 0 || dataMemory.size() == 0)
+			return;
+		if (seriesWorker != null)
+			seriesWorker.cancel(true);
+		runSeries = null;
+		plot.getRangeAxis().setLabel((String) jComboBoxMetric.getSelectedItem());
+
+		RunSeries known = RunSeries.lookup(dataMemory, metric);
+		if (known != null) {
+			showSeries(known);
+			return;
+		}
+		jLabelStatus.setText("Computing series of " + dataMemory.size()
+				+ " iterations...");
+		seriesWorker = new SwingWorker<RunSeries, Object>() {
+			@Override
+			protected RunSeries doInBackground() throws Exception {
+				return RunSeries.getRunSeries(dataMemory, metric);
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled() || seriesWorker != this)
+					return;
+				seriesWorker = null;
+				try {
+					showSeries(get());
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		};
+		seriesWorker.execute();
+	}
+
+	/**
+	 * Shows a computed series. The chart is zoomed out to the whole run.
+	 * 
+	 * @param _runSeries
+	 *            the series
+	 */
+	private void showSeries(RunSeries _runSeries) {
+		runSeries = _runSeries;
+		sampledRange = null;
+		NumberAxis xAxis = (NumberAxis) plot.getDomainAxis();
+		double first = runSeries.getIteration(0);
+		double last = runSeries.getIteration(runSeries.size() - 1);
+		xAxis.setDefaultAutoRange(new Range(first, Math.max(last, first + 1)));
+		if (xAxis.isAutoRange())
+			sampleVisibleRange();
+		else
+			xAxis.setAutoRange(true);
+		plot.getRangeAxis().setAutoRange(true);
+	}
+
+	/**
+	 * Downsamples the visible range of iterations to the width of the chart.
+	 * The first and the last iteration of the run are always included, so
+	 * restoring the automatic bounds zooms out to the whole run.
+	 */
+	private void sampleVisibleRange() {
+		if (runSeries == null)
+			return;
+		Range visible = plot.getDomainAxis().getRange();
+		if (visible.equals(sampledRange))
+			return;
+		sampledRange = visible;
+
+		long start = System.nanoTime();
+		int size = runSeries.size();
+		int fromIndex = Math.max(0, dataMemory.indexOf(dataMemory
+				.searchElement(visible.getLowerBound())) - 1);
+		int toIndex = Math.min(size, dataMemory.indexOf(dataMemory
+				.searchElement(visible.getUpperBound())) + 2);
+		int buckets = Math.max(100, chartPanel.getWidth());
+		int[] positions = runSeries.downsample(fromIndex, toIndex, buckets);
+
+		boolean addFirst = positions.length == 0 || positions[0] > 0;
+		boolean addLast = positions.length == 0
+				|| positions[positions.length - 1] < size - 1;
+		double[][] data = new double[2][positions.length + (addFirst ? 1 : 0)
+				+ (addLast ? 1 : 0)];
+		int item = 0;
+		if (addFirst)
+			item = setItem(data, item, 0);
+		for (int i = 0; i < positions.length; i++)
+			item = setItem(data, item, positions[i]);
+		if (addLast)
+			item = setItem(data, item, size - 1);
+		dataset.addSeries("series", data);
+		long micros = (System.nanoTime() - start) / 1000;
+
+		jLabelStatus.setText(positions.length + " of " + (toIndex - fromIndex)
+				+ " iterations shown (" + micros + " \u00b5s)");
+	}
+
+	/**
+	 * Stores an iteration of the series as item of the dataset.
+	 * 
+	 * @param _data
+	 *            the data of the dataset
+	 * @param _item
+	 *            position of the item
+	 * @param _index
+	 *            position of the iteration
+	 * @return the position of the next item
+	 */
+	private int setItem(double[][] _data, int _item, int _index) {
+		_data[0][_item] = runSeries.getIteration(_index);
+		_data[1][_item] = runSeries.getValue(_index);
+		return _item + 1;
+	}
+
+	/**
+	 * Shows the iteration below a point of the chart panel in the
+	 * <code>TableFrame</code> and marks it in the chart.
+	 * 
+	 * @param _point
+	 *            the point on the chart panel
+	 */
+	private void showIterationAt(Point _point) {
+		Rectangle2D dataArea = chartPanel.getScreenDataArea();
+		if (runSeries == null || !dataArea.contains(_point))
+			return;
+		Point2D java2DPoint = chartPanel.translateScreenToJava2D(_point);
+		double iteration = plot.getDomainAxis().java2DToValue(
+				java2DPoint.getX(),
+				chartPanel.getChartRenderingInfo().getPlotInfo()
+						.getDataArea(), plot.getDomainAxisEdge());
+		DataElement element = dataMemory.searchElement(iteration);
+		if (element == null)
+			return;
+		marker.setValue(element.getIteration());
+		plot.removeDomainMarker(marker);
+		plot.addDomainMarker(marker);
+		myTableFrame.showIteration(element.getIteration());
+	}
+}
@@ -24,6 +24,7 @@ package agentlogfileanalyzer.histogram;
 
 import java.awt.Color;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 import javax.swing.JPanel;
 import javax.swing.JTextArea;
@@ -33,7 +34,7 @@ import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.data.statistics.HistogramDataset;
+import org.jfree.chart.plot.XYPlot;
 
 import agentlogfileanalyzer.DataElement;
 
@@ -42,12 +43,30 @@ import agentlogfileanalyzer.DataElement;
  * Abstract class for histograms. Inherit from this abstract class when creating
  * new histograms. The <code>calculateHistogramData()</code>-method has to
  * provide the data displayed in the histogram.
+ * <p>
+ * Histograms can provide their data either as <code>Vector&lt;Double&gt;</code>
+ * (by implementing <code>calculateHistogramData(DefaultTableModel)</code>) or
+ * in a reusable primitive buffer (by extending <code>PrimitiveHistogram</code>).
+ * Internally, all data is processed as primitive values; data of
+ * <code>Vector</code>-based histograms is copied into the buffer. Subclasses
+ * only supply data: charts are created by <code>createChart()</code> and
+ * can be reused for other data with <code>updateChart()</code>.
  * 
  * @author Clemens Gersbacher, Holger Prothmann
  * 
  */
 public abstract class AbstractHistogram {
 
+	/**
+	 * Buffers reused for the histogram data of each thread
+	 */
+	private static final ThreadLocal<HistogramValues> buffers = new ThreadLocal<HistogramValues>() {
+		@Override
+		protected HistogramValues initialValue() {
+			return new HistogramValues();
+		}
+	};
+
 	/**
 	 * Describes this histogram. The description is used for identification in
 	 * the histogram selection and as histogram title.
@@ -55,7 +74,8 @@ public abstract class AbstractHistogram {
 	String description;
 
 	/**
-	 * Number of classifiers shown in the histogram
+	 * Number of classifiers shown in the histogram created last by
+	 * <code>createHistogram()</code>
 	 */
 	private int numberOfVisibleClassifiers;
 
@@ -86,7 +106,7 @@ public abstract class AbstractHistogram {
 	/**
 	 * Returns a panel containing a histogram. The data displayed in the
 	 * histogram is given as parameter. Data not inside the given limits is
-	 * discarded.
+	 * discarded. The bin width is chosen automatically.
 	 * 
 	 * @param _dataElement
 	 *            a <code>DataElement</code> containing the classifier sets of
@@ -105,31 +125,108 @@ public abstract class AbstractHistogram {
 
 	public JPanel createHistogram(DataElement _dataElement,
 			int _selectedTableId, double _lowerLimit, double _upperLimit) {
+		return createHistogram(_dataElement, _selectedTableId, _lowerLimit,
+				_upperLimit, Binning.DEFAULT);
+	}
 
-		DefaultTableModel selectedTable;
-		selectedTable = _dataElement.getPopulation();
-
-		if (_selectedTableId == 1) {
-			selectedTable = _dataElement.getMatchSet();
-		}
-		if (_selectedTableId == 2) {
-			selectedTable = _dataElement.getActionSet();
-		}
-
-		Vector<Double> histogramData = new Vector<Double>();
+	/**
+	 * Returns a panel containing a histogram. The data displayed in the
+	 * histogram is given as parameter. Data not inside the given limits is
+	 * discarded.
+	 * 
+	 * @param _dataElement
+	 *            a <code>DataElement</code> containing the classifier sets of
+	 *            an iteration
+	 * @param _selectedTableId
+	 *            identifier of the selected table (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _lowerLimit
+	 *            the lower limit that was entered by the user
+	 * @param _upperLimit
+	 *            the upper limit that was entered by the user
+	 * @param _binning
+	 *            determines the bins of the histogram
+	 * 
+	 * @return a <code>JPanel</code> containing the histogram
+	 */
+	public JPanel createHistogram(DataElement _dataElement,
+			int _selectedTableId, double _lowerLimit, double _upperLimit,
+			Binning _binning) {
+		HistogramBins bins;
 		try {
-			// This abstract method must be implemented according to your needs!
-			histogramData = calculateHistogramData(selectedTable);
+			bins = calculateBins(_dataElement, _selectedTableId, _lowerLimit,
+					_upperLimit, _binning);
 		} catch (NumberFormatException nfe) {
-			return createErrorPanel(this + " cannot be displayed as histogram.");
+			return createUnsupportedDataPanel();
 		}
+		return createHistogram(bins);
+	}
 
-		// Create the histogram based on the data you calculated...
-		return createHistogram(histogramData, _lowerLimit, _upperLimit);
+	/**
+	 * Computes the bins of the histogram for the given classifier set. Data
+	 * not inside the given limits is discarded.
+	 * 
+	 * @param _dataElement
+	 *            a <code>DataElement</code> containing the classifier sets of
+	 *            an iteration
+	 * @param _selectedTableId
+	 *            identifier of the selected table (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _lowerLimit
+	 *            the lower limit that was entered by the user
+	 * @param _upperLimit
+	 *            the upper limit that was entered by the user
+	 * @param _binning
+	 *            determines the bins of the histogram
+	 * @return the bins of the histogram
+	 * @throws NumberFormatException
+	 *             if the data of the classifier set cannot be displayed in
+	 *             this histogram
+	 * @throws CancellationException
+	 *             if the calling thread is interrupted (e.g. because the
+	 *             computation was cancelled)
+	 */
+	public HistogramBins calculateBins(DataElement _dataElement,
+			int _selectedTableId, double _lowerLimit, double _upperLimit,
+			Binning _binning) throws NumberFormatException {
+
+		DefaultTableModel selectedTable = _dataElement
+				.getClassifierSet(_selectedTableId);
+
+		HistogramValues histogramData = buffers.get();
+		histogramData.clear();
+		// This method must be implemented according to your needs!
+		calculateHistogramData(selectedTable, histogramData);
+		checkCancelled();
+
+		// Remove values outside the given limits...
+		histogramData.retainWithinLimits(_lowerLimit, _upperLimit);
+
+		HistogramBins bins = _binning.bin(histogramData);
+		checkCancelled();
+		return bins;
+	}
+
+	/**
+	 * Stops a computation of histogram data if the calling thread is
+	 * interrupted. Subclasses call this method regularly while reading the
+	 * rows of a classifier set, so cancelled computations do not keep a
+	 * worker thread busy.
+	 * 
+	 * @throws CancellationException
+	 *             if the calling thread is interrupted
+	 */
+	protected static void checkCancelled() throws CancellationException {
+		if (Thread.currentThread().isInterrupted())
+			throw new CancellationException("Histogram computation cancelled");
 	}
 
 	/**
 	 * Abstract method. Determines the data displayed in the histogram.
+	 * Subclasses of <code>PrimitiveHistogram</code> provide their data without
+	 * boxing and do not need to implement this method.
 	 * 
 	 * @param _selectedTable
 	 *            the table that was selected by the user as basis for the
@@ -139,6 +236,27 @@ public abstract class AbstractHistogram {
 	public abstract Vector<Double> calculateHistogramData(
 			DefaultTableModel _selectedTable);
 
+	/**
+	 * Determines the data displayed in the histogram and appends it to the
+	 * given buffer. The default implementation copies the data returned by
+	 * <code>calculateHistogramData(DefaultTableModel)</code>; histograms that
+	 * extend <code>PrimitiveHistogram</code> fill the buffer directly.
+	 * 
+	 * @param _selectedTable
+	 *            the table that was selected by the user as basis for the
+	 *            histogram
+	 * @param _values
+	 *            buffer receiving the data that will be displayed in the
+	 *            histogram
+	 */
+	public void calculateHistogramData(DefaultTableModel _selectedTable,
+			HistogramValues _values) {
+		Vector<Double> histogramData = calculateHistogramData(_selectedTable);
+		_values.ensureCapacity(_values.size() + histogramData.size());
+		for (int i = 0; i < histogramData.size(); i++)
+			_values.add(histogramData.get(i).doubleValue());
+	}
+
 	/**
 	 * Returns a panel containing a histogram. The data displayed in the
 	 * histogram is given as parameter. Data not inside the given limits is
@@ -154,53 +272,104 @@ public abstract class AbstractHistogram {
 	 */
 	JPanel createHistogram(Vector<Double> _histogramData, double _lowerLimit,
 			double _upperLimit) {
+		HistogramValues histogramData = new HistogramValues();
+		histogramData.ensureCapacity(_histogramData.size());
+		for (int i = 0; i < _histogramData.size(); i++)
+			histogramData.add(_histogramData.get(i).doubleValue());
+		return createHistogram(histogramData, _lowerLimit, _upperLimit);
+	}
 
-		// Remove values outside the given limits...
-		Vector<Double> vectorHistogramDataWithinLimits = new Vector<Double>();
-		for (Iterator<Double> iterator = _histogramData.iterator(); iterator
-				.hasNext();) {
-			double d = ((Double) iterator.next()).doubleValue();
-			if (valueWithinLimits(d, _lowerLimit, _upperLimit)) {
-				vectorHistogramDataWithinLimits.add(d);
-			}
-		}
+	/**
+	 * Returns a panel containing a histogram. The data displayed in the
+	 * histogram is given as parameter. Data not inside the given limits is
+	 * removed from the buffer.
+	 * 
+	 * @param _histogramData
+	 *            the data displayed in the histogram
+	 * @param _lowerLimit
+	 *            the lower limit that was entered by the user
+	 * @param _upperLimit
+	 *            the upper limit that was entered by the user
+	 * @return a <code>JPanel</code> containing the histogram
+	 */
+	JPanel createHistogram(HistogramValues _histogramData,
+			double _lowerLimit, double _upperLimit) {
 
-		// Store number of elements shown in histogram...
-		this.numberOfVisibleClassifiers = vectorHistogramDataWithinLimits
-				.size();
+		// Remove values outside the given limits...
+		_histogramData.retainWithinLimits(_lowerLimit, _upperLimit);
 
-		// Convert vector to array...
-		double[] arrayHistogramDataWithinLimits = new double[vectorHistogramDataWithinLimits
-				.size()];
-		for (int i = 0; i < vectorHistogramDataWithinLimits.size(); i++) {
-			double d = vectorHistogramDataWithinLimits.get(i).doubleValue();
-			arrayHistogramDataWithinLimits[i] = d;
-		}
+		HistogramBins bins = Binning.DEFAULT.bin(_histogramData);
+		return createHistogram(bins);
+	}
 
-		if (arrayHistogramDataWithinLimits.length > 0) { // Create
-			// histogram...
-			HistogramDataset data = new HistogramDataset();
-			data.addSeries("Suchwert", // key
-					arrayHistogramDataWithinLimits, // data
-					Math.max(100, arrayHistogramDataWithinLimits.length) // #bins
-					);
-
-			JFreeChart chart = ChartFactory.createHistogram(description, // title
-					description, // x axis label
-					"frequency", // y axis label
-					data, // data
-					PlotOrientation.VERTICAL, // orientation
-					false, // legend
-					true, // tooltips
-					false // URL
-					);
-
-			return new ChartPanel(chart);
+	/**
+	 * Returns a panel containing a histogram of the given bins.
+	 * 
+	 * @param _bins
+	 *            the bins displayed in the histogram
+	 * @return a <code>JPanel</code> containing the histogram
+	 */
+	public JPanel createHistogram(HistogramBins _bins) {
+		this.numberOfVisibleClassifiers = _bins.getNumberOfValues();
+		if (_bins.getNumberOfValues() > 0) { // Create histogram...
+			return new ChartPanel(createChart(_bins));
 		} else {
 			return createErrorPanel("No data available (within the given limits).");
 		}
 	}
 
+	/**
+	 * Returns a chart of the given bins. Does not create any Swing components,
+	 * so the chart can be created outside the Event Dispatch Thread. The
+	 * method is final, so the charts of all histograms can be updated by
+	 * <code>updateChart()</code>.
+	 * 
+	 * @param _bins
+	 *            the bins displayed in the histogram
+	 * @return the chart
+	 */
+	public final JFreeChart createChart(HistogramBins _bins) {
+		return ChartFactory.createHistogram(description, // title
+				description, // x axis label
+				"frequency", // y axis label
+				new HistogramBinsDataset(_bins), // data
+				PlotOrientation.VERTICAL, // orientation
+				false, // legend
+				true, // tooltips
+				false // URL
+				);
+	}
+
+	/**
+	 * Shows the given bins in a chart created by <code>createChart()</code>
+	 * of any histogram. Only the dataset, the title and the axis label are
+	 * replaced; listeners of the chart are notified once. Must be called on
+	 * the Event Dispatch Thread if the chart is displayed.
+	 * 
+	 * @param _chart
+	 *            the chart
+	 * @param _bins
+	 *            the bins displayed in the histogram
+	 */
+	public final void updateChart(JFreeChart _chart, HistogramBins _bins) {
+		XYPlot plot = (XYPlot) _chart.getPlot();
+		_chart.setNotify(false);
+		_chart.setTitle(description);
+		plot.getDomainAxis().setLabel(description);
+		((HistogramBinsDataset) plot.getDataset()).setBins(_bins);
+		_chart.setNotify(true);
+	}
+
+	/**
+	 * Returns a panel telling the user that the selected data cannot be
+	 * displayed in this histogram.
+	 * 
+	 * @return a panel containing an error message
+	 */
+	public JPanel createUnsupportedDataPanel() {
+		return createErrorPanel(this + " cannot be displayed as histogram.");
+	}
+
 	/**
 	 * Creates a panel for error messages. The error message is given as
 	 * parameter.
@@ -249,10 +418,16 @@ public abstract class AbstractHistogram {
 	}
 
 	/**
-	 * Return the number of classifiers shown in the histogram.
+	 * Return the number of classifiers shown in the histogram created last by
+	 * <code>createHistogram()</code>. Bins computed by
+	 * <code>calculateBins()</code> are not counted, since they may be computed
+	 * concurrently by several threads.
 	 * 
 	 * @return the number of classifiers shown in the histogram
+	 * @deprecated use <code>HistogramBins.getNumberOfValues()</code> of the
+	 *             bins of the histogram instead
 	 */
+	@Deprecated
 	public int getNumberOfVisibleClassifiers() {
 		return this.numberOfVisibleClassifiers;
 	}
@@ -0,0 +1,344 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import java.util.Arrays;
+
+/**
+ * Computes the bins of a histogram. The bin width is either given by the user
+ * or chosen automatically by the Freedman-Diaconis rule or by Sturges' rule.
+ * The values are counted in a single pass into an <code>int[]</code>, so the
+ * size of the result only depends on the number of bins.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+public class Binning {
+
+	/**
+	 * Chooses the bin width by the Freedman-Diaconis rule
+	 */
+	public static final int FREEDMAN_DIACONIS = 0;
+
+	/**
+	 * Chooses the number of bins by Sturges' rule
+	 */
+	public static final int STURGES = 1;
+
+	/**
+	 * Uses a bin width given by the user
+	 */
+	public static final int FIXED_WIDTH = 2;
+
+	/**
+	 * Uses a fixed grid of bins, e.g. one grid for all iterations of a run
+	 */
+	public static final int FIXED_GRID = 3;
+
+	/**
+	 * Binning used if nothing else is selected
+	 */
+	public static final Binning DEFAULT = new Binning(FREEDMAN_DIACONIS);
+
+	/**
+	 * Maximum number of bins of a histogram
+	 */
+	public static final int MAX_BINS = 1000;
+
+	/**
+	 * Maximum number of values used to estimate the interquartile range
+	 */
+	private static final int SAMPLE_SIZE = 4096;
+
+	/**
+	 * The rule choosing the bin width
+	 */
+	private int rule;
+
+	/**
+	 * Bin width used by <code>FIXED_WIDTH</code> and <code>FIXED_GRID</code>
+	 */
+	private double width;
+
+	/**
+	 * Lower bound of the first bin used by <code>FIXED_GRID</code>
+	 */
+	private double lowerBound;
+
+	/**
+	 * Number of bins used by <code>FIXED_GRID</code>
+	 */
+	private int numberOfBins;
+
+	/**
+	 * Creates a binning that chooses the bin width automatically.
+	 * 
+	 * @param _rule
+	 *            <code>FREEDMAN_DIACONIS</code> or <code>STURGES</code>
+	 */
+	public Binning(int _rule) {
+		this.rule = _rule;
+		this.width = Double.NaN;
+		this.lowerBound = Double.NaN;
+	}
+
+	/**
+	 * Creates a binning with a fixed bin width. The bins are aligned to
+	 * multiples of the width.
+	 * 
+	 * @param _width
+	 *            the bin width
+	 */
+	public Binning(double _width) {
+		this.rule = FIXED_WIDTH;
+		this.width = _width;
+		this.lowerBound = Double.NaN;
+	}
+
+	/**
+	 * Creates a binning with a fixed grid of bins. Values outside the grid are
+	 * counted in the first or last bin, so histograms of different iterations
+	 * always have the same bins.
+	 * 
+	 * @param _lowerBound
+	 *            lower bound of the first bin
+	 * @param _width
+	 *            the bin width
+	 * @param _numberOfBins
+	 *            the number of bins
+	 */
+	public Binning(double _lowerBound, double _width, int _numberOfBins) {
+		this.rule = FIXED_GRID;
+		this.lowerBound = _lowerBound;
+		this.width = _width;
+		this.numberOfBins = _numberOfBins;
+	}
+
+	/**
+	 * Returns the rule choosing the bin width.
+	 * 
+	 * @return the rule choosing the bin width
+	 */
+	public int getRule() {
+		return rule;
+	}
+
+	/**
+	 * Returns the bin width used by <code>FIXED_WIDTH</code> and
+	 * <code>FIXED_GRID</code>.
+	 * 
+	 * @return the bin width, or <code>Double.NaN</code> if the width is
+	 *         chosen automatically
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * Bins the given values. Values that are infinite or not a number are
+	 * ignored.
+	 * 
+	 * @param _values
+	 *            the values
+	 * @return the bins
+	 */
+	public HistogramBins bin(HistogramValues _values) {
+		double[] values = _values.getValues();
+		int size = _values.size();
+
+		// Determine the range of the values...
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		int numberOfValues = 0;
+		for (int i = 0; i < size; i++) {
+			double value = values[i];
+			if (value > Double.NEGATIVE_INFINITY
+					&& value < Double.POSITIVE_INFINITY) {
+				if (value < min)
+					min = value;
+				if (value > max)
+					max = value;
+				numberOfValues++;
+			}
+		}
+		if (numberOfValues == 0 && rule != FIXED_GRID)
+			return new HistogramBins(0, 1, new int[0], 0);
+
+		// Determine lower bound, bin width and number of bins...
+		double binWidth;
+		double lowerBound;
+		int numberOfBins;
+		if (rule == FIXED_GRID) {
+			binWidth = width;
+			lowerBound = this.lowerBound;
+			numberOfBins = this.numberOfBins;
+		} else {
+			binWidth = chooseWidth(values, size, numberOfValues, min, max);
+			if (rule == FIXED_WIDTH && binWidth == width) {
+				lowerBound = Math.floor(min / binWidth) * binWidth;
+				numberOfBins = (int) Math.floor((max - lowerBound) / binWidth) + 1;
+			} else if (max > min) {
+				lowerBound = min;
+				numberOfBins = (int) Math.ceil((max - min) / binWidth);
+				numberOfBins = Math.max(1, Math.min(MAX_BINS, numberOfBins));
+				binWidth = (max - min) / numberOfBins;
+			} else {
+				lowerBound = min - binWidth / 2;
+				numberOfBins = 1;
+			}
+		}
+
+		// Count the values...
+		int[] counts = new int[numberOfBins];
+		int lastBin = numberOfBins - 1;
+		for (int i = 0; i < size; i++) {
+			double value = values[i];
+			if (value > Double.NEGATIVE_INFINITY
+					&& value < Double.POSITIVE_INFINITY) {
+				int bin = (int) ((value - lowerBound) / binWidth);
+				counts[bin < 0 ? 0 : (bin > lastBin ? lastBin : bin)]++;
+			}
+		}
+		return new HistogramBins(lowerBound, binWidth, counts, numberOfValues);
+	}
+
+	/**
+	 * Chooses the bin width for the given values.
+	 * 
+	 * @param _values
+	 *            the values
+	 * @param _size
+	 *            number of entries of <code>_values</code>
+	 * @param _numberOfValues
+	 *            number of finite values
+	 * @param _min
+	 *            the smallest finite value
+	 * @param _max
+	 *            the largest finite value
+	 * @return the bin width
+	 */
+	private double chooseWidth(double[] _values, int _size,
+			int _numberOfValues, double _min, double _max) {
+		double range = _max - _min;
+		if (range == 0)
+			return (rule == FIXED_WIDTH && width > 0) ? width : 1;
+
+		if (rule == FIXED_WIDTH && width > 0) {
+			// Use the given width unless there would be too many bins...
+			if (range / width < MAX_BINS)
+				return width;
+			return range / MAX_BINS;
+		}
+
+		if (rule == FREEDMAN_DIACONIS) {
+			double iqr = interquartileRange(_values, _size, _numberOfValues);
+			if (iqr > 0)
+				return 2 * iqr / Math.cbrt(_numberOfValues);
+		}
+
+		// Sturges' rule...
+		int numberOfBins = (int) Math.ceil(Math.log(_numberOfValues)
+				/ Math.log(2)) + 1;
+		return range / numberOfBins;
+	}
+
+	/**
+	 * Estimates the interquartile range of the given values from an evenly
+	 * spaced sample of at most <code>SAMPLE_SIZE</code> values.
+	 * 
+	 * @param _values
+	 *            the values
+	 * @param _size
+	 *            number of entries of <code>_values</code>
+	 * @param _numberOfValues
+	 *            number of finite values
+	 * @return the estimated interquartile range
+	 */
+	private static double interquartileRange(double[] _values, int _size,
+			int _numberOfValues) {
+		int step = Math.max(1, _numberOfValues / SAMPLE_SIZE);
+		double[] sample = new double[Math.min(_numberOfValues, SAMPLE_SIZE)];
+		int sampleSize = 0;
+		int finite = 0;
+		for (int i = 0; i < _size && sampleSize < sample.length; i++) {
+			double value = _values[i];
+			if (value > Double.NEGATIVE_INFINITY
+					&& value < Double.POSITIVE_INFINITY) {
+				if (finite % step == 0)
+					sample[sampleSize++] = value;
+				finite++;
+			}
+		}
+		Arrays.sort(sample, 0, sampleSize);
+		return quantile(sample, sampleSize, 0.75)
+				- quantile(sample, sampleSize, 0.25);
+	}
+
+	/**
+	 * Returns a quantile of sorted values by linear interpolation.
+	 * 
+	 * @param _sorted
+	 *            the sorted values
+	 * @param _size
+	 *            number of valid entries of <code>_sorted</code>
+	 * @param _p
+	 *            the probability of the quantile
+	 * @return the quantile
+	 */
+	private static double quantile(double[] _sorted, int _size, double _p) {
+		double position = _p * (_size - 1);
+		int index = (int) position;
+		if (index + 1 >= _size)
+			return _sorted[_size - 1];
+		return _sorted[index] + (position - index)
+				* (_sorted[index + 1] - _sorted[index]);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public boolean equals(Object _object) {
+		if (!(_object instanceof Binning))
+			return false;
+		Binning other = (Binning) _object;
+		return rule == other.rule
+				&& Double.doubleToLongBits(width) == Double
+						.doubleToLongBits(other.width)
+				&& Double.doubleToLongBits(lowerBound) == Double
+						.doubleToLongBits(other.lowerBound)
+				&& numberOfBins == other.numberOfBins;
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(width);
+		long lowerBits = Double.doubleToLongBits(lowerBound);
+		int hash = 31 * rule + (int) (bits ^ (bits >>> 32));
+		hash = 31 * hash + (int) (lowerBits ^ (lowerBits >>> 32));
+		return 31 * hash + numberOfBins;
+	}
+}
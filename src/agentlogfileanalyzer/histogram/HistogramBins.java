@@ -0,0 +1,142 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+/**
+ * The result of binning the values of a histogram: a sequence of bins of equal
+ * width and the number of values in every bin.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+public class HistogramBins {
+
+	/**
+	 * Lower bound of the first bin
+	 */
+	private double lowerBound;
+
+	/**
+	 * Width of every bin
+	 */
+	private double binWidth;
+
+	/**
+	 * Number of values in every bin
+	 */
+	private int[] counts;
+
+	/**
+	 * Number of binned values
+	 */
+	private int numberOfValues;
+
+	/**
+	 * Creates the result of a binning.
+	 * 
+	 * @param _lowerBound
+	 *            lower bound of the first bin
+	 * @param _binWidth
+	 *            width of every bin
+	 * @param _counts
+	 *            number of values in every bin
+	 * @param _numberOfValues
+	 *            number of binned values
+	 */
+	public HistogramBins(double _lowerBound, double _binWidth, int[] _counts,
+			int _numberOfValues) {
+		this.lowerBound = _lowerBound;
+		this.binWidth = _binWidth;
+		this.counts = _counts;
+		this.numberOfValues = _numberOfValues;
+	}
+
+	/**
+	 * Returns the number of bins.
+	 * 
+	 * @return the number of bins
+	 */
+	public int getNumberOfBins() {
+		return counts.length;
+	}
+
+	/**
+	 * Returns the number of values in a bin.
+	 * 
+	 * @param _bin
+	 *            index of the bin
+	 * @return the number of values in the bin
+	 */
+	public int getCount(int _bin) {
+		return counts[_bin];
+	}
+
+	/**
+	 * Returns the lower bound of a bin.
+	 * 
+	 * @param _bin
+	 *            index of the bin
+	 * @return the lower bound of the bin
+	 */
+	public double getStart(int _bin) {
+		return lowerBound + _bin * binWidth;
+	}
+
+	/**
+	 * Returns the upper bound of a bin.
+	 * 
+	 * @param _bin
+	 *            index of the bin
+	 * @return the upper bound of the bin
+	 */
+	public double getEnd(int _bin) {
+		return lowerBound + (_bin + 1) * binWidth;
+	}
+
+	/**
+	 * Returns the lower bound of the first bin.
+	 * 
+	 * @return the lower bound of the first bin
+	 */
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * Returns the width of every bin.
+	 * 
+	 * @return the width of every bin
+	 */
+	public double getBinWidth() {
+		return binWidth;
+	}
+
+	/**
+	 * Returns the number of binned values.
+	 * 
+	 * @return the number of binned values
+	 */
+	public int getNumberOfValues() {
+		return numberOfValues;
+	}
+}
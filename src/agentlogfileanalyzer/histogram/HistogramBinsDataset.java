@@ -0,0 +1,188 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import org.jfree.data.xy.AbstractIntervalXYDataset;
+
+/**
+ * Provides precomputed <code>HistogramBins</code> as dataset for JFreeChart.
+ * The dataset contains a single series with one item per bin, so drawing the
+ * chart only depends on the number of bins. The bins can be replaced, so a
+ * chart can show other iterations without being created again; values are
+ * read as primitives.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+@SuppressWarnings("serial")
+public class HistogramBinsDataset extends AbstractIntervalXYDataset {
+
+	/**
+	 * The displayed bins
+	 */
+	private HistogramBins bins;
+
+	/**
+	 * Creates a dataset for the given bins.
+	 * 
+	 * @param _bins
+	 *            the displayed bins
+	 */
+	public HistogramBinsDataset(HistogramBins _bins) {
+		this.bins = _bins;
+	}
+
+	/**
+	 * Replaces the displayed bins and notifies all listeners once.
+	 * 
+	 * @param _bins
+	 *            the new bins
+	 */
+	public void setBins(HistogramBins _bins) {
+		this.bins = _bins;
+		fireDatasetChanged();
+	}
+
+	/**
+	 * Returns the displayed bins.
+	 * 
+	 * @return the displayed bins
+	 */
+	public HistogramBins getBins() {
+		return bins;
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public int getSeriesCount() {
+		return 1;
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Override
+	public Comparable getSeriesKey(int _series) {
+		return "frequency";
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	public int getItemCount(int _series) {
+		return bins.getNumberOfBins();
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	public Number getX(int _series, int _item) {
+		return Double.valueOf((bins.getStart(_item) + bins.getEnd(_item)) / 2);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	public Number getY(int _series, int _item) {
+		return Integer.valueOf(bins.getCount(_item));
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	public Number getStartX(int _series, int _item) {
+		return Double.valueOf(bins.getStart(_item));
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	public Number getEndX(int _series, int _item) {
+		return Double.valueOf(bins.getEnd(_item));
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	public Number getStartY(int _series, int _item) {
+		return getY(_series, _item);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	public Number getEndY(int _series, int _item) {
+		return getY(_series, _item);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public double getXValue(int _series, int _item) {
+		return (bins.getStart(_item) + bins.getEnd(_item)) / 2;
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public double getYValue(int _series, int _item) {
+		return bins.getCount(_item);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public double getStartXValue(int _series, int _item) {
+		return bins.getStart(_item);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public double getEndXValue(int _series, int _item) {
+		return bins.getEnd(_item);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public double getStartYValue(int _series, int _item) {
+		return bins.getCount(_item);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public double getEndYValue(int _series, int _item) {
+		return bins.getCount(_item);
+	}
+}
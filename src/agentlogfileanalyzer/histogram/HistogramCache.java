@@ -0,0 +1,298 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import java.util.*;
+
+import agentlogfileanalyzer.DataElement;
+
+/**
+ * A bounded cache for the bins of histograms. Entries are identified by the
+ * iteration (<code>DataElement</code>), the classifier set, the histogram,
+ * the binning and the limits entered by the user. If the estimated memory of
+ * all entries exceeds the capacity, the least recently used entries are
+ * removed.
+ * <p>
+ * The cache is thread-safe. Bins are computed outside of the lock, so a slow
+ * histogram does not block other requests.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+public class HistogramCache {
+
+	/**
+	 * Estimated memory of an entry without its counts (in bytes)
+	 */
+	private static final long ENTRY_OVERHEAD = 160;
+
+	/**
+	 * Maximum estimated memory of all entries (in bytes)
+	 */
+	private long capacity;
+
+	/**
+	 * Estimated memory of all entries (in bytes)
+	 */
+	private long size;
+
+	/**
+	 * The cached bins in the order of their last use
+	 */
+	private LinkedHashMap<Key, HistogramBins> entries;
+
+	/**
+	 * Number of requests answered from the cache
+	 */
+	private long hits;
+
+	/**
+	 * Number of requests that required a computation
+	 */
+	private long misses;
+
+	/**
+	 * Creates an empty cache.
+	 * 
+	 * @param _capacity
+	 *            maximum estimated memory of all entries (in bytes)
+	 */
+	public HistogramCache(long _capacity) {
+		this.capacity = _capacity;
+		this.size = 0;
+		this.entries = new LinkedHashMap<Key, HistogramBins>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the bins of a histogram. The bins are computed only if they are
+	 * not cached yet.
+	 * 
+	 * @param _histogram
+	 *            the histogram
+	 * @param _dataElement
+	 *            a <code>DataElement</code> containing the classifier sets of
+	 *            an iteration
+	 * @param _selectedTableId
+	 *            identifier of the selected table (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _lowerLimit
+	 *            the lower limit that was entered by the user
+	 * @param _upperLimit
+	 *            the upper limit that was entered by the user
+	 * @param _binning
+	 *            determines the bins of the histogram
+	 * @return the bins of the histogram
+	 * @throws NumberFormatException
+	 *             if the data of the classifier set cannot be displayed in
+	 *             the histogram
+	 */
+	public HistogramBins getBins(AbstractHistogram _histogram,
+			DataElement _dataElement, int _selectedTableId, double _lowerLimit,
+			double _upperLimit, Binning _binning) throws NumberFormatException {
+		Key key = new Key(_histogram, _dataElement, _selectedTableId,
+				_lowerLimit, _upperLimit, _binning);
+		synchronized (this) {
+			HistogramBins bins = entries.get(key);
+			if (bins != null) {
+				hits++;
+				return bins;
+			}
+			misses++;
+		}
+
+		HistogramBins bins = _histogram.calculateBins(_dataElement,
+				_selectedTableId, _lowerLimit, _upperLimit, _binning);
+
+		synchronized (this) {
+			HistogramBins previous = entries.put(key, bins);
+			if (previous != null)
+				size -= sizeOf(previous);
+			size += sizeOf(bins);
+
+			// Remove least recently used entries...
+			Iterator<HistogramBins> iterator = entries.values().iterator();
+			while (size > capacity && iterator.hasNext()) {
+				HistogramBins eldest = iterator.next();
+				if (eldest == bins)
+					break;
+				size -= sizeOf(eldest);
+				iterator.remove();
+			}
+		}
+		return bins;
+	}
+
+	/**
+	 * Removes all entries, e.g. after a new log-file was opened.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of cached histograms.
+	 * 
+	 * @return the number of cached histograms
+	 */
+	public synchronized int getNumberOfEntries() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the estimated memory of all entries.
+	 * 
+	 * @return the estimated memory of all entries (in bytes)
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of requests answered from the cache.
+	 * 
+	 * @return the number of requests answered from the cache
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of requests that required a computation.
+	 * 
+	 * @return the number of requests that required a computation
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Estimates the memory of an entry.
+	 * 
+	 * @param _bins
+	 *            the cached bins
+	 * @return the estimated memory (in bytes)
+	 */
+	private static long sizeOf(HistogramBins _bins) {
+		return ENTRY_OVERHEAD + 4L * _bins.getNumberOfBins();
+	}
+
+	/**
+	 * Identifies a cached histogram. Iterations are compared by identity.
+	 */
+	private static class Key {
+
+		/**
+		 * The histogram
+		 */
+		private AbstractHistogram histogram;
+
+		/**
+		 * The iteration (compared by identity)
+		 */
+		private DataElement dataElement;
+
+		/**
+		 * Identifier of the classifier set
+		 */
+		private int selectedTableId;
+
+		/**
+		 * The lower limit of the values (<code>Double.NaN</code> if none)
+		 */
+		private double lowerLimit;
+
+		/**
+		 * The upper limit of the values (<code>Double.NaN</code> if none)
+		 */
+		private double upperLimit;
+
+		/**
+		 * Determines the bins of the histogram
+		 */
+		private Binning binning;
+
+		/**
+		 * Hash code computed from all fields
+		 */
+		private int hashCode;
+
+		/**
+		 * Creates the key of a histogram.
+		 * 
+		 * @param _histogram
+		 *            the histogram
+		 * @param _dataElement
+		 *            the iteration
+		 * @param _selectedTableId
+		 *            identifier of the classifier set
+		 * @param _lowerLimit
+		 *            the lower limit of the values
+		 * @param _upperLimit
+		 *            the upper limit of the values
+		 * @param _binning
+		 *            determines the bins of the histogram
+		 */
+		Key(AbstractHistogram _histogram, DataElement _dataElement,
+				int _selectedTableId, double _lowerLimit, double _upperLimit,
+				Binning _binning) {
+			this.histogram = _histogram;
+			this.dataElement = _dataElement;
+			this.selectedTableId = _selectedTableId;
+			this.lowerLimit = _lowerLimit;
+			this.upperLimit = _upperLimit;
+			this.binning = _binning;
+
+			long lower = Double.doubleToLongBits(_lowerLimit);
+			long upper = Double.doubleToLongBits(_upperLimit);
+			int hash = _histogram.hashCode();
+			hash = 31 * hash + System.identityHashCode(_dataElement);
+			hash = 31 * hash + _selectedTableId;
+			hash = 31 * hash + (int) (lower ^ (lower >>> 32));
+			hash = 31 * hash + (int) (upper ^ (upper >>> 32));
+			hash = 31 * hash + _binning.hashCode();
+			this.hashCode = hash;
+		}
+
+		@Override
+		public boolean equals(Object _object) {
+			if (!(_object instanceof Key))
+				return false;
+			Key other = (Key) _object;
+			return dataElement == other.dataElement
+					&& selectedTableId == other.selectedTableId
+					&& Double.doubleToLongBits(lowerLimit) == Double
+							.doubleToLongBits(other.lowerLimit)
+					&& Double.doubleToLongBits(upperLimit) == Double
+							.doubleToLongBits(other.upperLimit)
+					&& histogram.equals(other.histogram)
+					&& binning.equals(other.binning);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -0,0 +1,313 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Contains the distribution of a histogram's values over a complete run.
+ * Iterations are grouped into a fixed number of buckets (e.g. one per pixel
+ * of the chart) and the values of every bucket are counted on a fixed bin
+ * grid spanning the values of the whole run. Both passes over the run are
+ * processed in parallel and reuse one primitive buffer per thread.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+public class HistogramHeatmap {
+
+	/**
+	 * First iteration of every bucket
+	 */
+	private double[] iterations;
+
+	/**
+	 * Iteration following the last bucket
+	 */
+	private double endIteration;
+
+	/**
+	 * Number of iterations of every bucket
+	 */
+	private int[] numberOfIterations;
+
+	/**
+	 * Lower bound of the first bin
+	 */
+	private double lowerBound;
+
+	/**
+	 * Width of every bin
+	 */
+	private double binWidth;
+
+	/**
+	 * Number of values per bucket and bin
+	 */
+	private int[][] counts;
+
+	/**
+	 * Computes the heatmap of a histogram for a complete run.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _histogram
+	 *            the histogram
+	 * @param _selectedTableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _numberOfBuckets
+	 *            maximum number of iteration buckets
+	 * @param _numberOfBins
+	 *            number of value bins
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 * @throws NumberFormatException
+	 *             if the data of the classifier set cannot be displayed in
+	 *             the histogram
+	 */
+	public HistogramHeatmap(final DataMemory _dataMemory,
+			final AbstractHistogram _histogram, final int _selectedTableId,
+			int _numberOfBuckets, int _numberOfBins)
+			throws InterruptedException, NumberFormatException {
+		final int size = _dataMemory.size();
+		final int numberOfBuckets = Math.max(1, Math.min(size,
+				_numberOfBuckets));
+
+		// Determine the range of the values of the whole run...
+		final double[] range = { Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY };
+		_dataMemory.processInParallel(0, size, new IterationRangeProcessor() {
+			public void process(int _fromIndex, int _toIndex) {
+				HistogramValues values = new HistogramValues();
+				double min = Double.POSITIVE_INFINITY;
+				double max = Double.NEGATIVE_INFINITY;
+				for (int i = _fromIndex; i < _toIndex; i++) {
+					values.clear();
+					_histogram.calculateHistogramData(_dataMemory
+							.getElement(i).getClassifierSet(_selectedTableId),
+							values);
+					double[] data = values.getValues();
+					for (int j = 0; j < values.size(); j++) {
+						double value = data[j];
+						if (value > Double.NEGATIVE_INFINITY
+								&& value < Double.POSITIVE_INFINITY) {
+							if (value < min)
+								min = value;
+							if (value > max)
+								max = value;
+						}
+					}
+				}
+				synchronized (range) {
+					range[0] = Math.min(range[0], min);
+					range[1] = Math.max(range[1], max);
+				}
+			}
+		});
+
+		// Define the bin grid...
+		final int numberOfBins = Math.max(1, _numberOfBins);
+		if (range[0] > range[1]) { // No values...
+			lowerBound = 0;
+			binWidth = 1.0 / numberOfBins;
+		} else if (range[0] == range[1]) {
+			lowerBound = range[0] - 0.5;
+			binWidth = 1.0 / numberOfBins;
+		} else {
+			lowerBound = range[0];
+			binWidth = (range[1] - range[0]) / numberOfBins;
+		}
+
+		// Define the iteration buckets...
+		iterations = new double[numberOfBuckets];
+		numberOfIterations = new int[numberOfBuckets];
+		counts = new int[numberOfBuckets][];
+		for (int bucket = 0; bucket < numberOfBuckets; bucket++) {
+			int first = firstIndex(bucket, size, numberOfBuckets);
+			iterations[bucket] = size > 0 ? _dataMemory.getElement(first)
+					.getIteration() : 0;
+			numberOfIterations[bucket] = firstIndex(bucket + 1, size,
+					numberOfBuckets)
+					- first;
+		}
+		if (size > 1) {
+			DataElement last = _dataMemory.getElement(size - 1);
+			endIteration = last.getIteration()
+					+ (last.getIteration() - _dataMemory.getElement(0)
+							.getIteration()) / (size - 1);
+		} else {
+			endIteration = iterations[0] + 1;
+		}
+
+		// Count the values of every bucket...
+		final double lower = lowerBound;
+		final double width = binWidth;
+		_dataMemory.processInParallel(0, numberOfBuckets,
+				new IterationRangeProcessor() {
+					public void process(int _fromBucket, int _toBucket) {
+						HistogramValues values = new HistogramValues();
+						int lastBin = numberOfBins - 1;
+						for (int bucket = _fromBucket; bucket < _toBucket; bucket++) {
+							int[] bucketCounts = new int[numberOfBins];
+							int to = firstIndex(bucket + 1, size,
+									numberOfBuckets);
+							for (int i = firstIndex(bucket, size,
+									numberOfBuckets); i < to; i++) {
+								values.clear();
+								_histogram.calculateHistogramData(_dataMemory
+										.getElement(i).getClassifierSet(
+												_selectedTableId), values);
+								double[] data = values.getValues();
+								for (int j = 0; j < values.size(); j++) {
+									double value = data[j];
+									if (value > Double.NEGATIVE_INFINITY
+											&& value < Double.POSITIVE_INFINITY) {
+										int bin = (int) ((value - lower) / width);
+										bucketCounts[bin < 0 ? 0
+												: (bin > lastBin ? lastBin
+														: bin)]++;
+									}
+								}
+							}
+							counts[bucket] = bucketCounts;
+						}
+					}
+				});
+	}
+
+	/**
+	 * Returns the position of the first iteration of a bucket.
+	 * 
+	 * @param _bucket
+	 *            index of the bucket
+	 * @param _size
+	 *            number of iterations
+	 * @param _numberOfBuckets
+	 *            number of buckets
+	 * @return the position of the first iteration of the bucket
+	 */
+	private static int firstIndex(int _bucket, int _size, int _numberOfBuckets) {
+		return (int) ((long) _bucket * _size / _numberOfBuckets);
+	}
+
+	/**
+	 * Returns the number of iteration buckets.
+	 * 
+	 * @return the number of iteration buckets
+	 */
+	public int getNumberOfBuckets() {
+		return counts.length;
+	}
+
+	/**
+	 * Returns the number of value bins.
+	 * 
+	 * @return the number of value bins
+	 */
+	public int getNumberOfBins() {
+		return counts.length > 0 ? counts[0].length : 0;
+	}
+
+	/**
+	 * Returns the first iteration of a bucket.
+	 * 
+	 * @param _bucket
+	 *            index of the bucket
+	 * @return the first iteration of the bucket
+	 */
+	public double getIteration(int _bucket) {
+		return iterations[_bucket];
+	}
+
+	/**
+	 * Returns the iteration following the last bucket.
+	 * 
+	 * @return the iteration following the last bucket
+	 */
+	public double getEndIteration() {
+		return endIteration;
+	}
+
+	/**
+	 * Returns the number of iterations of a bucket.
+	 * 
+	 * @param _bucket
+	 *            index of the bucket
+	 * @return the number of iterations of the bucket
+	 */
+	public int getNumberOfIterations(int _bucket) {
+		return numberOfIterations[_bucket];
+	}
+
+	/**
+	 * Returns the lower bound of a bin.
+	 * 
+	 * @param _bin
+	 *            index of the bin
+	 * @return the lower bound of the bin
+	 */
+	public double getBinStart(int _bin) {
+		return lowerBound + _bin * binWidth;
+	}
+
+	/**
+	 * Returns the width of every bin.
+	 * 
+	 * @return the width of every bin
+	 */
+	public double getBinWidth() {
+		return binWidth;
+	}
+
+	/**
+	 * Returns the number of values of a bucket within a bin.
+	 * 
+	 * @param _bucket
+	 *            index of the bucket
+	 * @param _bin
+	 *            index of the bin
+	 * @return the number of values
+	 */
+	public int getCount(int _bucket, int _bin) {
+		return counts[_bucket][_bin];
+	}
+
+	/**
+	 * Returns the mean number of values per iteration of a bucket within a
+	 * bin. Buckets may contain different numbers of iterations, so the mean
+	 * is used for display.
+	 * 
+	 * @param _bucket
+	 *            index of the bucket
+	 * @param _bin
+	 *            index of the bin
+	 * @return the mean number of values per iteration
+	 */
+	public double getMeanCount(int _bucket, int _bin) {
+		if (numberOfIterations[_bucket] == 0)
+			return 0;
+		return (double) counts[_bucket][_bin] / numberOfIterations[_bucket];
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import java.util.Vector;
+
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Computes the bins of several histograms of one classifier set at once. All
+ * <code>UniversalHistogram</code>s are filled in a single pass over the rows
+ * of the table, so showing every column costs about one table scan. Other
+ * histograms determine their data as usual.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+public class HistogramScan {
+
+	/**
+	 * Not instantiable.
+	 */
+	private HistogramScan() {
+	}
+
+	/**
+	 * Computes the bins of several histograms of a classifier set.
+	 * 
+	 * @param _table
+	 *            the classifier set
+	 * @param _histograms
+	 *            the histograms
+	 * @param _binning
+	 *            determines the bins of the histograms
+	 * @return the bins of every histogram; an entry is <code>null</code> if
+	 *         the classifier set cannot be displayed in the histogram
+	 */
+	public static HistogramBins[] calculateBins(DefaultTableModel _table,
+			AbstractHistogram[] _histograms, Binning _binning) {
+		HistogramBins[] result = new HistogramBins[_histograms.length];
+		HistogramValues[] values = new HistogramValues[_histograms.length];
+		int[] columns = new int[_histograms.length];
+		int rows = _table.getRowCount();
+
+		// Find the columns of all universal histograms...
+		int numberOfColumns = 0;
+		for (int i = 0; i < _histograms.length; i++) {
+			columns[i] = -1;
+			if (_histograms[i] instanceof UniversalHistogram) {
+				columns[i] = _table.findColumn(_histograms[i].description);
+				if (columns[i] == -1)
+					System.err.println("No data for column '"
+							+ _histograms[i].description + "'.");
+				values[i] = new HistogramValues();
+				values[i].ensureCapacity(rows);
+				numberOfColumns++;
+			}
+		}
+
+		// Read all columns in one pass over the rows...
+		if (numberOfColumns > 0) {
+			Vector<?> data = _table.getDataVector();
+			for (int row = 0; row < rows; row++) {
+				Vector<?> rowData = (Vector<?>) data.get(row);
+				for (int i = 0; i < _histograms.length; i++) {
+					if (columns[i] == -1)
+						continue;
+					Object cellEntry = rowData.get(columns[i]);
+					if (cellEntry != null) {
+						try {
+							values[i].add(Double.parseDouble(cellEntry
+									.toString()));
+						} catch (NumberFormatException nfe) {
+							// Content of cell cannot be converted to double.
+							// Ignore.
+						}
+					}
+				}
+			}
+		}
+
+		// Bin the data of all histograms...
+		HistogramValues buffer = new HistogramValues();
+		for (int i = 0; i < _histograms.length; i++) {
+			if (values[i] != null) {
+				result[i] = _binning.bin(values[i]);
+			} else {
+				buffer.clear();
+				try {
+					_histograms[i].calculateHistogramData(_table, buffer);
+					result[i] = _binning.bin(buffer);
+				} catch (NumberFormatException nfe) {
+					result[i] = null;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer for the values displayed in a histogram. Values are
+ * stored in a primitive <code>double[]</code> that only grows, so refilling
+ * the buffer for another iteration does not allocate any memory once the
+ * buffer is large enough.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class HistogramValues {
+
+	/**
+	 * The stored values; only the first <code>size</code> entries are valid
+	 */
+	private double[] values;
+
+	/**
+	 * Number of stored values
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty buffer.
+	 */
+	public HistogramValues() {
+		this.values = new double[64];
+		this.size = 0;
+	}
+
+	/**
+	 * Removes all values. The memory of the buffer is kept.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Ensures that the buffer can store the given number of values without
+	 * growing.
+	 *
+	 * @param _capacity
+	 *            the number of values
+	 */
+	public void ensureCapacity(int _capacity) {
+		if (_capacity > values.length)
+			values = Arrays.copyOf(values, Math.max(_capacity,
+					values.length * 2));
+	}
+
+	/**
+	 * Appends a value.
+	 *
+	 * @param _value
+	 *            the value
+	 */
+	public void add(double _value) {
+		if (size == values.length)
+			ensureCapacity(size + 1);
+		values[size++] = _value;
+	}
+
+	/**
+	 * Returns the number of stored values.
+	 *
+	 * @return the number of stored values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the value at the given position.
+	 *
+	 * @param _index
+	 *            position of the value
+	 * @return the value
+	 */
+	public double get(int _index) {
+		return values[_index];
+	}
+
+	/**
+	 * Returns the array backing this buffer. Only the first
+	 * <code>size()</code> entries are valid. The array is reused when the
+	 * buffer is filled again.
+	 *
+	 * @return the array backing this buffer
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Returns a copy of the stored values.
+	 *
+	 * @return a copy of the stored values
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Removes all values outside the given limits. The remaining values keep
+	 * their order; no memory is allocated. A limit of <code>Double.NaN</code>
+	 * is ignored.
+	 *
+	 * @param _lowerLimit
+	 *            the lower limit
+	 * @param _upperLimit
+	 *            the upper limit
+	 */
+	public void retainWithinLimits(double _lowerLimit, double _upperLimit) {
+		boolean checkLower = !Double.isNaN(_lowerLimit);
+		boolean checkUpper = !Double.isNaN(_upperLimit);
+		if (!checkLower && !checkUpper)
+			return;
+		int retained = 0;
+		for (int i = 0; i < size; i++) {
+			double value = values[i];
+			if ((!checkLower || _lowerLimit <= value)
+					&& (!checkUpper || _upperLimit >= value))
+				values[retained++] = value;
+		}
+		size = retained;
+	}
+}
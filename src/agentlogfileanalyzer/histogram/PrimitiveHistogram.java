@@ -0,0 +1,78 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import java.util.Vector;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Base class for histograms that provide their data as primitive values.
+ * Subclasses append the values directly to a reusable
+ * <code>HistogramValues</code>-buffer, so no <code>Double</code>-objects
+ * are created while a histogram is updated.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+public abstract class PrimitiveHistogram extends AbstractHistogram {
+
+	/**
+	 * Constructor. Requires a description that is used for identification in
+	 * the histogram selection and as histogram title.
+	 * 
+	 * @param _description
+	 *            a description that is used for identification in the histogram
+	 *            selection and as histogram title
+	 */
+	public PrimitiveHistogram(String _description) {
+		super(_description);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public abstract void calculateHistogramData(
+			DefaultTableModel _selectedTable, HistogramValues _values);
+
+	/**
+	 * Determines the data displayed in the histogram as
+	 * <code>Vector</code>. Only provided for compatibility; the values are
+	 * boxed.
+	 * 
+	 * @param _selectedTable
+	 *            the table that was selected by the user as basis for the
+	 *            histogram
+	 * @return the data that will be displayed in the histogram
+	 */
+	@Override
+	public Vector<Double> calculateHistogramData(
+			DefaultTableModel _selectedTable) {
+		HistogramValues values = new HistogramValues();
+		calculateHistogramData(_selectedTable, values);
+		Vector<Double> dataVector = new Vector<Double>(values.size());
+		for (int i = 0; i < values.size(); i++)
+			dataVector.add(values.get(i));
+		return dataVector;
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.histogram;
+
+import java.util.*;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Computes bin grids that are shared by all iterations of a run. The grid of
+ * a histogram and classifier set spans the run-wide minimum and maximum or
+ * the run-wide 0.5% and 99.5% quantiles of its values. Histograms binned on
+ * the same grid are comparable between iterations, keep their x axis and are
+ * stored as compact counts in the <code>HistogramCache</code>.
+ * <p>
+ * Grids are computed once per run, histogram, classifier set and mode and
+ * are kept as long as the <code>DataMemory</code> of the run is in use.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ * 
+ */
+public class RunBinning {
+
+	/**
+	 * Spans the grid from the run-wide minimum to the run-wide maximum
+	 */
+	public static final int MIN_MAX = 0;
+
+	/**
+	 * Spans the grid from the run-wide 0.5% quantile to the run-wide 99.5%
+	 * quantile; outliers are counted in the first or last bin
+	 */
+	public static final int QUANTILES = 1;
+
+	/**
+	 * Probability of the lower quantile used by <code>QUANTILES</code>
+	 */
+	private static final double QUANTILE = 0.005;
+
+	/**
+	 * Minimum number of bins of a grid
+	 */
+	private static final int MIN_BINS = 10;
+
+	/**
+	 * Maximum number of bins of a grid
+	 */
+	private static final int MAX_BINS = 200;
+
+	/**
+	 * Maximum number of values sampled from a run to estimate quantiles
+	 */
+	private static final int SAMPLE_SIZE = 65536;
+
+	/**
+	 * Computed grids of every run
+	 */
+	private static final WeakHashMap<DataMemory, HashMap<List<Object>, Binning>> grids = new WeakHashMap<DataMemory, HashMap<List<Object>, Binning>>();
+
+	/**
+	 * Not instantiable.
+	 */
+	private RunBinning() {
+	}
+
+	/**
+	 * Returns the grid of a histogram if it was already computed.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _histogram
+	 *            the histogram
+	 * @param _selectedTableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _mode
+	 *            <code>MIN_MAX</code> or <code>QUANTILES</code>
+	 * @return the grid, or <code>null</code> if it was not computed yet
+	 */
+	public static synchronized Binning lookup(DataMemory _dataMemory,
+			AbstractHistogram _histogram, int _selectedTableId, int _mode) {
+		HashMap<List<Object>, Binning> runGrids = grids.get(_dataMemory);
+		if (runGrids == null)
+			return null;
+		return runGrids.get(key(_histogram, _selectedTableId, _mode));
+	}
+
+	/**
+	 * Returns the grid of a histogram. The grid is computed in parallel if it
+	 * was not computed yet. Must not be called by a thread of the worker pool.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _histogram
+	 *            the histogram
+	 * @param _selectedTableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _mode
+	 *            <code>MIN_MAX</code> or <code>QUANTILES</code>
+	 * @return the grid
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 * @throws NumberFormatException
+	 *             if the data of the classifier set cannot be displayed in
+	 *             the histogram
+	 */
+	public static Binning getBinning(DataMemory _dataMemory,
+			AbstractHistogram _histogram, int _selectedTableId, int _mode)
+			throws InterruptedException, NumberFormatException {
+		Binning binning = lookup(_dataMemory, _histogram, _selectedTableId,
+				_mode);
+		if (binning != null)
+			return binning;
+
+		binning = computeBinning(_dataMemory, _histogram, _selectedTableId,
+				_mode);
+		synchronized (RunBinning.class) {
+			HashMap<List<Object>, Binning> runGrids = grids.get(_dataMemory);
+			if (runGrids == null) {
+				runGrids = new HashMap<List<Object>, Binning>();
+				grids.put(_dataMemory, runGrids);
+			}
+			runGrids.put(key(_histogram, _selectedTableId, _mode), binning);
+		}
+		return binning;
+	}
+
+	/**
+	 * Computes the grid of a histogram. All iterations are processed in
+	 * parallel; every iteration contributes an evenly spaced sample of its
+	 * values to the estimation of the quantiles.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _histogram
+	 *            the histogram
+	 * @param _selectedTableId
+	 *            identifier of the classifier set
+	 * @param _mode
+	 *            <code>MIN_MAX</code> or <code>QUANTILES</code>
+	 * @return the grid
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	private static Binning computeBinning(final DataMemory _dataMemory,
+			final AbstractHistogram _histogram, final int _selectedTableId,
+			int _mode) throws InterruptedException {
+		final int size = _dataMemory.size();
+		final int samplesPerIteration = Math.max(1, SAMPLE_SIZE
+				/ Math.max(1, size));
+		final double[] range = { Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY };
+		final long[] numberOfValues = { 0 };
+		final HistogramValues sample = new HistogramValues();
+
+		_dataMemory.processInParallel(0, size, new IterationRangeProcessor() {
+			public void process(int _fromIndex, int _toIndex) {
+				HistogramValues values = new HistogramValues();
+				HistogramValues rangeSample = new HistogramValues();
+				double min = Double.POSITIVE_INFINITY;
+				double max = Double.NEGATIVE_INFINITY;
+				long count = 0;
+				for (int i = _fromIndex; i < _toIndex; i++) {
+					values.clear();
+					_histogram.calculateHistogramData(_dataMemory
+							.getElement(i).getClassifierSet(_selectedTableId),
+							values);
+					double[] data = values.getValues();
+					int step = Math.max(1, values.size() / samplesPerIteration);
+					for (int j = 0; j < values.size(); j++) {
+						double value = data[j];
+						if (value > Double.NEGATIVE_INFINITY
+								&& value < Double.POSITIVE_INFINITY) {
+							if (value < min)
+								min = value;
+							if (value > max)
+								max = value;
+							if (j % step == 0)
+								rangeSample.add(value);
+							count++;
+						}
+					}
+				}
+				synchronized (range) {
+					range[0] = Math.min(range[0], min);
+					range[1] = Math.max(range[1], max);
+					numberOfValues[0] += count;
+					for (int j = 0; j < rangeSample.size(); j++)
+						sample.add(rangeSample.get(j));
+				}
+			}
+		});
+		if (numberOfValues[0] == 0)
+			return new Binning(0, 1, 1);
+
+		double[] sorted = sample.toArray();
+		Arrays.sort(sorted);
+		double lower = range[0];
+		double upper = range[1];
+		if (_mode == QUANTILES) {
+			lower = quantile(sorted, QUANTILE);
+			upper = quantile(sorted, 1 - QUANTILE);
+		}
+		if (upper <= lower)
+			return new Binning(lower - 0.5, 1, 1);
+
+		// Choose the bin width for a typical iteration by the
+		// Freedman-Diaconis rule...
+		double valuesPerIteration = Math.max(2.0, (double) numberOfValues[0]
+				/ Math.max(1, size));
+		double iqr = quantile(sorted, 0.75) - quantile(sorted, 0.25);
+		int numberOfBins;
+		if (iqr > 0)
+			numberOfBins = (int) Math.ceil((upper - lower)
+					/ (2 * iqr / Math.cbrt(valuesPerIteration)));
+		else
+			numberOfBins = (int) Math.ceil(Math.log(valuesPerIteration)
+					/ Math.log(2)) + 1;
+		numberOfBins = Math.max(MIN_BINS, Math.min(MAX_BINS, numberOfBins));
+		return new Binning(lower, (upper - lower) / numberOfBins,
+				numberOfBins);
+	}
+
+	/**
+	 * Returns a quantile of sorted values.
+	 * 
+	 * @param _sorted
+	 *            the sorted values
+	 * @param _p
+	 *            the probability of the quantile
+	 * @return the quantile
+	 */
+	private static double quantile(double[] _sorted, double _p) {
+		int index = (int) Math.round(_p * (_sorted.length - 1));
+		return _sorted[Math.max(0, Math.min(_sorted.length - 1, index))];
+	}
+
+	/**
+	 * Returns the key of a grid.
+	 * 
+	 * @param _histogram
+	 *            the histogram
+	 * @param _selectedTableId
+	 *            identifier of the classifier set
+	 * @param _mode
+	 *            <code>MIN_MAX</code> or <code>QUANTILES</code>
+	 * @return the key of the grid
+	 */
+	private static List<Object> key(AbstractHistogram _histogram,
+			int _selectedTableId, int _mode) {
+		return Arrays.asList(new Object[] { _histogram,
+				Integer.valueOf(_selectedTableId), Integer.valueOf(_mode) });
+	}
+}
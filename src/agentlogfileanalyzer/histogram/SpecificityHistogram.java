@@ -21,7 +21,6 @@
  */
 package agentlogfileanalyzer.histogram;
 
-import java.util.Vector;
 import javax.swing.table.DefaultTableModel;
 
 /**
@@ -31,7 +30,7 @@ import javax.swing.table.DefaultTableModel;
  * @author Clemens Gersbacher, Holger Prothmann
  * 
  */
-public class SpecificityHistogram extends AbstractHistogram {
+public class SpecificityHistogram extends PrimitiveHistogram {
 
 	/**
 	 * Constructor.
@@ -44,10 +43,8 @@ public class SpecificityHistogram extends AbstractHistogram {
 	 * Comment available in superclass.
 	 */
 	@Override
-	public Vector<Double> calculateHistogramData(DefaultTableModel _table) {
-
-		// Store specificity here...
-		Vector<Double> dataVector = new Vector<Double>();
+	public void calculateHistogramData(DefaultTableModel _table,
+			HistogramValues _values) {
 
 		// Get column id for condition...
 		int column = _table.findColumn("Condition");
@@ -57,7 +54,9 @@ public class SpecificityHistogram extends AbstractHistogram {
 		} else { // Column found...
 
 			// Read all classifier conditions...
+			_values.ensureCapacity(_values.size() + _table.getRowCount());
 			for (int row = 0; row < _table.getRowCount(); row++) {
+				checkCancelled();
 
 				String conditionString = (String) _table
 						.getValueAt(row, column);
@@ -76,10 +75,9 @@ public class SpecificityHistogram extends AbstractHistogram {
 				double specificity = (double) numberOfSpecifiedBits
 						/ (double) numberOfBits;
 
-				dataVector.add(specificity);
+				_values.add(specificity);
 
 			}
 		}
-		return dataVector;
 	}
 }
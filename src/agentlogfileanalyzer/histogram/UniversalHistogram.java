@@ -22,7 +22,6 @@
 
 package agentlogfileanalyzer.histogram;
 
-import java.util.Vector;
 import javax.swing.table.DefaultTableModel;
 
 /**
@@ -32,7 +31,7 @@ import javax.swing.table.DefaultTableModel;
  * @author Clemens Gersbacher, Holger Prothmann
  * 
  */
-public class UniversalHistogram extends AbstractHistogram {
+public class UniversalHistogram extends PrimitiveHistogram {
 
 	/**
 	 * Constructor. Requires the name of the column that should be displayed.
@@ -49,30 +48,53 @@ public class UniversalHistogram extends AbstractHistogram {
 	 * Comment available in superclass.
 	 */
 	@Override
-	public Vector<Double> calculateHistogramData(
-			DefaultTableModel _selectedTable) {
-
-		Vector<Double> dataVector = new Vector<Double>();
+	public void calculateHistogramData(DefaultTableModel _selectedTable,
+			HistogramValues _values) {
 
 		int column = _selectedTable.findColumn(description);
 		if (column == -1) { // Column not found...
 			System.err.println("No data for column '" + description + "'.");
 		} else { // Column found...
 
-			// Read the column to a vector...
+			// Read the column to the buffer...
+			_values.ensureCapacity(_values.size()
+					+ _selectedTable.getRowCount());
 			for (int row = 0; row < _selectedTable.getRowCount(); row++) {
+				checkCancelled();
 				try {
 					String strCellEntry = (String) _selectedTable.getValueAt(
 							row, column);
 					if (strCellEntry != null) {
 						double cellEntry = Double.parseDouble(strCellEntry);
-						dataVector.add(cellEntry);
+						_values.add(cellEntry);
 					}
 				} catch (NumberFormatException nfe) {
 					// Content of cell cannot be converted to double. Ignore.
 				}
 			}
 		}
-		return dataVector;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Two <code>UniversalHistogram</code>s are equal if they display the same
+	 * column.
+	 * 
+	 * @param _object
+	 *            the object to compare with
+	 * @return <code>true</code> if <code>_object</code> displays the same
+	 *         column
+	 */
+	@Override
+	public boolean equals(Object _object) {
+		return _object instanceof UniversalHistogram
+				&& description.equals(((UniversalHistogram) _object).description);
+	}
+
+	/*
+	 * Comment available in superclass.
+	 */
+	@Override
+	public int hashCode() {
+		return description.hashCode();
+	}
+}
@@ -0,0 +1,324 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.matching;
+
+import java.util.HashMap;
+import java.util.Vector;
+
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * A bit-sliced index over the conditions of a classifier set. For every
+ * condition position and both possible input values, the index stores a bit
+ * set containing all classifiers that accept this value at this position
+ * (i.e. all classifiers having the value or <code>#</code> at the position).
+ * The classifiers matching an input are the intersection of one bit set per
+ * position, so a query processes 64 classifiers per operation.
+ * <p>
+ * Conditions that are not ternary or whose length differs from the length
+ * of the majority of the conditions are not sliced; they are tested one by
+ * one. One-shot queries that should not build an index can use
+ * <code>countMatches()</code> instead.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class ConditionIndex {
+
+	/**
+	 * Number of indexed classifiers
+	 */
+	private int numberOfRows;
+
+	/**
+	 * Length of the sliced conditions
+	 */
+	private int length;
+
+	/**
+	 * Bit sets of classifiers accepting a value at a position
+	 * (<code>[position][value][word]</code>)
+	 */
+	private long[][][] slices;
+
+	/**
+	 * Bit set of all sliced classifiers
+	 */
+	private long[] sliced;
+
+	/**
+	 * Rows of classifiers that are not sliced
+	 */
+	private int[] irregularRows;
+
+	/**
+	 * Encoded conditions of classifiers that are not sliced (<code>null</code>
+	 * for conditions that are not ternary)
+	 */
+	private TernaryCondition[] irregularConditions;
+
+	/**
+	 * Creates an index over the column "Condition" of a classifier set.
+	 *
+	 * @param _table
+	 *            the classifier set
+	 */
+	public ConditionIndex(DefaultTableModel _table) {
+		numberOfRows = _table.getRowCount();
+		int column = _table.findColumn("Condition");
+		TernaryCondition[] conditions = new TernaryCondition[numberOfRows];
+		if (column != -1) {
+			for (int row = 0; row < numberOfRows; row++) {
+				Object condition = _table.getValueAt(row, column);
+				if (condition != null)
+					conditions[row] = TernaryCondition
+							.parseCondition(condition.toString());
+			}
+		}
+		length = determineLength(conditions);
+
+		int words = (numberOfRows + 63) / 64;
+		slices = new long[length][2][words];
+		sliced = new long[words];
+		Vector<Integer> irregular = new Vector<Integer>();
+		for (int row = 0; row < numberOfRows; row++) {
+			TernaryCondition condition = conditions[row];
+			if (condition == null || condition.length() != length) {
+				irregular.add(Integer.valueOf(row));
+				continue;
+			}
+			int word = row >> 6;
+			long bit = 1L << (row & 63);
+			sliced[word] |= bit;
+			for (int position = 0; position < length; position++) {
+				if (!condition.isSpecified(position)) {
+					slices[position][0][word] |= bit;
+					slices[position][1][word] |= bit;
+				} else if (condition.isOne(position)) {
+					slices[position][1][word] |= bit;
+				} else {
+					slices[position][0][word] |= bit;
+				}
+			}
+		}
+
+		irregularRows = new int[irregular.size()];
+		irregularConditions = new TernaryCondition[irregular.size()];
+		for (int i = 0; i < irregularRows.length; i++) {
+			irregularRows[i] = irregular.get(i).intValue();
+			irregularConditions[i] = conditions[irregularRows[i]];
+		}
+	}
+
+	/**
+	 * Determines the length of the majority of the given conditions with a
+	 * Boyer-Moore majority vote. If no length is shared by more than half of
+	 * the conditions, any of the lengths may be returned; conditions of other
+	 * lengths are tested one by one, so the index stays correct.
+	 *
+	 * @param _conditions
+	 *            encoded conditions (may contain <code>null</code>)
+	 * @return the length of the majority of the conditions
+	 */
+	private static int determineLength(TernaryCondition[] _conditions) {
+		// Usually all conditions have the same length...
+		int candidate = 0;
+		int votes = 0;
+		for (int i = 0; i < _conditions.length; i++) {
+			if (_conditions[i] == null)
+				continue;
+			if (votes == 0) {
+				candidate = _conditions[i].length();
+				votes = 1;
+			} else if (_conditions[i].length() == candidate) {
+				votes++;
+			} else {
+				votes--;
+			}
+		}
+		return candidate;
+	}
+
+	/**
+	 * Returns the classifiers whose condition fits a pattern. A
+	 * <code>0</code>, <code>1</code>, or <code>#</code> in the pattern
+	 * requires the same symbol in the condition, a <code>*</code> allows any
+	 * symbol. Positions behind the end of the pattern allow any symbol, so
+	 * <code>1#0*</code> selects all conditions starting with <code>1#0</code>.
+	 * 
+	 * @param _pattern
+	 *            the pattern
+	 * @return a bit set of the rows of all fitting classifiers (row
+	 *         <code>r</code> is bit <code>r % 64</code> of word
+	 *         <code>r / 64</code>)
+	 * @throws IllegalArgumentException
+	 *             if the pattern contains other symbols
+	 */
+	public long[] matchPattern(String _pattern) {
+		for (int position = 0; position < _pattern.length(); position++) {
+			if ("01#*".indexOf(_pattern.charAt(position)) < 0)
+				throw new IllegalArgumentException("Invalid symbol '"
+						+ _pattern.charAt(position) + "' in pattern "
+						+ _pattern);
+		}
+
+		long[] result = new long[sliced.length];
+		if (_pattern.length() <= length) {
+			System.arraycopy(sliced, 0, result, 0, sliced.length);
+			for (int position = 0; position < _pattern.length(); position++) {
+				char symbol = _pattern.charAt(position);
+				if (symbol == '*')
+					continue;
+				long[] zero = slices[position][0];
+				long[] one = slices[position][1];
+				for (int word = 0; word < result.length; word++) {
+					if (symbol == '0')
+						result[word] &= zero[word] & ~one[word];
+					else if (symbol == '1')
+						result[word] &= one[word] & ~zero[word];
+					else
+						result[word] &= zero[word] & one[word];
+				}
+			}
+		}
+		for (int i = 0; i < irregularRows.length; i++) {
+			if (fits(irregularConditions[i], _pattern))
+				result[irregularRows[i] >> 6] |= 1L << (irregularRows[i] & 63);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns <code>true</code> if a condition fits a pattern (see
+	 * <code>matchPattern()</code>).
+	 * 
+	 * @param _condition
+	 *            the condition; may be <code>null</code>
+	 * @param _pattern
+	 *            the pattern
+	 * @return <code>true</code> if the condition fits the pattern
+	 */
+	private static boolean fits(TernaryCondition _condition, String _pattern) {
+		if (_condition == null || _pattern.length() > _condition.length())
+			return false;
+		for (int position = 0; position < _pattern.length(); position++) {
+			char symbol = _pattern.charAt(position);
+			char actual = !_condition.isSpecified(position) ? '#' : _condition
+					.isOne(position) ? '1' : '0';
+			if (symbol != '*' && symbol != actual)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the rows of all classifiers matching the given input (in
+	 * ascending order).
+	 *
+	 * @param _input
+	 *            an input encoded by <code>TernaryCondition.parseInput()</code>
+	 * @return the rows of all matching classifiers
+	 */
+	public int[] match(TernaryCondition _input) {
+		long[] result = new long[sliced.length];
+		if (_input.length() == length) {
+			System.arraycopy(sliced, 0, result, 0, sliced.length);
+			for (int position = 0; position < length; position++) {
+				long[] slice = slices[position][_input.isOne(position) ? 1
+						: 0];
+				long remaining = 0;
+				for (int word = 0; word < result.length; word++) {
+					result[word] &= slice[word];
+					remaining |= result[word];
+				}
+				if (remaining == 0)
+					break;
+			}
+		}
+		for (int i = 0; i < irregularRows.length; i++) {
+			if (irregularConditions[i] != null
+					&& irregularConditions[i].matches(_input))
+				result[irregularRows[i] >> 6] |= 1L << (irregularRows[i] & 63);
+		}
+
+		int count = 0;
+		for (int word = 0; word < result.length; word++)
+			count += Long.bitCount(result[word]);
+		int[] rows = new int[count];
+		int i = 0;
+		for (int word = 0; word < result.length; word++) {
+			long bits = result[word];
+			while (bits != 0) {
+				rows[i++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Counts the classifiers of a classifier set matching the given input by
+	 * testing their conditions one by one. Unlike a query of an index, this
+	 * reads every condition only once, so it is cheaper for a single query.
+	 * Conditions that are not ternary do not match.
+	 *
+	 * @param _table
+	 *            the classifier set
+	 * @param _input
+	 *            an input encoded by <code>TernaryCondition.parseInput()</code>
+	 * @param _cache
+	 *            encoded conditions of previously tested classifier sets
+	 * @return the number of matching classifiers
+	 */
+	public static int countMatches(DefaultTableModel _table,
+			TernaryCondition _input, HashMap<String, TernaryCondition> _cache) {
+		int column = _table.findColumn("Condition");
+		if (column == -1)
+			return 0;
+		int count = 0;
+		for (int row = 0; row < _table.getRowCount(); row++) {
+			Object condition = _table.getValueAt(row, column);
+			if (condition == null)
+				continue;
+			TernaryCondition encoded = _cache.get(condition.toString());
+			if (encoded == null) {
+				encoded = TernaryCondition.parseCondition(condition
+						.toString());
+				if (encoded == null)
+					continue;
+				_cache.put(condition.toString(), encoded);
+			}
+			if (encoded.matches(_input))
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of indexed classifiers.
+	 *
+	 * @return the number of indexed classifiers
+	 */
+	public int size() {
+		return numberOfRows;
+	}
+}
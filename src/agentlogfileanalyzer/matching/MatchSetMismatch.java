@@ -0,0 +1,126 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.matching;
+
+import java.util.Vector;
+
+/**
+ * Describes the difference between the logged match set of an iteration and
+ * the match set recomputed from the population and the LCS input.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class MatchSetMismatch {
+
+	/**
+	 * The iteration number
+	 */
+	private double iteration;
+
+	/**
+	 * The LCS input
+	 */
+	private String input;
+
+	/**
+	 * Classifiers of the population that match the input but are missing in
+	 * the logged match set
+	 */
+	private Vector<String> missing;
+
+	/**
+	 * Classifiers of the logged match set that do not match the input or are
+	 * not contained in the population
+	 */
+	private Vector<String> unexpected;
+
+	/**
+	 * Creates a new <code>MatchSetMismatch</code>.
+	 *
+	 * @param _iteration
+	 *            the iteration number
+	 * @param _input
+	 *            the LCS input
+	 * @param _missing
+	 *            classifiers missing in the logged match set
+	 * @param _unexpected
+	 *            classifiers that should not be contained in the logged match
+	 *            set
+	 */
+	public MatchSetMismatch(double _iteration, String _input,
+			Vector<String> _missing, Vector<String> _unexpected) {
+		this.iteration = _iteration;
+		this.input = _input;
+		this.missing = _missing;
+		this.unexpected = _unexpected;
+	}
+
+	/**
+	 * Returns the iteration number.
+	 *
+	 * @return the iteration number
+	 */
+	public double getIteration() {
+		return iteration;
+	}
+
+	/**
+	 * Returns the LCS input.
+	 *
+	 * @return the LCS input
+	 */
+	public String getInput() {
+		return input;
+	}
+
+	/**
+	 * Returns the classifiers of the population that match the input but are
+	 * missing in the logged match set.
+	 *
+	 * @return the missing classifiers (condition and action)
+	 */
+	public Vector<String> getMissing() {
+		return missing;
+	}
+
+	/**
+	 * Returns the classifiers of the logged match set that do not match the
+	 * input or are not contained in the population.
+	 *
+	 * @return the unexpected classifiers (condition and action)
+	 */
+	public Vector<String> getUnexpected() {
+		return unexpected;
+	}
+
+	/**
+	 * Returns a string representation of this object.
+	 *
+	 * @return a string representation of this object
+	 */
+	@Override
+	public String toString() {
+		return "iteration " + iteration + ": missing " + missing
+				+ ", unexpected " + unexpected;
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.matching;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.table.DefaultTableModel;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Validates the logged match sets of a run. For every iteration, the match
+ * set is recomputed from the conditions of the population and the LCS input
+ * and compared to the logged match set. Classifiers are identified by their
+ * condition and action. Iterations are validated in parallel; encoded
+ * conditions are cached per thread since populations of consecutive
+ * iterations mostly contain the same conditions.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class MatchSetValidator {
+
+	/**
+	 * Contains all iterations of the run
+	 */
+	private DataMemory dataMemory;
+
+	/**
+	 * Number of iterations that could not be validated because the input or a
+	 * condition is not binary/ternary
+	 */
+	private AtomicInteger numberOfSkipped;
+
+	/**
+	 * Creates a new validator for the given run.
+	 *
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 */
+	public MatchSetValidator(DataMemory _dataMemory) {
+		this.dataMemory = _dataMemory;
+		this.numberOfSkipped = new AtomicInteger();
+	}
+
+	/**
+	 * Validates the match sets of all iterations in parallel.
+	 *
+	 * @return all iterations whose logged match set differs from the
+	 *         recomputed one (in ascending order)
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public Vector<MatchSetMismatch> validate() throws InterruptedException {
+		numberOfSkipped.set(0);
+		final MatchSetMismatch[] results = new MatchSetMismatch[dataMemory
+				.size()];
+		dataMemory.processInParallel(0, dataMemory.size(),
+				new IterationRangeProcessor() {
+					public void process(int _fromIndex, int _toIndex) {
+						HashMap<String, TernaryCondition> cache = new HashMap<String, TernaryCondition>();
+						for (int i = _fromIndex; i < _toIndex; i++) {
+							if (Thread.currentThread().isInterrupted())
+								return;
+							results[i] = validate(dataMemory.getElement(i),
+									cache);
+						}
+					}
+				});
+
+		Vector<MatchSetMismatch> mismatches = new Vector<MatchSetMismatch>();
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != null)
+				mismatches.add(results[i]);
+		}
+		return mismatches;
+	}
+
+	/**
+	 * Validates the match set of one iteration.
+	 *
+	 * @param _element
+	 *            the <code>DataElement</code> of the iteration
+	 * @param _cache
+	 *            encoded conditions of previously validated iterations
+	 * @return the differences or <code>null</code> if the match set is
+	 *         correct or cannot be validated
+	 */
+	private MatchSetMismatch validate(DataElement _element,
+			HashMap<String, TernaryCondition> _cache) {
+		DefaultTableModel population = _element.getPopulation();
+		DefaultTableModel matchSet = _element.getMatchSet();
+		int condition = population.findColumn("Condition");
+		int action = population.findColumn("Action");
+		TernaryCondition input = TernaryCondition.parseInput(_element
+				.getInput());
+		if (condition == -1 || input == null) {
+			numberOfSkipped.incrementAndGet();
+			return null;
+		}
+
+		// Count the classifiers that should be contained in the match set...
+		HashMap<String, Integer> expected = new HashMap<String, Integer>();
+		for (int row = 0; row < population.getRowCount(); row++) {
+			String conditionString = (String) population.getValueAt(row,
+					condition);
+			TernaryCondition encoded = _cache.get(conditionString);
+			if (encoded == null) {
+				encoded = TernaryCondition.parseCondition(conditionString);
+				if (encoded == null) {
+					numberOfSkipped.incrementAndGet();
+					return null;
+				}
+				_cache.put(conditionString, encoded);
+			}
+			if (encoded.matches(input))
+				count(expected, getKey(population, row, condition, action), 1);
+		}
+
+		// ... and compare them to the logged match set.
+		Vector<String> unexpected = new Vector<String>();
+		for (int row = 0; row < matchSet.getRowCount(); row++) {
+			String key = getKey(matchSet, row, condition, action);
+			if (!count(expected, key, -1))
+				unexpected.add(key);
+		}
+		Vector<String> missing = new Vector<String>();
+		for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+			for (int i = 0; i < entry.getValue().intValue(); i++)
+				missing.add(entry.getKey());
+		}
+
+		if (missing.isEmpty() && unexpected.isEmpty())
+			return null;
+		return new MatchSetMismatch(_element.getIteration(), _element
+				.getInput(), missing, unexpected);
+	}
+
+	/**
+	 * Changes the number of occurrences of a classifier. Classifiers whose
+	 * number drops to zero are removed.
+	 *
+	 * @param _counts
+	 *            the number of occurrences of all classifiers
+	 * @param _key
+	 *            the classifier
+	 * @param _delta
+	 *            <code>1</code> or <code>-1</code>
+	 * @return <code>false</code> iff the number of occurrences would become
+	 *         negative (it is not changed in this case)
+	 */
+	private static boolean count(HashMap<String, Integer> _counts,
+			String _key, int _delta) {
+		Integer current = _counts.get(_key);
+		int value = (current == null ? 0 : current.intValue()) + _delta;
+		if (value < 0)
+			return false;
+		if (value == 0)
+			_counts.remove(_key);
+		else
+			_counts.put(_key, Integer.valueOf(value));
+		return true;
+	}
+
+	/**
+	 * Returns the string identifying a classifier (its condition and action).
+	 *
+	 * @param _table
+	 *            classifier set containing the classifier
+	 * @param _row
+	 *            row of the classifier
+	 * @param _condition
+	 *            column of the condition
+	 * @param _action
+	 *            column of the action or <code>-1</code>
+	 * @return the string identifying the classifier
+	 */
+	private static String getKey(DefaultTableModel _table, int _row,
+			int _condition, int _action) {
+		if (_action == -1)
+			return (String) _table.getValueAt(_row, _condition);
+		return _table.getValueAt(_row, _condition) + "-"
+				+ _table.getValueAt(_row, _action);
+	}
+
+	/**
+	 * Returns the number of iterations that could not be validated during the
+	 * last validation (e.g. because the input is not binary).
+	 *
+	 * @return the number of iterations that could not be validated
+	 */
+	public int getNumberOfSkipped() {
+		return numberOfSkipped.get();
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.matching;
+
+/**
+ * A ternary classifier condition (e.g. <code>0##10001#00</code>) encoded as
+ * bit masks. Every condition position is stored in two bits: one in the
+ * <code>care</code>-mask (<code>1</code> if the position is <code>0</code>
+ * or <code>1</code>, <code>0</code> for <code>#</code>) and one in the
+ * <code>value</code>-mask. A condition matches a binary input iff
+ * <code>((input ^ value) &amp; care) == 0</code> for every 64 bit word, so
+ * matching needs one operation per 64 positions instead of one per
+ * character.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class TernaryCondition {
+
+	/**
+	 * Number of positions of the condition
+	 */
+	private final int length;
+
+	/**
+	 * Bit set for every specified position
+	 */
+	private final long[] care;
+
+	/**
+	 * Bit set for every position specified as <code>1</code>
+	 */
+	private final long[] value;
+
+	/**
+	 * Creates a condition from its bit masks.
+	 *
+	 * @param _length
+	 *            number of positions
+	 * @param _care
+	 *            bit set for every specified position
+	 * @param _value
+	 *            bit set for every position specified as <code>1</code>
+	 */
+	private TernaryCondition(int _length, long[] _care, long[] _value) {
+		this.length = _length;
+		this.care = _care;
+		this.value = _value;
+	}
+
+	/**
+	 * Encodes a ternary condition consisting of the characters
+	 * <code>0</code>, <code>1</code>, and <code>#</code>. Returns
+	 * <code>null</code> if the condition contains other characters.
+	 *
+	 * @param _condition
+	 *            the condition
+	 * @return the encoded condition or <code>null</code>
+	 */
+	public static TernaryCondition parseCondition(String _condition) {
+		return parse(_condition, true);
+	}
+
+	/**
+	 * Encodes a binary input consisting of the characters <code>0</code> and
+	 * <code>1</code>. The input is treated as a condition without
+	 * <code>#</code>. Returns <code>null</code> if the input contains other
+	 * characters.
+	 *
+	 * @param _input
+	 *            the input
+	 * @return the encoded input or <code>null</code>
+	 */
+	public static TernaryCondition parseInput(String _input) {
+		return parse(_input.trim(), false);
+	}
+
+	/**
+	 * Encodes a condition or an input.
+	 *
+	 * @param _string
+	 *            the condition or input
+	 * @param _allowDontCare
+	 *            <code>true</code> if <code>#</code> is allowed
+	 * @return the encoded condition or <code>null</code>
+	 */
+	private static TernaryCondition parse(String _string,
+			boolean _allowDontCare) {
+		int length = _string.length();
+		long[] care = new long[(length + 63) / 64];
+		long[] value = new long[care.length];
+		for (int i = 0; i < length; i++) {
+			char c = _string.charAt(i);
+			long bit = 1L << (i & 63);
+			if (c == '1') {
+				care[i >> 6] |= bit;
+				value[i >> 6] |= bit;
+			} else if (c == '0') {
+				care[i >> 6] |= bit;
+			} else if (c != '#' || !_allowDontCare) {
+				return null;
+			}
+		}
+		return new TernaryCondition(length, care, value);
+	}
+
+	/**
+	 * Returns <code>true</code> iff this condition matches the given input.
+	 * Conditions never match inputs of a different length.
+	 *
+	 * @param _input
+	 *            an input encoded by <code>parseInput()</code>
+	 * @return <code>true</code> iff this condition matches the input
+	 */
+	public boolean matches(TernaryCondition _input) {
+		if (_input.length != length)
+			return false;
+		for (int i = 0; i < care.length; i++) {
+			if (((_input.value[i] ^ value[i]) & care[i]) != 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of positions of this condition.
+	 *
+	 * @return the number of positions
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns <code>true</code> iff the given position is specified (i.e. is
+	 * <code>0</code> or <code>1</code>).
+	 *
+	 * @param _position
+	 *            a position of this condition
+	 * @return <code>true</code> iff the position is specified
+	 */
+	public boolean isSpecified(int _position) {
+		return (care[_position >> 6] & (1L << (_position & 63))) != 0;
+	}
+
+	/**
+	 * Returns <code>true</code> iff the given position is <code>1</code>.
+	 *
+	 * @param _position
+	 *            a position of this condition
+	 * @return <code>true</code> iff the position is <code>1</code>
+	 */
+	public boolean isOne(int _position) {
+		return (value[_position >> 6] & (1L << (_position & 63))) != 0;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.sketch;
+
+import javax.swing.table.DefaultTableModel;
+
+import agentlogfileanalyzer.DataElement;
+
+/**
+ * Calculates convergence metrics of the population while a log-file is read:
+ * the estimated number of distinct classifier conditions (HyperLogLog) and the
+ * estimated Jaccard similarity of the conditions of consecutive iterations
+ * (MinHash). <code>DataElement</code>s have to be processed in the order of
+ * their iterations. The sketches are reused for every iteration, so only the
+ * two resulting numbers are stored per iteration.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class ConvergenceSketcher {
+
+	/**
+	 * Precision of the HyperLogLog sketch (4096 registers, about 1.6% error)
+	 */
+	private static final int PRECISION = 12;
+
+	/**
+	 * Number of bins of the MinHash signatures (about 9% error)
+	 */
+	private static final int SIGNATURE_SIZE = 128;
+
+	/**
+	 * Counts the distinct conditions of the current iteration.
+	 */
+	private HyperLogLog distinctConditions;
+
+	/**
+	 * Signature of the conditions of the current iteration
+	 */
+	private MinHash currentSignature;
+
+	/**
+	 * Signature of the conditions of the previous iteration
+	 */
+	private MinHash previousSignature;
+
+	/**
+	 * <code>true</code> if no iteration has been processed yet
+	 */
+	private boolean first;
+
+	/**
+	 * Creates a new <code>ConvergenceSketcher</code>.
+	 */
+	public ConvergenceSketcher() {
+		this.distinctConditions = new HyperLogLog(PRECISION);
+		this.currentSignature = new MinHash(SIGNATURE_SIZE);
+		this.previousSignature = new MinHash(SIGNATURE_SIZE);
+		this.first = true;
+	}
+
+	/**
+	 * Calculates the convergence metrics of the given
+	 * <code>DataElement</code> and stores them in the element. Nothing is
+	 * calculated if the population has no column "Condition".
+	 *
+	 * @param _element
+	 *            the <code>DataElement</code> of the next iteration
+	 */
+	public void process(DataElement _element) {
+		DefaultTableModel population = _element.getPopulation();
+		int column = population.findColumn("Condition");
+		if (column == -1)
+			return;
+
+		// Swap signatures, the current one becomes the previous one...
+		MinHash signature = previousSignature;
+		previousSignature = currentSignature;
+		currentSignature = signature;
+
+		distinctConditions.clear();
+		currentSignature.clear();
+		for (int row = 0; row < population.getRowCount(); row++) {
+			Object condition = population.getValueAt(row, column);
+			if (condition != null) {
+				// Both sketches share one hash per condition...
+				long hash = Hashing.hash(condition.toString());
+				distinctConditions.add(hash);
+				currentSignature.add(hash);
+			}
+		}
+
+		_element.setDistinctConditions(Math.min(distinctConditions
+				.estimate(), population.getRowCount()));
+		if (!first)
+			_element.setConditionSimilarity(currentSignature
+					.similarity(previousSignature));
+		first = false;
+	}
+}
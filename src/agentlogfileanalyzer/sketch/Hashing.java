@@ -0,0 +1,71 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.sketch;
+
+/**
+ * Provides the 64 bit hash function used by all sketches.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+class Hashing {
+
+	/**
+	 * Utility class, no instances.
+	 */
+	private Hashing() {
+	}
+
+	/**
+	 * Returns a 64 bit hash of a <code>String</code> (FNV-1a followed by the
+	 * finalizer of MurmurHash3).
+	 *
+	 * @param _value
+	 *            the <code>String</code> to hash
+	 * @return a 64 bit hash of the <code>String</code>
+	 */
+	static long hash(String _value) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < _value.length(); i++) {
+			h ^= _value.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * Scrambles the bits of a 64 bit value (finalizer of MurmurHash3).
+	 *
+	 * @param _value
+	 *            the value
+	 * @return the scrambled value
+	 */
+	static long mix(long _value) {
+		long h = _value;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
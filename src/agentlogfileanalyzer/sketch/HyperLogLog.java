@@ -0,0 +1,113 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the number of distinct <code>String</code>s added to it
+ * (HyperLogLog). The sketch needs <code>2^precision</code> bytes; its
+ * relative standard error is about <code>1.04 / sqrt(2^precision)</code>.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class HyperLogLog {
+
+	/**
+	 * Number of hash bits used to select a register
+	 */
+	private final int precision;
+
+	/**
+	 * The registers; each one stores the maximum rank seen
+	 */
+	private final byte[] registers;
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param _precision
+	 *            number of hash bits used to select a register (4 to 16)
+	 */
+	public HyperLogLog(int _precision) {
+		this.precision = Math.max(4, Math.min(16, _precision));
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds a <code>String</code> to this sketch.
+	 *
+	 * @param _value
+	 *            the <code>String</code> to add
+	 */
+	public void add(String _value) {
+		add(Hashing.hash(_value));
+	}
+
+	/**
+	 * Adds a <code>String</code> given by its hash (see
+	 * <code>Hashing.hash()</code>) to this sketch.
+	 *
+	 * @param _hash
+	 *            the hash of the <code>String</code>
+	 */
+	void add(long _hash) {
+		int index = (int) (_hash >>> (64 - precision));
+		// Rank = position of the first 1-bit in the remaining bits...
+		long remaining = (_hash << precision) | (1L << (precision - 1));
+		byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+		if (rank > registers[index])
+			registers[index] = rank;
+	}
+
+	/**
+	 * Returns the estimated number of distinct <code>String</code>s added to
+	 * this sketch.
+	 *
+	 * @return the estimated number of distinct <code>String</code>s
+	 */
+	public double estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (int i = 0; i < m; i++) {
+			sum += 1.0 / (1L << registers[i]);
+			if (registers[i] == 0)
+				zeros++;
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+
+		// Small range correction (linear counting)...
+		if (estimate <= 2.5 * m && zeros > 0)
+			estimate = m * Math.log((double) m / zeros);
+		return estimate;
+	}
+
+	/**
+	 * Removes all <code>String</code>s from this sketch.
+	 */
+	public void clear() {
+		Arrays.fill(registers, (byte) 0);
+	}
+}
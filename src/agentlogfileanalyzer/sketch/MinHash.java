@@ -0,0 +1,144 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ *
+ * Copyright (C) 2008
+ * Clemens Gersbacher <clgersbacher@web.de>,
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package agentlogfileanalyzer.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Stores a one-permutation MinHash signature of a set of <code>String</code>s.
+ * Comparing the signatures of two sets estimates their Jaccard similarity
+ * (size of the intersection divided by the size of the union). The standard
+ * error of the estimate is about <code>1 / sqrt(size)</code>.
+ * <p>
+ * Each <code>String</code> is hashed once: the lower bits of the hash select
+ * one of <code>size</code> bins, and every bin keeps the minimum hash of its
+ * <code>String</code>s. Bins that remain empty in small sets borrow the value
+ * of the next non-empty bin when signatures are compared (densification), so
+ * adding a <code>String</code> costs a single hash instead of one hash per
+ * bin.
+ *
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class MinHash {
+
+	/**
+	 * Minimum hash value of every bin; <code>Long.MAX_VALUE</code> for empty
+	 * bins
+	 */
+	private final long[] minima;
+
+	/**
+	 * <code>true</code> if nothing has been added to this signature
+	 */
+	private boolean empty;
+
+	/**
+	 * Creates an empty signature.
+	 *
+	 * @param _size
+	 *            number of bins (at most 256)
+	 */
+	public MinHash(int _size) {
+		this.minima = new long[Math.max(1, Math.min(256, _size))];
+		clear();
+	}
+
+	/**
+	 * Adds a <code>String</code> to the set described by this signature.
+	 *
+	 * @param _value
+	 *            the <code>String</code> to add
+	 */
+	public void add(String _value) {
+		add(Hashing.hash(_value));
+	}
+
+	/**
+	 * Adds a <code>String</code> given by its hash (see
+	 * <code>Hashing.hash()</code>) to the set described by this signature.
+	 *
+	 * @param _hash
+	 *            the hash of the <code>String</code>
+	 */
+	void add(long _hash) {
+		int bin = (int) (((_hash & 0xffffffffL) * minima.length) >>> 32);
+		if (_hash < minima[bin])
+			minima[bin] = _hash;
+		empty = false;
+	}
+
+	/**
+	 * Estimates the Jaccard similarity of the sets described by this and
+	 * another signature. Both signatures need the same size. Two empty sets
+	 * have a similarity of <code>1</code>.
+	 *
+	 * @param _other
+	 *            another signature
+	 * @return the estimated Jaccard similarity (between <code>0</code> and
+	 *         <code>1</code>)
+	 */
+	public double similarity(MinHash _other) {
+		if (empty && _other.empty)
+			return 1;
+		if (empty || _other.empty)
+			return 0;
+		long[] these = densify();
+		long[] others = _other.densify();
+		int equal = 0;
+		for (int i = 0; i < these.length; i++) {
+			if (these[i] == others[i])
+				equal++;
+		}
+		return (double) equal / these.length;
+	}
+
+	/**
+	 * Returns the minima of all bins. An empty bin takes the minimum of the
+	 * next non-empty bin (in circular order), scrambled with the distance to
+	 * that bin, so equal sets still yield equal values. The signature must
+	 * not be empty.
+	 *
+	 * @return the minima of all bins
+	 */
+	private long[] densify() {
+		long[] result = minima.clone();
+		for (int i = 0; i < result.length; i++) {
+			if (minima[i] != Long.MAX_VALUE)
+				continue;
+			int distance = 1;
+			while (minima[(i + distance) % minima.length] == Long.MAX_VALUE)
+				distance++;
+			result[i] = Hashing.mix(minima[(i + distance) % minima.length]
+					+ distance);
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all <code>String</code>s from this signature.
+	 */
+	public void clear() {
+		Arrays.fill(minima, Long.MAX_VALUE);
+		empty = true;
+	}
+}
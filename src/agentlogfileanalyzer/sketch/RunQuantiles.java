@@ -0,0 +1,413 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.sketch;
+
+import java.util.*;
+
+import agentlogfileanalyzer.*;
+import agentlogfileanalyzer.histogram.HistogramValues;
+import agentlogfileanalyzer.histogram.UniversalHistogram;
+
+/**
+ * Summarizes the distribution of a numeric column in every iteration of a run
+ * by a fixed number of quantiles. The summaries are small compared to the
+ * classifier sets, so the rank of a value among all values of many
+ * iterations can be estimated interactively: the rank within an iteration is
+ * interpolated between its quantiles, and the ranks are summed over the
+ * iterations. Blocks of <code>BLOCK_SIZE</code> consecutive iterations are
+ * merged into summaries of their own, so a window of iterations is covered by
+ * few block summaries and at most <code>2 * BLOCK_SIZE</code> summaries of
+ * single iterations.
+ * <p>
+ * Summaries are computed once per run, classifier set and column and are kept
+ * as long as the <code>DataMemory</code> of the run is in use.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class RunQuantiles {
+
+	/**
+	 * Number of intervals between the stored quantiles of an iteration
+	 */
+	public static final int INTERVALS = 32;
+
+	/**
+	 * Number of iterations merged into the summary of a block
+	 */
+	public static final int BLOCK_SIZE = 64;
+
+	/**
+	 * Computed summaries of every run
+	 */
+	private static final WeakHashMap<DataMemory, HashMap<List<Object>, RunQuantiles>> summaries = new WeakHashMap<DataMemory, HashMap<List<Object>, RunQuantiles>>();
+
+	/**
+	 * The 0, 1/INTERVALS, ..., 1 quantiles of every iteration;
+	 * <code>null</code> for iterations without values
+	 */
+	private double[][] quantiles;
+
+	/**
+	 * Number of values of every iteration
+	 */
+	private int[] counts;
+
+	/**
+	 * The quantiles of every complete block of iterations; <code>null</code>
+	 * for blocks without values
+	 */
+	private double[][] blockQuantiles;
+
+	/**
+	 * Number of values of every complete block of iterations
+	 */
+	private long[] blockCounts;
+
+	/**
+	 * Creates the summaries of a column in all iterations. All iterations are
+	 * processed in parallel.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _tableId
+	 *            identifier of the classifier set
+	 * @param _columnName
+	 *            name of the numeric column
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	private RunQuantiles(final DataMemory _dataMemory, final int _tableId,
+			String _columnName) throws InterruptedException {
+		final int size = _dataMemory.size();
+		final UniversalHistogram column = new UniversalHistogram(_columnName);
+		quantiles = new double[size][];
+		counts = new int[size];
+
+		_dataMemory.processInParallel(0, size, new IterationRangeProcessor() {
+			public void process(int _fromIndex, int _toIndex) {
+				HistogramValues values = new HistogramValues();
+				for (int i = _fromIndex; i < _toIndex; i++) {
+					values.clear();
+					column.calculateHistogramData(_dataMemory.getElement(i)
+							.getClassifierSet(_tableId), values);
+					double[] data = values.getValues();
+					int count = 0;
+					for (int j = 0; j < values.size(); j++) {
+						if (!Double.isNaN(data[j]))
+							data[count++] = data[j];
+					}
+					if (count == 0)
+						continue;
+					Arrays.sort(data, 0, count);
+					double[] iterationQuantiles = new double[INTERVALS + 1];
+					for (int q = 0; q <= INTERVALS; q++)
+						iterationQuantiles[q] = data[(int) Math
+								.round((double) q * (count - 1) / INTERVALS)];
+					quantiles[i] = iterationQuantiles;
+					counts[i] = count;
+				}
+			}
+		});
+
+		int numberOfBlocks = size / BLOCK_SIZE;
+		blockQuantiles = new double[numberOfBlocks][];
+		blockCounts = new long[numberOfBlocks];
+		for (int block = 0; block < numberOfBlocks; block++)
+			mergeBlock(block);
+	}
+
+	/**
+	 * Merges the summaries of the iterations of a block. Every quantile of an
+	 * iteration stands for an equal share of the iteration's values; the
+	 * quantiles of the block are read from the weighted quantiles of all
+	 * iterations.
+	 * 
+	 * @param _block
+	 *            number of the block
+	 */
+	private void mergeBlock(int _block) {
+		int from = _block * BLOCK_SIZE;
+		double[] points = new double[BLOCK_SIZE * (INTERVALS + 1)];
+		double[] weights = new double[points.length];
+		int numberOfPoints = 0;
+		long count = 0;
+		for (int i = from; i < from + BLOCK_SIZE; i++) {
+			if (quantiles[i] == null)
+				continue;
+			for (int q = 0; q <= INTERVALS; q++) {
+				points[numberOfPoints] = quantiles[i][q];
+				weights[numberOfPoints++] = (double) counts[i]
+						/ (INTERVALS + 1);
+			}
+			count += counts[i];
+		}
+		if (count == 0)
+			return;
+
+		int[] order = IndexSort.sort(Arrays.copyOf(points, numberOfPoints));
+		double[] merged = new double[INTERVALS + 1];
+		merged[0] = points[order[0]];
+		merged[INTERVALS] = points[order[numberOfPoints - 1]];
+		double cumulated = 0;
+		int next = 0;
+		for (int q = 1; q < INTERVALS; q++) {
+			double target = (double) q * count / INTERVALS;
+			while (next < numberOfPoints - 1
+					&& cumulated + weights[order[next]] < target)
+				cumulated += weights[order[next++]];
+			merged[q] = points[order[next]];
+		}
+		blockQuantiles[_block] = merged;
+		blockCounts[_block] = count;
+	}
+
+	/**
+	 * Returns the summaries of a column if they were already computed.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _columnName
+	 *            name of the column
+	 * @return the summaries, or <code>null</code> if they were not computed
+	 *         yet
+	 */
+	public static synchronized RunQuantiles lookup(DataMemory _dataMemory,
+			int _tableId, String _columnName) {
+		HashMap<List<Object>, RunQuantiles> runSummaries = summaries
+				.get(_dataMemory);
+		if (runSummaries == null)
+			return null;
+		return runSummaries.get(key(_tableId, _columnName));
+	}
+
+	/**
+	 * Returns the summaries of a column. The summaries are computed in
+	 * parallel if they were not computed yet. Must not be called by a thread
+	 * of the worker pool.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _tableId
+	 *            identifier of the classifier set (<code>0</code> for
+	 *            population, <code>1</code> for match set, <code>2</code>
+	 *            for action set)
+	 * @param _columnName
+	 *            name of the column
+	 * @return the summaries
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public static RunQuantiles getRunQuantiles(DataMemory _dataMemory,
+			int _tableId, String _columnName) throws InterruptedException {
+		RunQuantiles result = lookup(_dataMemory, _tableId, _columnName);
+		if (result != null)
+			return result;
+
+		result = new RunQuantiles(_dataMemory, _tableId, _columnName);
+		synchronized (RunQuantiles.class) {
+			HashMap<List<Object>, RunQuantiles> runSummaries = summaries
+					.get(_dataMemory);
+			if (runSummaries == null) {
+				runSummaries = new HashMap<List<Object>, RunQuantiles>();
+				summaries.put(_dataMemory, runSummaries);
+			}
+			runSummaries.put(key(_tableId, _columnName), result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the key of the summaries of a column.
+	 * 
+	 * @param _tableId
+	 *            identifier of the classifier set
+	 * @param _columnName
+	 *            name of the column
+	 * @return the key
+	 */
+	private static List<Object> key(int _tableId, String _columnName) {
+		return Arrays.asList(new Object[] { Integer.valueOf(_tableId),
+				_columnName });
+	}
+
+	/**
+	 * Returns the number of values in a range of iterations.
+	 * 
+	 * @param _fromIndex
+	 *            position of the first iteration in the
+	 *            <code>DataMemory</code> (inclusive)
+	 * @param _toIndex
+	 *            position of the last iteration (exclusive)
+	 * @return the number of values
+	 */
+	public long getNumberOfValues(int _fromIndex, int _toIndex) {
+		long result = 0;
+		int i = _fromIndex;
+		while (i < _toIndex) {
+			if (isBlockStart(i, _toIndex)) {
+				result += blockCounts[i / BLOCK_SIZE];
+				i += BLOCK_SIZE;
+			} else {
+				result += counts[i++];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Estimates the share of values in a range of iterations that are less
+	 * than or equal to the given value.
+	 * 
+	 * @param _value
+	 *            the value
+	 * @param _fromIndex
+	 *            position of the first iteration in the
+	 *            <code>DataMemory</code> (inclusive)
+	 * @param _toIndex
+	 *            position of the last iteration (exclusive)
+	 * @return the share of values (between <code>0</code> and
+	 *         <code>1</code>), or <code>Double.NaN</code> if the iterations
+	 *         contain no values
+	 */
+	public double getRank(double _value, int _fromIndex, int _toIndex) {
+		double below = 0;
+		long total = 0;
+		int i = _fromIndex;
+		while (i < _toIndex) {
+			if (isBlockStart(i, _toIndex)) {
+				int block = i / BLOCK_SIZE;
+				if (blockQuantiles[block] != null) {
+					below += getRank(blockQuantiles[block], _value)
+							* blockCounts[block];
+					total += blockCounts[block];
+				}
+				i += BLOCK_SIZE;
+			} else {
+				if (quantiles[i] != null) {
+					below += getRank(quantiles[i], _value) * counts[i];
+					total += counts[i];
+				}
+				i++;
+			}
+		}
+		return total == 0 ? Double.NaN : below / total;
+	}
+
+	/**
+	 * Estimates the quantile of the values in a range of iterations by
+	 * searching the value whose estimated rank is the given probability.
+	 * 
+	 * @param _probability
+	 *            the probability (between <code>0</code> and <code>1</code>)
+	 * @param _fromIndex
+	 *            position of the first iteration in the
+	 *            <code>DataMemory</code> (inclusive)
+	 * @param _toIndex
+	 *            position of the last iteration (exclusive)
+	 * @return the quantile, or <code>Double.NaN</code> if the iterations
+	 *         contain no values
+	 */
+	public double getQuantile(double _probability, int _fromIndex,
+			int _toIndex) {
+		double low = Double.POSITIVE_INFINITY;
+		double high = Double.NEGATIVE_INFINITY;
+		int i = _fromIndex;
+		while (i < _toIndex) {
+			double[] summary;
+			if (isBlockStart(i, _toIndex)) {
+				summary = blockQuantiles[i / BLOCK_SIZE];
+				i += BLOCK_SIZE;
+			} else {
+				summary = quantiles[i++];
+			}
+			if (summary != null) {
+				low = Math.min(low, summary[0]);
+				high = Math.max(high, summary[INTERVALS]);
+			}
+		}
+		if (low > high)
+			return Double.NaN;
+
+		// Bisect the range of the values...
+		for (int step = 0; step < 50 && low < high; step++) {
+			double middle = low + (high - low) / 2;
+			if (middle <= low || middle >= high)
+				break;
+			if (getRank(middle, _fromIndex, _toIndex) < _probability)
+				low = middle;
+			else
+				high = middle;
+		}
+		return high;
+	}
+
+	/**
+	 * Returns <code>true</code> iff a complete block of iterations starts at
+	 * the given position and ends before the end of the range.
+	 * 
+	 * @param _index
+	 *            position of an iteration
+	 * @param _toIndex
+	 *            end of the range (exclusive)
+	 * @return <code>true</code> iff the summary of the block can be used
+	 */
+	private boolean isBlockStart(int _index, int _toIndex) {
+		return _index % BLOCK_SIZE == 0 && _index + BLOCK_SIZE <= _toIndex;
+	}
+
+	/**
+	 * Estimates the share of the values of one iteration or block that are
+	 * less than or equal to the given value by interpolating between its
+	 * quantiles.
+	 * 
+	 * @param _quantiles
+	 *            the quantiles of the iteration or block
+	 * @param _value
+	 *            the value
+	 * @return the share of values (between <code>0</code> and
+	 *         <code>1</code>)
+	 */
+	private static double getRank(double[] _quantiles, double _value) {
+		if (_value < _quantiles[0])
+			return 0;
+		if (_value >= _quantiles[INTERVALS])
+			return 1;
+		// Find the last quantile less than or equal to the value...
+		int low = 0;
+		int high = INTERVALS;
+		while (high - low > 1) {
+			int middle = (low + high) >>> 1;
+			if (_quantiles[middle] <= _value)
+				low = middle;
+			else
+				high = middle;
+		}
+		double width = _quantiles[high] - _quantiles[low];
+		double fraction = width > 0 ? (_value - _quantiles[low]) / width : 1;
+		return (low + fraction) / INTERVALS;
+	}
+}
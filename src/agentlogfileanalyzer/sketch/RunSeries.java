@@ -0,0 +1,334 @@
+/*
+ * LogFileAnalyzer for Learning Classifier Systems
+ * 
+ * Copyright (C) 2008 
+ * Clemens Gersbacher <clgersbacher@web.de>, 
+ * Holger Prothmann <holger.prothmann@kit.edu>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ */
+
+package agentlogfileanalyzer.sketch;
+
+import java.util.*;
+
+import agentlogfileanalyzer.*;
+
+/**
+ * Stores a metric of every iteration of a run (e.g. the population size or
+ * the mean fitness of the population, see
+ * <code>RunSummary.getMetricNames()</code>) together with a min/max pyramid:
+ * level <code>k</code> of the pyramid holds the positions of the smallest and
+ * the largest value of every block of <code>2^k</code> consecutive
+ * iterations. A range of iterations is downsampled to a given number of
+ * buckets by reading one level of the pyramid, so the costs of a query depend
+ * on the number of buckets, not on the number of iterations.
+ * <p>
+ * Series are computed once per run and metric and are kept as long as the
+ * <code>DataMemory</code> of the run is in use.
+ * 
+ * @author Clemens Gersbacher, Holger Prothmann
+ */
+public class RunSeries {
+
+	/**
+	 * Number of metrics that do not depend on table columns (population
+	 * size, match set size, action set size)
+	 */
+	private static final int NUMBER_OF_SIZE_METRICS = 3;
+
+	/**
+	 * Computed series of every run
+	 */
+	private static final WeakHashMap<DataMemory, HashMap<Integer, RunSeries>> series = new WeakHashMap<DataMemory, HashMap<Integer, RunSeries>>();
+
+	/**
+	 * Iteration numbers of all iterations
+	 */
+	private double[] iterations;
+
+	/**
+	 * Values of the metric in all iterations; <code>Double.NaN</code> if an
+	 * iteration has no value
+	 */
+	private double[] values;
+
+	/**
+	 * Positions of the smallest values of the blocks of every level
+	 * (<code>[level][block]</code>, <code>-1</code> if a block has no
+	 * values); level <code>0</code> is not stored
+	 */
+	private int[][] minimumPositions;
+
+	/**
+	 * Positions of the largest values of the blocks of every level
+	 * (<code>[level][block]</code>, <code>-1</code> if a block has no
+	 * values); level <code>0</code> is not stored
+	 */
+	private int[][] maximumPositions;
+
+	/**
+	 * Computes the series of a metric and its pyramid. All iterations are
+	 * processed in parallel.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _metric
+	 *            index of the metric (see
+	 *            <code>RunSummary.getMetricNames()</code>)
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	private RunSeries(final DataMemory _dataMemory, final int _metric)
+			throws InterruptedException {
+		int size = _dataMemory.size();
+		iterations = new double[size];
+		values = new double[size];
+		// Iterations in which a column contains no numbers have no mean (see
+		// RunSummary.getColumnMean())...
+		_dataMemory.processInParallel(0, size, new IterationRangeProcessor() {
+			public void process(int _fromIndex, int _toIndex) {
+				for (int i = _fromIndex; i < _toIndex; i++) {
+					DataElement element = _dataMemory.getElement(i);
+					iterations[i] = element.getIteration();
+					if (_metric < NUMBER_OF_SIZE_METRICS)
+						values[i] = element.getClassifierSet(_metric)
+								.getRowCount();
+					else
+						values[i] = RunSummary.getColumnMean(element
+								.getPopulation(), _metric
+								- NUMBER_OF_SIZE_METRICS);
+				}
+			}
+		});
+
+		// Build the pyramid level by level...
+		int levels = 1;
+		while ((1 << levels) < size)
+			levels++;
+		minimumPositions = new int[levels][];
+		maximumPositions = new int[levels][];
+		for (int level = 1; level < levels; level++) {
+			int blocks = ((size - 1) >> level) + 1;
+			int[] minimums = new int[blocks];
+			int[] maximums = new int[blocks];
+			for (int block = 0; block < blocks; block++) {
+				int first = 2 * block;
+				int second = Math.min(first + 1, ((size - 1) >> (level - 1)));
+				minimums[block] = select(getMinimumPosition(level - 1, first),
+						getMinimumPosition(level - 1, second), true);
+				maximums[block] = select(getMaximumPosition(level - 1, first),
+						getMaximumPosition(level - 1, second), false);
+			}
+			minimumPositions[level] = minimums;
+			maximumPositions[level] = maximums;
+		}
+	}
+
+	/**
+	 * Returns the series of a metric if it was already computed.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _metric
+	 *            index of the metric (see
+	 *            <code>RunSummary.getMetricNames()</code>)
+	 * @return the series, or <code>null</code> if it was not computed yet
+	 */
+	public static synchronized RunSeries lookup(DataMemory _dataMemory,
+			int _metric) {
+		HashMap<Integer, RunSeries> runSeries = series.get(_dataMemory);
+		if (runSeries == null)
+			return null;
+		return runSeries.get(Integer.valueOf(_metric));
+	}
+
+	/**
+	 * Returns the series of a metric. The series is computed in parallel if
+	 * it was not computed yet. Must not be called by a thread of the worker
+	 * pool.
+	 * 
+	 * @param _dataMemory
+	 *            contains all iterations of the run
+	 * @param _metric
+	 *            index of the metric (see
+	 *            <code>RunSummary.getMetricNames()</code>)
+	 * @return the series
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public static RunSeries getRunSeries(DataMemory _dataMemory, int _metric)
+			throws InterruptedException {
+		RunSeries result = lookup(_dataMemory, _metric);
+		if (result != null)
+			return result;
+
+		result = new RunSeries(_dataMemory, _metric);
+		synchronized (RunSeries.class) {
+			HashMap<Integer, RunSeries> runSeries = series.get(_dataMemory);
+			if (runSeries == null) {
+				runSeries = new HashMap<Integer, RunSeries>();
+				series.put(_dataMemory, runSeries);
+			}
+			runSeries.put(Integer.valueOf(_metric), result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of iterations of the series.
+	 * 
+	 * @return the number of iterations
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * Returns the iteration number at a position.
+	 * 
+	 * @param _index
+	 *            position of the iteration in the <code>DataMemory</code>
+	 * @return the iteration number
+	 */
+	public double getIteration(int _index) {
+		return iterations[_index];
+	}
+
+	/**
+	 * Returns the value of the metric at a position.
+	 * 
+	 * @param _index
+	 *            position of the iteration in the <code>DataMemory</code>
+	 * @return the value, or <code>Double.NaN</code> if the iteration has no
+	 *         value
+	 */
+	public double getValue(int _index) {
+		return values[_index];
+	}
+
+	/**
+	 * Downsamples a range of iterations to the given number of buckets. For
+	 * every bucket, the positions of its smallest and its largest value are
+	 * returned, so the extremes of the series remain visible at any
+	 * resolution. If the range contains at most two iterations per bucket,
+	 * all positions with a value are returned.
+	 * 
+	 * @param _fromIndex
+	 *            position of the first iteration (inclusive)
+	 * @param _toIndex
+	 *            position of the last iteration (exclusive)
+	 * @param _buckets
+	 *            number of buckets (e.g. the width of a chart in pixels)
+	 * @return the selected positions in ascending order
+	 */
+	public int[] downsample(int _fromIndex, int _toIndex, int _buckets) {
+		_fromIndex = Math.max(0, _fromIndex);
+		_toIndex = Math.min(values.length, _toIndex);
+		int length = _toIndex - _fromIndex;
+		if (length <= 0)
+			return new int[0];
+		int[] result;
+		int count = 0;
+
+		if (length <= 2 * _buckets) {
+			result = new int[length];
+			for (int i = _fromIndex; i < _toIndex; i++)
+				if (!Double.isNaN(values[i]))
+					result[count++] = i;
+			return Arrays.copyOf(result, count);
+		}
+
+		// Choose the finest level with at least two blocks per bucket...
+		int level = 0;
+		while ((2L << level) * 2 * _buckets <= length)
+			level++;
+		int firstBlock = _fromIndex >> level;
+		int numberOfBlocks = ((_toIndex - 1) >> level) + 1 - firstBlock;
+
+		result = new int[2 * _buckets];
+		for (int bucket = 0; bucket < _buckets; bucket++) {
+			int from = firstBlock + (int) ((long) bucket * numberOfBlocks / _buckets);
+			int to = firstBlock
+					+ (int) ((long) (bucket + 1) * numberOfBlocks / _buckets);
+			int minimum = -1;
+			int maximum = -1;
+			for (int block = from; block < to; block++) {
+				minimum = select(minimum, getMinimumPosition(level, block),
+						true);
+				maximum = select(maximum, getMaximumPosition(level, block),
+						false);
+			}
+			if (minimum == -1)
+				continue;
+			result[count++] = Math.min(minimum, maximum);
+			if (minimum != maximum)
+				result[count++] = Math.max(minimum, maximum);
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Returns the position of the smallest value of a block.
+	 * 
+	 * @param _level
+	 *            level of the pyramid
+	 * @param _block
+	 *            number of the block
+	 * @return the position, or <code>-1</code> if the block has no values
+	 */
+	private int getMinimumPosition(int _level, int _block) {
+		if (_level > 0)
+			return minimumPositions[_level][_block];
+		return Double.isNaN(values[_block]) ? -1 : _block;
+	}
+
+	/**
+	 * Returns the position of the largest value of a block.
+	 * 
+	 * @param _level
+	 *            level of the pyramid
+	 * @param _block
+	 *            number of the block
+	 * @return the position, or <code>-1</code> if the block has no values
+	 */
+	private int getMaximumPosition(int _level, int _block) {
+		if (_level > 0)
+			return maximumPositions[_level][_block];
+		return Double.isNaN(values[_block]) ? -1 : _block;
+	}
+
+	/**
+	 * Returns the position of the smaller or the larger of two values.
+	 * 
+	 * @param _first
+	 *            position of the first value, or <code>-1</code>
+	 * @param _second
+	 *            position of the second value, or <code>-1</code>
+	 * @param _minimum
+	 *            <code>true</code> to select the smaller value
+	 * @return the selected position, or <code>-1</code> if both positions are
+	 *         <code>-1</code>
+	 */
+	private int select(int _first, int _second, boolean _minimum) {
+		if (_first == -1)
+			return _second;
+		if (_second == -1)
+			return _first;
+		if (_minimum)
+			return values[_second] < values[_first] ? _second : _first;
+		return values[_second] > values[_first] ? _second : _first;
+	}
+}